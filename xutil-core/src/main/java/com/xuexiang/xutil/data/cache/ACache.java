@@ -0,0 +1,2305 @@
+/*
+ * Copyright (C) 2018 xuexiangjys(xuexiangjys@163.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.xuexiang.xutil.data.cache;
+
+import android.graphics.Bitmap;
+import android.graphics.drawable.Drawable;
+import android.os.Parcelable;
+import android.os.Process;
+
+import androidx.annotation.NonNull;
+import androidx.collection.SimpleArrayMap;
+
+import com.xuexiang.xutil.XUtil;
+import com.xuexiang.xutil.file.CloseUtils;
+import com.xuexiang.xutil.system.ParallelUtils;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.Deflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * <pre>
+ *     desc   : 缓存相关工具类【键值对存储】
+ *     author : xuexiang
+ *     time   : 2018/2/16 下午2:14
+ * </pre>
+ */
+public final class ACache {
+
+    private static final long DEFAULT_MAX_SIZE = Long.MAX_VALUE;
+    private static final int DEFAULT_MAX_COUNT = Integer.MAX_VALUE;
+    /**
+     * 默认的压缩阈值，小于该值的数据压缩收益很小，不压缩
+     */
+    private static final int DEFAULT_COMPRESS_THRESHOLD = 1024;
+
+    public static final int SEC = 1;
+    public static final int MIN = 60;
+    public static final int HOUR = 3600;
+    public static final int DAY = 86400;
+
+    private static final SimpleArrayMap<String, ACache> CACHE_MAP = new SimpleArrayMap<>();
+    /**
+     * 缓存分片，不同分片使用各自的目录、索引、日志和锁
+     */
+    private final CacheManager[] mShards;
+    private final boolean mSlabEnabled;
+    /**
+     * 内存缓存，为空时不启用
+     */
+    private volatile MemoryCache mMemoryCache;
+    /**
+     * 尚未写入磁盘的异步写入，同一个键只保留最后一次的值，读取无需加锁，修改需持有该对象锁
+     */
+    private final ConcurrentHashMap<String, PendingWrite> mPendingWrites = new ConcurrentHashMap<>();
+    /**
+     * 写入磁盘并更新内存期间持有读锁，替换或清除全部缓存时持有写锁，
+     * 保证进行中的写入在替换前完成，不会在替换后写回旧值
+     */
+    private final ReentrantReadWriteLock mReplaceLock = new ReentrantReadWriteLock();
+    private final StatsCounter mStats = new StatsCounter();
+    private final ConcurrentHashMap<ValueCodec<?>, CodecStats> mCodecStats = new ConcurrentHashMap<>();
+    /**
+     * 是否默认压缩写入磁盘的数据
+     */
+    private volatile boolean mCompressEnabled;
+    private volatile int mCompressLevel = Deflater.DEFAULT_COMPRESSION;
+    private volatile int mCompressThreshold = DEFAULT_COMPRESS_THRESHOLD;
+    private final AtomicLong mCompressInputBytes = new AtomicLong();
+    private final AtomicLong mCompressOutputBytes = new AtomicLong();
+
+    /**
+     * 获取缓存实例
+     * <p>在 /data/data/com.xxx.xxx/cache/ACache 目录</p>
+     * <p>缓存尺寸不限</p>
+     * <p>缓存个数不限</p>
+     *
+     * @return {@link ACache}
+     */
+    public static ACache get() {
+        return get("", DEFAULT_MAX_SIZE, DEFAULT_MAX_COUNT);
+    }
+
+    /**
+     * 获取缓存实例
+     * <p>在 /data/data/com.xxx.xxx/cache/cacheName 目录</p>
+     * <p>缓存尺寸不限</p>
+     * <p>缓存个数不限</p>
+     *
+     * @param cacheName 缓存目录名
+     * @return {@link ACache}
+     */
+    public static ACache get(final String cacheName) {
+        return get(cacheName, DEFAULT_MAX_SIZE, DEFAULT_MAX_COUNT);
+    }
+
+    /**
+     * 获取缓存实例
+     * <p>在 /data/data/com.xxx.xxx/cache/ACache </p>
+     *
+     * @param maxSize  最大缓存尺寸，单位字节
+     * @param maxCount 最大缓存个数
+     * @return {@link ACache}
+     */
+    public static ACache get(final long maxSize, final int maxCount) {
+        return get("", maxSize, maxCount);
+    }
+
+    /**
+     * 获取缓存实例
+     * <p>在 /data/data/com.xxx.xxx/cache/cacheName 目录</p>
+     *
+     * @param cacheName 缓存目录名
+     * @param maxSize   最大缓存尺寸，单位字节
+     * @param maxCount  最大缓存个数
+     * @return {@link ACache}
+     */
+    public static ACache get(String cacheName, final long maxSize, final int maxCount) {
+        if (isSpace(cacheName)) {
+            cacheName = "ACache";
+        }
+        File file = new File(XUtil.getContext().getCacheDir(), cacheName);
+        return get(file, maxSize, maxCount);
+    }
+
+    /**
+     * 获取缓存实例
+     * <p>在 cacheDir 目录</p>
+     * <p>缓存尺寸不限</p>
+     * <p>缓存个数不限</p>
+     *
+     * @param cacheDir 缓存目录
+     * @return {@link ACache}
+     */
+    public static ACache get(@NonNull final File cacheDir) {
+        return get(cacheDir, DEFAULT_MAX_SIZE, DEFAULT_MAX_COUNT);
+    }
+
+    /**
+     * 获取缓存实例
+     * <p>在 cacheDir 目录</p>
+     *
+     * @param cacheDir 缓存目录
+     * @param maxSize  最大缓存尺寸，单位字节
+     * @param maxCount 最大缓存个数
+     * @return {@link ACache}
+     */
+    public static ACache get(@NonNull final File cacheDir,
+                             final long maxSize,
+                             final int maxCount) {
+        return get(cacheDir, maxSize, maxCount, 1);
+    }
+
+    /**
+     * 获取缓存实例
+     * <p>在 cacheDir 目录，缓存按键分散到 shardCount 个子目录中，每个子目录有各自的索引和锁，
+     * 适合缓存个数较多或多线程频繁读写的场景</p>
+     * <p>同一目录只会创建一个实例，修改分片数后原有的缓存会在后台迁移到新的分片中</p>
+     *
+     * @param cacheDir   缓存目录
+     * @param maxSize    最大缓存尺寸，单位字节，平均分配给每个分片
+     * @param maxCount   最大缓存个数，平均分配给每个分片
+     * @param shardCount 分片数，为1时不分片
+     * @return {@link ACache}
+     */
+    public static ACache get(@NonNull final File cacheDir,
+                             final long maxSize,
+                             final int maxCount,
+                             final int shardCount) {
+        return get(cacheDir, maxSize, maxCount, shardCount, false);
+    }
+
+    /**
+     * 获取缓存实例
+     * <p>在 cacheDir 目录，启用块文件存储后，不超过4KB的缓存依次追加到内存映射的块文件中，
+     * 避免大量小文件的打开、关闭开销及磁盘空间的浪费，较大的缓存仍各自保存为文件</p>
+     * <p>同一目录只会创建一个实例，关闭块文件存储后原有块文件中的缓存会在后台转存为文件</p>
+     * <p>同一目录已有分片数或块文件存储设置不同的实例时抛出{@link IllegalArgumentException}</p>
+     *
+     * @param cacheDir    缓存目录
+     * @param maxSize     最大缓存尺寸，单位字节，平均分配给每个分片
+     * @param maxCount    最大缓存个数，平均分配给每个分片
+     * @param shardCount  分片数，为1时不分片，每个分片有各自的块文件
+     * @param slabEnabled 是否启用块文件存储
+     * @return {@link ACache}
+     */
+    public static ACache get(@NonNull final File cacheDir,
+                             final long maxSize,
+                             final int maxCount,
+                             final int shardCount,
+                             final boolean slabEnabled) {
+        final String cacheKey = cacheDir.getAbsoluteFile() + "_" + Process.myPid();
+        final int count = Math.max(1, shardCount);
+        ACache cache = CACHE_MAP.get(cacheKey);
+        if (cache == null) {
+            cache = new ACache(cacheDir, maxSize, maxCount, count, slabEnabled);
+            CACHE_MAP.put(cacheKey, cache);
+        } else if (cache.mShards.length != count || cache.mSlabEnabled != slabEnabled) {
+            throw new IllegalArgumentException("ACache in " + cacheDir.getAbsolutePath()
+                    + " is already opened with shardCount=" + cache.mShards.length
+                    + ", slabEnabled=" + cache.mSlabEnabled);
+        }
+        return cache;
+    }
+
+    private ACache(@NonNull final File cacheDir,
+                   final long maxSize,
+                   final int maxCount,
+                   final int shardCount,
+                   final boolean slabEnabled) {
+        if (!cacheDir.exists() && !cacheDir.mkdirs()) {
+            throw new RuntimeException("can't make dirs in " + cacheDir.getAbsolutePath());
+        }
+        mShards = new CacheManager[shardCount];
+        mSlabEnabled = slabEnabled;
+        if (shardCount == 1) {
+            mShards[0] = new CacheManager(cacheDir, maxSize, maxCount, slabEnabled, mStats);
+        } else {
+            final long shardMaxSize = Math.max(1, maxSize / shardCount);
+            final int shardMaxCount = Math.max(1, maxCount / shardCount);
+            for (int i = 0; i < shardCount; i++) {
+                File shardDir = new File(cacheDir, CacheLayout.getShardDirName(shardCount, i));
+                if (!shardDir.exists() && !shardDir.mkdirs()) {
+                    throw new RuntimeException("can't make dirs in " + shardDir.getAbsolutePath());
+                }
+                mShards[i] = new CacheManager(shardDir, shardMaxSize, shardMaxCount, slabEnabled, mStats);
+            }
+        }
+        // 维护线程按提交顺序执行，迁移完成后才开始预热
+        CacheLayout.migrate(cacheDir, mShards, slabEnabled);
+        for (CacheManager shard : mShards) {
+            shard.startLoad();
+        }
+    }
+
+    /**
+     * 键所在的分片
+     */
+    private CacheManager shardOf(final String key) {
+        return mShards[indexOfShard(key)];
+    }
+
+    private int indexOfShard(final String key) {
+        return CacheLayout.indexOfShard(key, mShards.length);
+    }
+
+    /**
+     * 设置内存缓存的大小，启用后读取时优先从内存中获取，写入时同时写入内存和磁盘
+     * <p>字节数组按长度、String按字符数的2倍、Bitmap按像素占用的字节数计算大小</p>
+     *
+     * @param maxSize 内存缓存的最大尺寸，单位字节，小于等于0时关闭内存缓存
+     * @return {@link ACache}
+     */
+    public ACache setMemoryCacheSize(final int maxSize) {
+        MemoryCache memoryCache = mMemoryCache;
+        if (maxSize <= 0) {
+            mMemoryCache = null;
+            if (memoryCache != null) {
+                memoryCache.evictAll();
+            }
+        } else if (memoryCache == null) {
+            mMemoryCache = new MemoryCache(maxSize);
+        } else {
+            memoryCache.resize(maxSize);
+        }
+        return this;
+    }
+
+    /**
+     * @return 内存缓存命中次数
+     */
+    public long getMemoryHitCount() {
+        return mStats.memoryHitCount.get();
+    }
+
+    /**
+     * @return 内存缓存未命中次数
+     */
+    public long getMemoryMissCount() {
+        return mStats.memoryMissCount.get();
+    }
+
+    /**
+     * @return 磁盘缓存命中次数
+     */
+    public long getDiskHitCount() {
+        return mStats.diskHitCount.get();
+    }
+
+    /**
+     * @return 磁盘缓存未命中次数
+     */
+    public long getDiskMissCount() {
+        return mStats.diskMissCount.get();
+    }
+
+    /**
+     * 获取统计数据的快照
+     *
+     * @return {@link CacheStats}
+     */
+    public CacheStats getStats() {
+        return new CacheStats(mStats, getCacheSize(), getCacheCount());
+    }
+
+    /**
+     * 设置缓存被移除的监听，包括主动移除、覆盖、过期及淘汰
+     *
+     * @param listener 监听，为空时取消监听
+     * @return {@link ACache}
+     */
+    public ACache setOnRemovalListener(final OnRemovalListener listener) {
+        mStats.setOnRemovalListener(listener);
+        return this;
+    }
+
+    /**
+     * 设置是否默认压缩写入磁盘的数据，读取时会自动解压
+     * <p>小于1KB的数据不压缩</p>
+     *
+     * @param level 压缩级别（1~9或{@link Deflater#DEFAULT_COMPRESSION}），为{@link Deflater#NO_COMPRESSION}时关闭压缩
+     * @return {@link ACache}
+     */
+    public ACache setCompression(final int level) {
+        return setCompression(level, DEFAULT_COMPRESS_THRESHOLD);
+    }
+
+    /**
+     * 设置是否默认压缩写入磁盘的数据，读取时会自动解压
+     *
+     * @param level     压缩级别（1~9或{@link Deflater#DEFAULT_COMPRESSION}），为{@link Deflater#NO_COMPRESSION}时关闭压缩
+     * @param threshold 压缩阈值，小于该值的数据不压缩，单位：字节
+     * @return {@link ACache}
+     */
+    public ACache setCompression(final int level, final int threshold) {
+        if (level != Deflater.NO_COMPRESSION) {
+            mCompressLevel = level;
+        }
+        mCompressThreshold = Math.max(0, threshold);
+        mCompressEnabled = level != Deflater.NO_COMPRESSION;
+        return this;
+    }
+
+    /**
+     * 获取压缩率，即压缩后的大小与原始大小之比，压缩后没有变小的数据按原始大小计算
+     *
+     * @return 压缩率，还未压缩过数据时返回1
+     */
+    public float getCompressionRatio() {
+        long input = mCompressInputBytes.get();
+        return input > 0 ? (float) mCompressOutputBytes.get() / input : 1f;
+    }
+
+    /**
+     * @return 参与压缩的原始数据大小，单位：字节
+     */
+    public long getCompressInputBytes() {
+        return mCompressInputBytes.get();
+    }
+
+    /**
+     * @return 压缩后写入磁盘的数据大小，单位：字节
+     */
+    public long getCompressOutputBytes() {
+        return mCompressOutputBytes.get();
+    }
+
+    ///////////////////////////////////////////////////////////////////////////
+    // bytes 读写
+    ///////////////////////////////////////////////////////////////////////////
+
+    /**
+     * 缓存中写入字节数组
+     *
+     * @param key   键
+     * @param value 值
+     */
+    public void put(@NonNull final String key, @NonNull final byte[] value) {
+        put(key, value, -1);
+    }
+
+    /**
+     * 缓存中写入字节数组
+     *
+     * @param key      键
+     * @param value    值
+     * @param saveTime 保存时长，单位：秒
+     */
+    public void put(@NonNull final String key, @NonNull byte[] value, final int saveTime) {
+        put(key, value, saveTime, mMemoryCache != null ? value.clone() : null);
+    }
+
+    /**
+     * 缓存中写入字节数组
+     *
+     * @param key      键
+     * @param value    值
+     * @param saveTime 保存时长，单位：秒，小于0表示永久保存
+     * @param compress 是否压缩，忽略{@link #setCompression(int)}的设置
+     */
+    public void put(@NonNull final String key, @NonNull byte[] value, final int saveTime, final boolean compress) {
+        put(key, value, saveTime, mMemoryCache != null ? value.clone() : null, compress);
+    }
+
+    /**
+     * 缓存中读取字节数组
+     *
+     * @param key 键
+     * @return 存在且没过期返回对应值，否则返回{@code null}
+     */
+    public byte[] getBytes(@NonNull final String key) {
+        return getBytes(key, null);
+    }
+
+    /**
+     * 缓存中读取字节数组
+     *
+     * @param key          键
+     * @param defaultValue 默认值
+     * @return 存在且没过期返回对应值，否则返回默认值{@code defaultValue}
+     */
+    public byte[] getBytes(@NonNull final String key, final byte[] defaultValue) {
+        PendingWrite pending = getPendingWrite(key, byte[].class);
+        if (pending != null) {
+            return ((byte[]) pending.value).clone();
+        }
+        Object cached = getFromMemory(key, byte[].class);
+        if (cached != null) {
+            return ((byte[]) cached).clone();
+        }
+        MemoryEntry entry = readFromDisk(key);
+        if (entry == null) {
+            return defaultValue;
+        }
+        byte[] data = (byte[]) entry.value;
+        putToMemory(key, mMemoryCache != null ? data.clone() : null, entry.dueTime);
+        return data;
+    }
+
+    ///////////////////////////////////////////////////////////////////////////
+    // 内存缓存与磁盘缓存的读写
+    ///////////////////////////////////////////////////////////////////////////
+
+    /**
+     * 写入缓存，先写入磁盘，成功后再写入内存
+     *
+     * @param key         键
+     * @param data        写入磁盘的数据
+     * @param saveTime    保存时长，单位：秒
+     * @param memoryValue 写入内存的值，为空时只写入磁盘
+     * @return {@code true}: 写入成功<br>{@code false}: 写入失败
+     */
+    private boolean put(final String key, final byte[] data, final int saveTime, final Object memoryValue) {
+        return put(key, data, saveTime, memoryValue, mCompressEnabled);
+    }
+
+    /**
+     * 写入缓存，先写入磁盘，成功后再写入内存
+     *
+     * @param key         键
+     * @param data        写入磁盘的数据
+     * @param saveTime    保存时长，单位：秒
+     * @param memoryValue 写入内存的值，为空时只写入磁盘
+     * @param compress    是否压缩写入磁盘的数据
+     * @return {@code true}: 写入成功<br>{@code false}: 数据为空或写入失败
+     */
+    private boolean put(final String key,
+                        final byte[] data,
+                        final int saveTime,
+                        final Object memoryValue,
+                        final boolean compress) {
+        if (data == null || data.length <= 0) {
+            return false;
+        }
+        // 同步写入会覆盖尚未写入磁盘的异步写入
+        PendingWrite pending = removePendingWrite(key);
+        long dueTime = toDueTime(saveTime);
+        boolean success;
+        Lock lock = mReplaceLock.readLock();
+        lock.lock();
+        try {
+            success = writeEntry(key, data, dueTime, compress);
+            if (success) {
+                putToMemory(key, memoryValue, dueTime);
+            } else {
+                removeFromMemory(key);
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (pending != null) {
+            pending.complete(success);
+        }
+        return success;
+    }
+
+    /**
+     * 保存时长转换为过期时间
+     *
+     * @param saveTime 保存时长，单位：秒，小于0表示永久保存
+     * @return 过期时间，没有为-1
+     */
+    private static long toDueTime(final int saveTime) {
+        return saveTime >= 0 ? System.currentTimeMillis() + saveTime * 1000L : -1;
+    }
+
+    /**
+     * 写入缓存文件（文件头 + 数据）
+     *
+     * @param key      键
+     * @param value    值
+     * @param dueTime  过期时间，没有为-1
+     * @param compress 是否压缩
+     * @return 是否写入成功
+     */
+    private boolean writeEntry(final String key, final byte[] value, final long dueTime, final boolean compress) {
+        File tempFile = shardOf(key).beginEdit(key, false);
+        if (tempFile == null) {
+            return false;
+        }
+        final long start = System.nanoTime();
+        boolean success = storeEntry(key, tempFile, newEntry(key, dueTime, value, compress), dueTime);
+        mStats.writeTime.addAndGet(System.nanoTime() - start);
+        shardOf(key).removeLegacy(key);
+        return success;
+    }
+
+    /**
+     * 完成已开始的写入，启用块文件存储时较小的缓存写入块文件，其余的写入缓存文件
+     *
+     * @param key      键
+     * @param tempFile {@link CacheManager#beginEdit(String, boolean)}返回的临时文件
+     * @param content  缓存文件内容（文件头 + 数据）
+     * @param dueTime  过期时间，没有为-1
+     * @return 是否写入成功
+     */
+    private boolean storeEntry(final String key, final File tempFile, final byte[] content, final long dueTime) {
+        final CacheManager shard = shardOf(key);
+        if (shard.isSlabEntry(content.length)) {
+            return shard.commitSlabEdit(key, tempFile, content, dueTime);
+        }
+        shard.beginWrite(tempFile);
+        boolean success = CacheHelper.writeFileFromBytes(tempFile, content);
+        // 先移除块文件中的旧值，避免进程终止后旧值覆盖新写入的文件，写入完成后再通知监听
+        SlabEntry replacedSlab = success ? shard.removeFromSlab(key, null) : null;
+        shard.commitEdit(key, tempFile, success, dueTime);
+        if (replacedSlab != null) {
+            mStats.recordRemoval(key, replacedSlab.size(), RemovalCause.REPLACED);
+        }
+        return success;
+    }
+
+    /**
+     * 创建缓存文件内容，数据不小于压缩阈值且压缩后更小时才压缩
+     *
+     * @param key      键
+     * @param dueTime  过期时间，没有为-1
+     * @param value    值
+     * @param compress 是否压缩
+     * @return 文件头 + 数据
+     */
+    private byte[] newEntry(final String key, final long dueTime, final byte[] value, final boolean compress) {
+        if (compress && value.length >= mCompressThreshold) {
+            byte[] compressed = CacheHelper.deflate(value, mCompressLevel);
+            mCompressInputBytes.addAndGet(value.length);
+            if (compressed.length < value.length) {
+                mCompressOutputBytes.addAndGet(compressed.length);
+                return CacheHelper.newEntry(key, CacheHelper.FLAG_DEFLATE, dueTime, compressed);
+            }
+            mCompressOutputBytes.addAndGet(value.length);
+        }
+        return CacheHelper.newEntry(key, (byte) 0, dueTime, value);
+    }
+
+    /**
+     * 从磁盘中读取缓存
+     *
+     * @param key 键
+     * @return 字节数组及过期时间，不存在或已过期返回{@code null}
+     */
+    private MemoryEntry readFromDisk(final String key) {
+        final long start = System.nanoTime();
+        // 块文件中的缓存总是比同名的缓存文件新
+        byte[] data = shardOf(key).getFromSlab(key);
+        File file = null;
+        if (data == null) {
+            file = shardOf(key).getFileIfExists(key);
+            if (file == null) {
+                MemoryEntry migrated = migrateLegacyEntry(key);
+                (migrated != null ? mStats.diskHitCount : mStats.diskMissCount).incrementAndGet();
+                return migrated;
+            }
+            data = CacheHelper.readFile2Bytes(file);
+        }
+        mStats.recordRead(data != null ? data.length : 0, System.nanoTime() - start);
+        EntryHeader header = CacheHelper.parseHeader(data);
+        // 文件头损坏或键不一致时视为不存在
+        if (header == null || !key.equals(header.key) || header.isDue()) {
+            shardOf(key).removeByKey(key, header != null && header.isDue() ? RemovalCause.EXPIRED : null);
+            mStats.diskMissCount.incrementAndGet();
+            return null;
+        }
+        byte[] value = (header.flags & CacheHelper.FLAG_DEFLATE) != 0
+                ? CacheHelper.inflate(data, header.dataOffset)
+                : CacheHelper.copyOfRange(data, header.dataOffset, data.length);
+        if (value == null) {
+            shardOf(key).removeByKey(key, null);
+            mStats.diskMissCount.incrementAndGet();
+            return null;
+        }
+        if (file != null) {
+            shardOf(key).touch(file);
+        }
+        mStats.diskHitCount.incrementAndGet();
+        return new MemoryEntry(value, header.dueTime);
+    }
+
+    /**
+     * 从内存中读取缓存
+     *
+     * @param key  键
+     * @param type 需要的值类型，内存中的值类型不一致时视为未命中
+     * @return 缓存值，未启用内存缓存或未命中返回{@code null}
+     */
+    private Object getFromMemory(final String key, final Class<?> type) {
+        MemoryCache memoryCache = mMemoryCache;
+        if (memoryCache == null) {
+            return null;
+        }
+        MemoryEntry entry = memoryCache.get(key);
+        if (entry != null && entry.isDue()) {
+            memoryCache.remove(key);
+            entry = null;
+        }
+        if (entry == null || !type.isInstance(entry.value)) {
+            mStats.memoryMissCount.incrementAndGet();
+            return null;
+        }
+        mStats.memoryHitCount.incrementAndGet();
+        return entry.value;
+    }
+
+    /**
+     * 写入内存缓存
+     *
+     * @param key     键
+     * @param value   值，为空时移除内存中的缓存
+     * @param dueTime 过期时间，没有为-1
+     */
+    private void putToMemory(final String key, final Object value, final long dueTime) {
+        MemoryCache memoryCache = mMemoryCache;
+        if (memoryCache == null) {
+            return;
+        }
+        if (value == null) {
+            memoryCache.remove(key);
+        } else {
+            memoryCache.put(key, new MemoryEntry(value, dueTime));
+        }
+    }
+
+    private void removeFromMemory(final String key) {
+        MemoryCache memoryCache = mMemoryCache;
+        if (memoryCache != null) {
+            memoryCache.remove(key);
+        }
+    }
+
+    /**
+     * 迁移旧版本以键的hashCode命名的缓存文件
+     * <p>旧文件中没有记录键，无法批量迁移，只能在访问时按需迁移，未被访问的旧文件会随LRU淘汰</p>
+     *
+     * @param key 键
+     * @return 迁移后的值，不存在或已过期返回{@code null}
+     */
+    private MemoryEntry migrateLegacyEntry(final String key) {
+        final File legacyFile = shardOf(key).getLegacyFileIfExists(key);
+        if (legacyFile == null) {
+            return null;
+        }
+        byte[] data = CacheHelper.readFile2Bytes(legacyFile);
+        shardOf(key).removeLegacy(key);
+        if (data == null || CacheHelper.isDue(data)) {
+            return null;
+        }
+        byte[] value = CacheHelper.getDataWithoutDueTime(data);
+        long dueTime = CacheHelper.getDueTime(data);
+        if (value.length > 0) {
+            writeEntry(key, value, dueTime, mCompressEnabled);
+        }
+        return new MemoryEntry(value, dueTime);
+    }
+
+    ///////////////////////////////////////////////////////////////////////////
+    // String 读写
+    ///////////////////////////////////////////////////////////////////////////
+
+    /**
+     * 缓存中写入 String
+     *
+     * @param key   键
+     * @param value 值
+     */
+    public void put(@NonNull final String key, @NonNull final String value) {
+        put(key, value, -1);
+    }
+
+    /**
+     * 缓存中写入 String
+     *
+     * @param key      键
+     * @param value    值
+     * @param saveTime 保存时长，单位：秒
+     */
+    public void put(@NonNull final String key, @NonNull final String value, final int saveTime) {
+        put(key, CacheHelper.string2Bytes(value), saveTime, value);
+    }
+
+    /**
+     * 缓存中写入 String
+     *
+     * @param key      键
+     * @param value    值
+     * @param saveTime 保存时长，单位：秒，小于0表示永久保存
+     * @param compress 是否压缩，忽略{@link #setCompression(int)}的设置
+     */
+    public void put(@NonNull final String key, @NonNull final String value, final int saveTime, final boolean compress) {
+        put(key, CacheHelper.string2Bytes(value), saveTime, value, compress);
+    }
+
+    /**
+     * 缓存中读取 String
+     *
+     * @param key 键
+     * @return 存在且没过期返回对应值，否则返回{@code null}
+     */
+    public String getString(@NonNull final String key) {
+        return getString(key, null);
+    }
+
+    /**
+     * 缓存中读取 String
+     *
+     * @param key          键
+     * @param defaultValue 默认值
+     * @return 存在且没过期返回对应值，否则返回默认值{@code defaultValue}
+     */
+    public String getString(@NonNull final String key, final String defaultValue) {
+        PendingWrite pending = getPendingWrite(key, String.class);
+        if (pending != null) {
+            return (String) pending.value;
+        }
+        Object cached = getFromMemory(key, String.class);
+        if (cached != null) {
+            return (String) cached;
+        }
+        MemoryEntry entry = readFromDisk(key);
+        if (entry == null) {
+            return defaultValue;
+        }
+        String value = CacheHelper.bytes2String((byte[]) entry.value);
+        putToMemory(key, value, entry.dueTime);
+        return value;
+    }
+
+    ///////////////////////////////////////////////////////////////////////////
+    // JSONObject 读写
+    ///////////////////////////////////////////////////////////////////////////
+
+    /**
+     * 缓存中写入 JSONObject
+     *
+     * @param key   键
+     * @param value 值
+     */
+    public void put(@NonNull final String key, @NonNull final JSONObject value) {
+        put(key, value, -1);
+    }
+
+    /**
+     * 缓存中写入 JSONObject
+     *
+     * @param key      键
+     * @param value    值
+     * @param saveTime 保存时长，单位：秒
+     */
+    public void put(@NonNull final String key,
+                    @NonNull final JSONObject value,
+                    final int saveTime) {
+        byte[] bytes = CacheHelper.jsonObject2Bytes(value);
+        put(key, bytes, saveTime, bytes);
+    }
+
+    /**
+     * 缓存中读取 JSONObject
+     *
+     * @param key 键
+     * @return 存在且没过期返回对应值，否则返回{@code null}
+     */
+    public JSONObject getJSONObject(@NonNull final String key) {
+        return getJSONObject(key, null);
+    }
+
+    /**
+     * 缓存中读取 JSONObject
+     *
+     * @param key          键
+     * @param defaultValue 默认值
+     * @return 存在且没过期返回对应值，否则返回默认值{@code defaultValue}
+     */
+    public JSONObject getJSONObject(@NonNull final String key, final JSONObject defaultValue) {
+        byte[] bytes = getBytes(key);
+        if (bytes == null) {
+            return defaultValue;
+        }
+        return CacheHelper.bytes2JSONObject(bytes);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////
+    // JSONArray 读写
+    ///////////////////////////////////////////////////////////////////////////
+
+    /**
+     * 缓存中写入 JSONArray
+     *
+     * @param key   键
+     * @param value 值
+     */
+    public void put(@NonNull final String key, @NonNull final JSONArray value) {
+        put(key, value, -1);
+    }
+
+    /**
+     * 缓存中写入 JSONArray
+     *
+     * @param key      键
+     * @param value    值
+     * @param saveTime 保存时长，单位：秒
+     */
+    public void put(@NonNull final String key, @NonNull final JSONArray value, final int saveTime) {
+        byte[] bytes = CacheHelper.jsonArray2Bytes(value);
+        put(key, bytes, saveTime, bytes);
+    }
+
+    /**
+     * 缓存中读取 JSONArray
+     *
+     * @param key 键
+     * @return 存在且没过期返回对应值，否则返回{@code null}
+     */
+    public JSONArray getJSONArray(@NonNull final String key) {
+        return getJSONArray(key, null);
+    }
+
+    /**
+     * 缓存中读取 JSONArray
+     *
+     * @param key          键
+     * @param defaultValue 默认值
+     * @return 存在且没过期返回对应值，否则返回默认值{@code defaultValue}
+     */
+    public JSONArray getJSONArray(@NonNull final String key, final JSONArray defaultValue) {
+        byte[] bytes = getBytes(key);
+        if (bytes == null) {
+            return defaultValue;
+        }
+        return CacheHelper.bytes2JSONArray(bytes);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////
+    // Bitmap 读写
+    ///////////////////////////////////////////////////////////////////////////
+
+    /**
+     * 缓存中写入 Bitmap
+     *
+     * @param key   键
+     * @param value 值
+     */
+    public void put(@NonNull final String key, @NonNull final Bitmap value) {
+        put(key, value, -1);
+    }
+
+    /**
+     * 缓存中写入 Bitmap
+     *
+     * @param key      键
+     * @param value    值
+     * @param saveTime 保存时长，单位：秒
+     */
+    public void put(@NonNull final String key, @NonNull final Bitmap value, final int saveTime) {
+        put(key, CacheHelper.bitmap2Bytes(value), saveTime, value);
+    }
+
+    /**
+     * 缓存中读取 Bitmap
+     *
+     * @param key 键
+     * @return 存在且没过期返回对应值，否则返回{@code null}
+     */
+    public Bitmap getBitmap(@NonNull final String key) {
+        return getBitmap(key, null);
+    }
+
+    /**
+     * 缓存中读取 Bitmap
+     *
+     * @param key          键
+     * @param defaultValue 默认值
+     * @return 存在且没过期返回对应值，否则返回默认值{@code defaultValue}
+     */
+    public Bitmap getBitmap(@NonNull final String key, final Bitmap defaultValue) {
+        PendingWrite pending = getPendingWrite(key, Bitmap.class);
+        if (pending != null) {
+            return (Bitmap) pending.value;
+        }
+        Object cached = getFromMemory(key, Bitmap.class);
+        if (cached != null) {
+            return (Bitmap) cached;
+        }
+        MemoryEntry entry = readFromDisk(key);
+        if (entry == null) {
+            return defaultValue;
+        }
+        Bitmap value = CacheHelper.bytes2Bitmap((byte[]) entry.value);
+        putToMemory(key, value, entry.dueTime);
+        return value;
+    }
+
+    ///////////////////////////////////////////////////////////////////////////
+    // Drawable 读写
+    ///////////////////////////////////////////////////////////////////////////
+
+    /**
+     * 缓存中写入 Drawable
+     *
+     * @param key   键
+     * @param value 值
+     */
+    public void put(@NonNull final String key, @NonNull final Drawable value) {
+        put(key, value, -1);
+    }
+
+    /**
+     * 缓存中写入 Drawable
+     *
+     * @param key      键
+     * @param value    值
+     * @param saveTime 保存时长，单位：秒
+     */
+    public void put(@NonNull final String key, @NonNull final Drawable value, final int saveTime) {
+        byte[] bytes = CacheHelper.drawable2Bytes(value);
+        put(key, bytes, saveTime, bytes);
+    }
+
+    /**
+     * 缓存中读取 Drawable
+     *
+     * @param key 键
+     * @return 存在且没过期返回对应值，否则返回{@code null}
+     */
+    public Drawable getDrawable(@NonNull final String key) {
+        return getDrawable(key, null);
+    }
+
+    /**
+     * 缓存中读取 Drawable
+     *
+     * @param key          键
+     * @param defaultValue 默认值
+     * @return 存在且没过期返回对应值，否则返回默认值{@code defaultValue}
+     */
+    public Drawable getDrawable(@NonNull final String key, final Drawable defaultValue) {
+        byte[] bytes = getBytes(key);
+        if (bytes == null) {
+            return defaultValue;
+        }
+        return CacheHelper.bytes2Drawable(bytes);
+    }
+
+    ///////////////////////////////////////////////////////////////////////////
+    // Parcelable 读写
+    ///////////////////////////////////////////////////////////////////////////
+
+    /**
+     * 缓存中写入 Parcelable
+     *
+     * @param key   键
+     * @param value 值
+     */
+    public void put(@NonNull final String key, @NonNull final Parcelable value) {
+        put(key, value, -1);
+    }
+
+    /**
+     * 缓存中写入 Parcelable
+     *
+     * @param key      键
+     * @param value    值
+     * @param saveTime 保存时长，单位：秒
+     */
+    public void put(@NonNull final String key,
+                    @NonNull final Parcelable value,
+                    final int saveTime) {
+        byte[] bytes = CacheHelper.parcelable2Bytes(value);
+        put(key, bytes, saveTime, bytes);
+    }
+
+    /**
+     * 缓存中读取 Parcelable
+     *
+     * @param key     键
+     * @param creator 建造器
+     * @return 存在且没过期返回对应值，否则返回{@code null}
+     */
+    public <T> T getParcelable(@NonNull final String key,
+                               @NonNull final Parcelable.Creator<T> creator) {
+        return getParcelable(key, creator, null);
+    }
+
+    /**
+     * 缓存中读取 Parcelable
+     *
+     * @param key          键
+     * @param creator      建造器
+     * @param defaultValue 默认值
+     * @return 存在且没过期返回对应值，否则返回默认值{@code defaultValue}
+     */
+    public <T> T getParcelable(@NonNull final String key,
+                               @NonNull final Parcelable.Creator<T> creator,
+                               final T defaultValue) {
+        byte[] bytes = getBytes(key);
+        if (bytes == null) {
+            return defaultValue;
+        }
+        return CacheHelper.bytes2Parcelable(bytes, creator);
+    }
+
+    ///////////////////////////////////////////////////////////////////////////
+    // Serializable 读写
+    ///////////////////////////////////////////////////////////////////////////
+
+    /**
+     * 缓存中写入 Serializable
+     *
+     * @param key   键
+     * @param value 值
+     */
+    public void put(@NonNull final String key, @NonNull final Serializable value) {
+        put(key, value, -1);
+    }
+
+    /**
+     * 缓存中写入 Serializable
+     *
+     * @param key      键
+     * @param value    值
+     * @param saveTime 保存时长，单位：秒
+     */
+    public void put(@NonNull final String key,
+                    @NonNull final Serializable value,
+                    final int saveTime) {
+        byte[] bytes = CacheHelper.serializable2Bytes(value);
+        put(key, bytes, saveTime, bytes);
+    }
+
+    /**
+     * 缓存中读取 Serializable
+     *
+     * @param key 键
+     * @return 存在且没过期返回对应值，否则返回{@code null}
+     */
+    public Object getSerializable(@NonNull final String key) {
+        return getSerializable(key, null);
+    }
+
+    /**
+     * 缓存中读取 Serializable
+     *
+     * @param key          键
+     * @param defaultValue 默认值
+     * @return 存在且没过期返回对应值，否则返回默认值{@code defaultValue}
+     */
+    public Object getSerializable(@NonNull final String key, final Object defaultValue) {
+        byte[] bytes = getBytes(key);
+        if (bytes == null) {
+            return defaultValue;
+        }
+        return CacheHelper.bytes2Object(bytes);
+    }
+
+    ///////////////////////////////////////////////////////////////////////////
+    // 自定义编码读写
+    ///////////////////////////////////////////////////////////////////////////
+
+    /**
+     * 使用指定的编码器写入缓存
+     *
+     * @param key   键
+     * @param value 值
+     * @param codec 编码器，内置的编码器见{@link Codecs}
+     * @return {@code true}: 写入成功<br>{@code false}: 编码或写入失败
+     */
+    public <T> boolean put(@NonNull final String key, @NonNull final T value, @NonNull final ValueCodec<T> codec) {
+        return put(key, value, codec, -1);
+    }
+
+    /**
+     * 使用指定的编码器写入缓存
+     *
+     * @param key      键
+     * @param value    值
+     * @param codec    编码器，内置的编码器见{@link Codecs}
+     * @param saveTime 保存时长，单位：秒
+     * @return {@code true}: 写入成功<br>{@code false}: 编码或写入失败
+     */
+    public <T> boolean put(@NonNull final String key,
+                           @NonNull final T value,
+                           @NonNull final ValueCodec<T> codec,
+                           final int saveTime) {
+        byte[] bytes = encode(codec, value);
+        return put(key, bytes, saveTime, bytes);
+    }
+
+    /**
+     * 使用指定的编码器异步写入缓存，编码在调用线程中进行
+     *
+     * @param key   键
+     * @param value 值
+     * @param codec 编码器，内置的编码器见{@link Codecs}
+     * @return 写入结果
+     */
+    public <T> Future<Boolean> putAsync(@NonNull final String key,
+                                        @NonNull final T value,
+                                        @NonNull final ValueCodec<T> codec) {
+        return putAsync(key, value, codec, -1);
+    }
+
+    /**
+     * 使用指定的编码器异步写入缓存，编码在调用线程中进行
+     *
+     * @param key      键
+     * @param value    值
+     * @param codec    编码器，内置的编码器见{@link Codecs}
+     * @param saveTime 保存时长，单位：秒
+     * @return 写入结果
+     */
+    public <T> Future<Boolean> putAsync(@NonNull final String key,
+                                        @NonNull final T value,
+                                        @NonNull final ValueCodec<T> codec,
+                                        final int saveTime) {
+        byte[] bytes = encode(codec, value);
+        return enqueueWrite(key, bytes, bytes, saveTime);
+    }
+
+    /**
+     * 使用指定的编码器读取缓存
+     *
+     * @param key   键
+     * @param codec 编码器，需与写入时一致
+     * @return 存在且没过期返回对应值，否则返回{@code null}
+     */
+    public <T> T getValue(@NonNull final String key, @NonNull final ValueCodec<T> codec) {
+        return getValue(key, codec, null);
+    }
+
+    /**
+     * 使用指定的编码器读取缓存
+     *
+     * @param key          键
+     * @param codec        编码器，需与写入时一致
+     * @param defaultValue 默认值
+     * @return 存在、没过期且解码成功返回对应值，否则返回默认值{@code defaultValue}
+     */
+    public <T> T getValue(@NonNull final String key, @NonNull final ValueCodec<T> codec, final T defaultValue) {
+        byte[] bytes = getBytes(key);
+        if (bytes == null) {
+            return defaultValue;
+        }
+        T value = decode(codec, bytes);
+        return value != null ? value : defaultValue;
+    }
+
+    /**
+     * 使用指定的编码器异步读取缓存
+     *
+     * @param key   键
+     * @param codec 编码器，需与写入时一致
+     * @return 存在且没过期返回对应值，否则返回{@code null}
+     */
+    public <T> Future<T> getValueAsync(@NonNull final String key, @NonNull final ValueCodec<T> codec) {
+        return ParallelUtils.getIOExecutor().submit(new Callable<T>() {
+            @Override
+            public T call() {
+                return getValue(key, codec);
+            }
+        });
+    }
+
+    /**
+     * 获取编码器的耗时统计
+     *
+     * @param codec 编码器
+     * @return 耗时统计，未使用过该编码器时各项均为0
+     */
+    public CodecStats getCodecStats(@NonNull final ValueCodec<?> codec) {
+        CodecStats stats = mCodecStats.get(codec);
+        return stats != null ? stats : new CodecStats();
+    }
+
+    /**
+     * 编码，编码器抛出异常或返回空时视为失败，计入{@link CodecStats#getEncodeFailureCount()}
+     */
+    private <T> byte[] encode(final ValueCodec<T> codec, final T value) {
+        final long start = System.nanoTime();
+        byte[] data = null;
+        try {
+            data = codec.encode(value);
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+        } finally {
+            obtainCodecStats(codec).recordEncode(System.nanoTime() - start, data != null);
+        }
+        return data;
+    }
+
+    /**
+     * 解码，编码器抛出异常或返回空时视为失败，计入{@link CodecStats#getDecodeFailureCount()}
+     */
+    private <T> T decode(final ValueCodec<T> codec, final byte[] data) {
+        final long start = System.nanoTime();
+        T value = null;
+        try {
+            value = codec.decode(data);
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+        } finally {
+            obtainCodecStats(codec).recordDecode(System.nanoTime() - start, value != null);
+        }
+        return value;
+    }
+
+    private CodecStats obtainCodecStats(final ValueCodec<?> codec) {
+        CodecStats stats = mCodecStats.get(codec);
+        if (stats == null) {
+            CodecStats newStats = new CodecStats();
+            stats = mCodecStats.putIfAbsent(codec, newStats);
+            if (stats == null) {
+                stats = newStats;
+            }
+        }
+        return stats;
+    }
+
+    ///////////////////////////////////////////////////////////////////////////
+    // 批量读写
+    ///////////////////////////////////////////////////////////////////////////
+
+    /**
+     * 批量写入缓存，在IO线程池中并行写入
+     * <p>值类型支持：byte[]、String、JSONObject、JSONArray、Bitmap、Drawable、Parcelable、Serializable</p>
+     *
+     * @param values 键值对，值为空的将被忽略
+     * @return {@code true}: 全部写入成功<br>{@code false}: 有写入失败的键值对
+     * @throws IllegalArgumentException 有不支持的值类型，此时不会写入任何键值对
+     */
+    public boolean putAll(@NonNull final Map<String, ?> values) {
+        return putAll(values, -1);
+    }
+
+    /**
+     * 批量写入缓存，在IO线程池中并行写入
+     * <p>值类型支持：byte[]、String、JSONObject、JSONArray、Bitmap、Drawable、Parcelable、Serializable</p>
+     *
+     * @param values   键值对，值为空的将被忽略
+     * @param saveTime 保存时长，单位：秒
+     * @return {@code true}: 全部写入成功<br>{@code false}: 有写入失败的键值对
+     * @throws IllegalArgumentException 有不支持的值类型，此时不会写入任何键值对
+     */
+    public boolean putAll(@NonNull final Map<String, ?> values, final int saveTime) {
+        final List<? extends Map.Entry<String, ?>> entries = toEntryList(values);
+        checkValueTypes(entries);
+        final boolean[] results = new boolean[entries.size()];
+        ParallelUtils.forEach(entries.size(), new ParallelUtils.IndexTask() {
+            @Override
+            public void run(int index) {
+                Map.Entry<String, ?> entry = entries.get(index);
+                Object value = entry.getValue();
+                byte[] data = encodeValue(value);
+                Object memoryValue;
+                if (value instanceof String || value instanceof Bitmap) {
+                    memoryValue = value;
+                } else if (value instanceof byte[]) {
+                    memoryValue = mMemoryCache != null ? data.clone() : null;
+                } else {
+                    memoryValue = data;
+                }
+                results[index] = put(entry.getKey(), data, saveTime, memoryValue);
+            }
+        });
+        return allTrue(results);
+    }
+
+    /**
+     * 使用指定的编码器批量写入缓存，在IO线程池中并行写入
+     *
+     * @param values 键值对，值为空的将被忽略
+     * @param codec  编码器
+     * @return {@code true}: 全部写入成功<br>{@code false}: 有编码或写入失败的键值对
+     */
+    public <T> boolean putAll(@NonNull final Map<String, T> values, @NonNull final ValueCodec<T> codec) {
+        return putAll(values, codec, -1);
+    }
+
+    /**
+     * 使用指定的编码器批量写入缓存，在IO线程池中并行写入
+     *
+     * @param values   键值对，值为空的将被忽略
+     * @param codec    编码器
+     * @param saveTime 保存时长，单位：秒
+     * @return {@code true}: 全部写入成功<br>{@code false}: 有编码或写入失败的键值对
+     */
+    public <T> boolean putAll(@NonNull final Map<String, T> values,
+                              @NonNull final ValueCodec<T> codec,
+                              final int saveTime) {
+        final List<Map.Entry<String, T>> entries = toEntryList(values);
+        final boolean[] results = new boolean[entries.size()];
+        ParallelUtils.forEach(entries.size(), new ParallelUtils.IndexTask() {
+            @Override
+            public void run(int index) {
+                Map.Entry<String, T> entry = entries.get(index);
+                results[index] = put(entry.getKey(), entry.getValue(), codec, saveTime);
+            }
+        });
+        return allTrue(results);
+    }
+
+    /**
+     * 批量读取字节数组，在IO线程池中并行读取
+     *
+     * @param keys 键
+     * @return 存在且没过期的键值对，顺序与keys一致
+     */
+    public Map<String, byte[]> getAll(@NonNull final Collection<String> keys) {
+        final List<String> keyList = new ArrayList<>(new LinkedHashSet<>(keys));
+        final byte[][] values = new byte[keyList.size()][];
+        ParallelUtils.forEach(keyList.size(), new ParallelUtils.IndexTask() {
+            @Override
+            public void run(int index) {
+                values[index] = getBytes(keyList.get(index));
+            }
+        });
+        return toResultMap(keyList, values);
+    }
+
+    /**
+     * 批量读取 String，在IO线程池中并行读取
+     *
+     * @param keys 键
+     * @return 存在且没过期的键值对，顺序与keys一致
+     */
+    public Map<String, String> getAllStrings(@NonNull final Collection<String> keys) {
+        final List<String> keyList = new ArrayList<>(new LinkedHashSet<>(keys));
+        final String[] values = new String[keyList.size()];
+        ParallelUtils.forEach(keyList.size(), new ParallelUtils.IndexTask() {
+            @Override
+            public void run(int index) {
+                values[index] = getString(keyList.get(index));
+            }
+        });
+        return toResultMap(keyList, values);
+    }
+
+    /**
+     * 使用指定的编码器批量读取，在IO线程池中并行读取
+     *
+     * @param keys  键
+     * @param codec 编码器，需与写入时一致
+     * @return 存在且没过期的键值对，顺序与keys一致
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Map<String, T> getAll(@NonNull final Collection<String> keys, @NonNull final ValueCodec<T> codec) {
+        final List<String> keyList = new ArrayList<>(new LinkedHashSet<>(keys));
+        final Object[] values = new Object[keyList.size()];
+        ParallelUtils.forEach(keyList.size(), new ParallelUtils.IndexTask() {
+            @Override
+            public void run(int index) {
+                values[index] = getValue(keyList.get(index), codec);
+            }
+        });
+        Map<String, T> result = new LinkedHashMap<>();
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null) {
+                result.put(keyList.get(i), (T) values[i]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 用指定的键值对原子地替换全部缓存
+     * <p>先将新的缓存写入临时目录，再与缓存目录交换，其他线程只会看到替换前或替换后的全部缓存</p>
+     * <p>值类型支持：byte[]、String、JSONObject、JSONArray、Bitmap、Drawable、Parcelable、Serializable</p>
+     *
+     * <p>有未完成的流式写入{@link Editor}时替换失败</p>
+     *
+     * @param values 键值对，值为空的将被忽略
+     * @return {@code true}: 替换成功<br>{@code false}: 替换失败，原有的缓存保持不变
+     * @throws IllegalArgumentException 有不支持的值类型，此时原有的缓存保持不变
+     */
+    public boolean replaceAll(@NonNull final Map<String, ?> values) {
+        return replaceAll(values, -1);
+    }
+
+    /**
+     * 用指定的键值对原子地替换全部缓存
+     * <p>先将新的缓存写入临时目录，再与缓存目录交换，其他线程只会看到替换前或替换后的全部缓存</p>
+     * <p>值类型支持：byte[]、String、JSONObject、JSONArray、Bitmap、Drawable、Parcelable、Serializable</p>
+     *
+     * <p>有未完成的流式写入{@link Editor}时替换失败</p>
+     *
+     * @param values   键值对，值为空的将被忽略
+     * @param saveTime 保存时长，单位：秒
+     * @return {@code true}: 替换成功<br>{@code false}: 替换失败，原有的缓存保持不变
+     * @throws IllegalArgumentException 有不支持的值类型，此时原有的缓存保持不变
+     */
+    public boolean replaceAll(@NonNull final Map<String, ?> values, final int saveTime) {
+        final List<? extends Map.Entry<String, ?>> entries = toEntryList(values);
+        checkValueTypes(entries);
+        try {
+            for (CacheManager shard : mShards) {
+                shard.awaitLoaded();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        for (CacheManager shard : mShards) {
+            if (!shard.prepareReplaceDir()) {
+                return false;
+            }
+        }
+        final long dueTime = toDueTime(saveTime);
+        final CacheEntry[] written = new CacheEntry[entries.size()];
+        ParallelUtils.forEach(entries.size(), new ParallelUtils.IndexTask() {
+            @Override
+            public void run(int index) {
+                Map.Entry<String, ?> entry = entries.get(index);
+                written[index] = shardOf(entry.getKey())
+                        .writeReplaceEntry(newEntry(entry.getKey(), dueTime, encodeValue(entry.getValue()), mCompressEnabled),
+                                entry.getKey(), dueTime);
+            }
+        });
+        List<List<CacheEntry>> shardEntries = new ArrayList<>(mShards.length);
+        for (int i = 0; i < mShards.length; i++) {
+            shardEntries.add(new ArrayList<CacheEntry>());
+        }
+        for (int i = 0; i < written.length; i++) {
+            if (written[i] == null) {
+                for (CacheManager shard : mShards) {
+                    shard.discardReplaceDir();
+                }
+                return false;
+            }
+            shardEntries.get(indexOfShard(entries.get(i).getKey())).add(written[i]);
+        }
+        // 等待进行中的写入完成，之后开始的异步写入已从队列中移除，不会再写入
+        Lock lock = mReplaceLock.writeLock();
+        lock.lock();
+        try {
+            discardPendingWrites();
+            boolean success = CacheManager.swapAll(mShards, shardEntries);
+            MemoryCache memoryCache = mMemoryCache;
+            if (memoryCache != null) {
+                memoryCache.evictAll();
+            }
+            return success;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 检查值类型，在写入任何键值对之前发现不支持的类型
+     *
+     * @param entries 键值对
+     * @throws IllegalArgumentException 有不支持的值类型
+     */
+    private static void checkValueTypes(final List<? extends Map.Entry<String, ?>> entries) {
+        for (Map.Entry<String, ?> entry : entries) {
+            Object value = entry.getValue();
+            if (!(value instanceof byte[] || value instanceof String || value instanceof JSONObject
+                    || value instanceof JSONArray || value instanceof Bitmap || value instanceof Drawable
+                    || value instanceof Parcelable || value instanceof Serializable)) {
+                throw new IllegalArgumentException("unsupported value type for key " + entry.getKey()
+                        + ": " + value.getClass().getName());
+            }
+        }
+    }
+
+    private static boolean allTrue(final boolean[] results) {
+        for (boolean result : results) {
+            if (!result) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 转换为写入磁盘的数据
+     *
+     * @param value 值
+     * @return 数据
+     */
+    private static byte[] encodeValue(final Object value) {
+        if (value instanceof byte[]) {
+            return (byte[]) value;
+        } else if (value instanceof String) {
+            return CacheHelper.string2Bytes((String) value);
+        } else if (value instanceof JSONObject) {
+            return CacheHelper.jsonObject2Bytes((JSONObject) value);
+        } else if (value instanceof JSONArray) {
+            return CacheHelper.jsonArray2Bytes((JSONArray) value);
+        } else if (value instanceof Bitmap) {
+            return CacheHelper.bitmap2Bytes((Bitmap) value);
+        } else if (value instanceof Drawable) {
+            return CacheHelper.drawable2Bytes((Drawable) value);
+        } else if (value instanceof Parcelable) {
+            return CacheHelper.parcelable2Bytes((Parcelable) value);
+        } else if (value instanceof Serializable) {
+            return CacheHelper.serializable2Bytes((Serializable) value);
+        }
+        throw new IllegalArgumentException("unsupported value type: " + value.getClass().getName());
+    }
+
+    /**
+     * 去除键或值为空的键值对
+     */
+    private static <T> List<Map.Entry<String, T>> toEntryList(final Map<String, T> values) {
+        List<Map.Entry<String, T>> entries = new ArrayList<>(values.size());
+        for (Map.Entry<String, T> entry : values.entrySet()) {
+            if (entry.getKey() != null && entry.getValue() != null) {
+                entries.add(entry);
+            }
+        }
+        return entries;
+    }
+
+    private static <T> Map<String, T> toResultMap(final List<String> keys, final T[] values) {
+        Map<String, T> result = new LinkedHashMap<>();
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null) {
+                result.put(keys.get(i), values[i]);
+            }
+        }
+        return result;
+    }
+
+    ///////////////////////////////////////////////////////////////////////////
+    // 流式读写
+    ///////////////////////////////////////////////////////////////////////////
+
+    /**
+     * 以流的方式写入缓存，适合较大的值，数据直接写入磁盘，不占用内存
+     * <p>写入完成后必须调用{@link Editor#commit()}或{@link Editor#abort()}，在此之前同一个键的其他写入会失败，读取和移除不受影响</p>
+     *
+     * @param key 键
+     * @return {@link Editor}，同一个键已有未完成的{@link Editor}时返回{@code null}
+     */
+    public Editor edit(@NonNull final String key) {
+        return edit(key, -1);
+    }
+
+    /**
+     * 以流的方式写入缓存，适合较大的值，数据直接写入磁盘，不占用内存
+     * <p>写入完成后必须调用{@link Editor#commit()}或{@link Editor#abort()}，在此之前同一个键的其他写入会失败，读取和移除不受影响</p>
+     *
+     * @param key      键
+     * @param saveTime 保存时长，单位：秒
+     * @return {@link Editor}，同一个键已有未完成的{@link Editor}时返回{@code null}
+     */
+    public Editor edit(@NonNull final String key, final int saveTime) {
+        final CacheManager shard = shardOf(key);
+        final File tempFile = shard.beginEdit(key, true);
+        if (tempFile == null) {
+            return null;
+        }
+        final PendingWrite pending = removePendingWrite(key);
+        return shard.newEditor(key, toDueTime(saveTime), tempFile, new Editor.OnCompleteListener() {
+            @Override
+            public void onComplete(String key, boolean success) {
+                // 流式写入的值不放入内存缓存
+                removeFromMemory(key);
+                if (pending != null) {
+                    pending.complete(success);
+                }
+            }
+        });
+    }
+
+    /**
+     * 以流的方式读取缓存，适合较大的值，数据直接从磁盘读取，不占用内存
+     * <p>读取完成后需调用{@link Snapshot#close()}</p>
+     *
+     * @param key 键
+     * @return 存在且没过期返回对应的{@link Snapshot}，否则返回{@code null}
+     */
+    public Snapshot getSnapshot(@NonNull final String key) {
+        if (mPendingWrites.containsKey(key)) {
+            flushPendingWrite(key);
+        }
+        final byte[] slabData = shardOf(key).getFromSlab(key);
+        File file = null;
+        if (slabData == null) {
+            file = shardOf(key).getFileIfExists(key);
+            if (file == null && migrateLegacyEntry(key) != null) {
+                file = shardOf(key).getFileIfExists(key);
+            }
+            if (file == null) {
+                mStats.diskMissCount.incrementAndGet();
+                return null;
+            }
+        }
+        final long length = slabData != null ? slabData.length : file.length();
+        RemovalCause cause = null;
+        InputStream in = null;
+        try {
+            in = slabData != null ? new ByteArrayInputStream(slabData) : new FileInputStream(file);
+            EntryHeader header = CacheHelper.readHeader(in, length);
+            if (header != null && header.isDue()) {
+                cause = RemovalCause.EXPIRED;
+            } else if (header != null && key.equals(header.key)) {
+                InputStream is = in;
+                long dataLength = length - header.dataOffset;
+                if ((header.flags & CacheHelper.FLAG_DEFLATE) != 0) {
+                    dataLength = new DataInputStream(in).readInt();
+                    is = new InflaterInputStream(in);
+                }
+                if (file != null) {
+                    shardOf(key).touch(file);
+                }
+                mStats.diskHitCount.incrementAndGet();
+                mStats.recordRead(length, 0);
+                Snapshot snapshot = new Snapshot(is, dataLength, header.dueTime);
+                in = null;
+                return snapshot;
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        } finally {
+            CloseUtils.closeIO(in);
+        }
+        // 文件头损坏、键不一致或已过期时视为不存在
+        shardOf(key).removeByKey(key, cause);
+        mStats.diskMissCount.incrementAndGet();
+        return null;
+    }
+
+    ///////////////////////////////////////////////////////////////////////////
+    // 异步读写
+    ///////////////////////////////////////////////////////////////////////////
+
+    /**
+     * 异步写入字节数组
+     *
+     * @param key   键
+     * @param value 值
+     * @return 写入结果，同一个键在写入磁盘前被多次写入时只写入最后一次的值，被覆盖的写入在其之后完成
+     */
+    public Future<Boolean> putAsync(@NonNull final String key, @NonNull final byte[] value) {
+        return putAsync(key, value, -1);
+    }
+
+    /**
+     * 异步写入字节数组
+     *
+     * @param key      键
+     * @param value    值
+     * @param saveTime 保存时长，单位：秒
+     * @return 写入结果
+     */
+    public Future<Boolean> putAsync(@NonNull final String key, @NonNull final byte[] value, final int saveTime) {
+        byte[] data = value.clone();
+        return enqueueWrite(key, data, data, saveTime);
+    }
+
+    /**
+     * 异步写入 String
+     *
+     * @param key   键
+     * @param value 值
+     * @return 写入结果
+     */
+    public Future<Boolean> putAsync(@NonNull final String key, @NonNull final String value) {
+        return putAsync(key, value, -1);
+    }
+
+    /**
+     * 异步写入 String
+     *
+     * @param key      键
+     * @param value    值
+     * @param saveTime 保存时长，单位：秒
+     * @return 写入结果
+     */
+    public Future<Boolean> putAsync(@NonNull final String key, @NonNull final String value, final int saveTime) {
+        return enqueueWrite(key, value, null, saveTime);
+    }
+
+    /**
+     * 异步写入 JSONObject
+     *
+     * @param key   键
+     * @param value 值
+     * @return 写入结果
+     */
+    public Future<Boolean> putAsync(@NonNull final String key, @NonNull final JSONObject value) {
+        return putAsync(key, value, -1);
+    }
+
+    /**
+     * 异步写入 JSONObject
+     *
+     * @param key      键
+     * @param value    值
+     * @param saveTime 保存时长，单位：秒
+     * @return 写入结果
+     */
+    public Future<Boolean> putAsync(@NonNull final String key, @NonNull final JSONObject value, final int saveTime) {
+        byte[] data = CacheHelper.jsonObject2Bytes(value);
+        return enqueueWrite(key, data, data, saveTime);
+    }
+
+    /**
+     * 异步写入 JSONArray
+     *
+     * @param key   键
+     * @param value 值
+     * @return 写入结果
+     */
+    public Future<Boolean> putAsync(@NonNull final String key, @NonNull final JSONArray value) {
+        return putAsync(key, value, -1);
+    }
+
+    /**
+     * 异步写入 JSONArray
+     *
+     * @param key      键
+     * @param value    值
+     * @param saveTime 保存时长，单位：秒
+     * @return 写入结果
+     */
+    public Future<Boolean> putAsync(@NonNull final String key, @NonNull final JSONArray value, final int saveTime) {
+        byte[] data = CacheHelper.jsonArray2Bytes(value);
+        return enqueueWrite(key, data, data, saveTime);
+    }
+
+    /**
+     * 异步写入 Bitmap
+     * <p>压缩在IO线程中进行，写入磁盘前不要修改或回收该Bitmap</p>
+     *
+     * @param key   键
+     * @param value 值
+     * @return 写入结果
+     */
+    public Future<Boolean> putAsync(@NonNull final String key, @NonNull final Bitmap value) {
+        return putAsync(key, value, -1);
+    }
+
+    /**
+     * 异步写入 Bitmap
+     * <p>压缩在IO线程中进行，写入磁盘前不要修改或回收该Bitmap</p>
+     *
+     * @param key      键
+     * @param value    值
+     * @param saveTime 保存时长，单位：秒
+     * @return 写入结果
+     */
+    public Future<Boolean> putAsync(@NonNull final String key, @NonNull final Bitmap value, final int saveTime) {
+        return enqueueWrite(key, value, null, saveTime);
+    }
+
+    /**
+     * 异步写入 Drawable
+     * <p>转换在IO线程中进行，写入磁盘前不要修改该Drawable</p>
+     *
+     * @param key   键
+     * @param value 值
+     * @return 写入结果
+     */
+    public Future<Boolean> putAsync(@NonNull final String key, @NonNull final Drawable value) {
+        return putAsync(key, value, -1);
+    }
+
+    /**
+     * 异步写入 Drawable
+     * <p>转换在IO线程中进行，写入磁盘前不要修改该Drawable</p>
+     *
+     * @param key      键
+     * @param value    值
+     * @param saveTime 保存时长，单位：秒
+     * @return 写入结果
+     */
+    public Future<Boolean> putAsync(@NonNull final String key, @NonNull final Drawable value, final int saveTime) {
+        return enqueueWrite(key, value, null, saveTime);
+    }
+
+    /**
+     * 异步写入 Parcelable
+     *
+     * @param key   键
+     * @param value 值
+     * @return 写入结果
+     */
+    public Future<Boolean> putAsync(@NonNull final String key, @NonNull final Parcelable value) {
+        return putAsync(key, value, -1);
+    }
+
+    /**
+     * 异步写入 Parcelable
+     *
+     * @param key      键
+     * @param value    值
+     * @param saveTime 保存时长，单位：秒
+     * @return 写入结果
+     */
+    public Future<Boolean> putAsync(@NonNull final String key, @NonNull final Parcelable value, final int saveTime) {
+        byte[] data = CacheHelper.parcelable2Bytes(value);
+        return enqueueWrite(key, data, data, saveTime);
+    }
+
+    /**
+     * 异步写入 Serializable
+     *
+     * @param key   键
+     * @param value 值
+     * @return 写入结果
+     */
+    public Future<Boolean> putAsync(@NonNull final String key, @NonNull final Serializable value) {
+        return putAsync(key, value, -1);
+    }
+
+    /**
+     * 异步写入 Serializable
+     *
+     * @param key      键
+     * @param value    值
+     * @param saveTime 保存时长，单位：秒
+     * @return 写入结果
+     */
+    public Future<Boolean> putAsync(@NonNull final String key, @NonNull final Serializable value, final int saveTime) {
+        byte[] data = CacheHelper.serializable2Bytes(value);
+        return enqueueWrite(key, data, data, saveTime);
+    }
+
+    /**
+     * 异步读取字节数组
+     *
+     * @param key 键
+     * @return 存在且没过期返回对应值，否则返回{@code null}
+     */
+    public Future<byte[]> getBytesAsync(@NonNull final String key) {
+        return ParallelUtils.getIOExecutor().submit(new Callable<byte[]>() {
+            @Override
+            public byte[] call() {
+                return getBytes(key);
+            }
+        });
+    }
+
+    /**
+     * 异步读取 String
+     *
+     * @param key 键
+     * @return 存在且没过期返回对应值，否则返回{@code null}
+     */
+    public Future<String> getStringAsync(@NonNull final String key) {
+        return ParallelUtils.getIOExecutor().submit(new Callable<String>() {
+            @Override
+            public String call() {
+                return getString(key);
+            }
+        });
+    }
+
+    /**
+     * 异步读取 JSONObject
+     *
+     * @param key 键
+     * @return 存在且没过期返回对应值，否则返回{@code null}
+     */
+    public Future<JSONObject> getJSONObjectAsync(@NonNull final String key) {
+        return ParallelUtils.getIOExecutor().submit(new Callable<JSONObject>() {
+            @Override
+            public JSONObject call() {
+                return getJSONObject(key);
+            }
+        });
+    }
+
+    /**
+     * 异步读取 JSONArray
+     *
+     * @param key 键
+     * @return 存在且没过期返回对应值，否则返回{@code null}
+     */
+    public Future<JSONArray> getJSONArrayAsync(@NonNull final String key) {
+        return ParallelUtils.getIOExecutor().submit(new Callable<JSONArray>() {
+            @Override
+            public JSONArray call() {
+                return getJSONArray(key);
+            }
+        });
+    }
+
+    /**
+     * 异步读取 Bitmap
+     *
+     * @param key 键
+     * @return 存在且没过期返回对应值，否则返回{@code null}
+     */
+    public Future<Bitmap> getBitmapAsync(@NonNull final String key) {
+        return ParallelUtils.getIOExecutor().submit(new Callable<Bitmap>() {
+            @Override
+            public Bitmap call() {
+                return getBitmap(key);
+            }
+        });
+    }
+
+    /**
+     * 异步读取 Drawable
+     *
+     * @param key 键
+     * @return 存在且没过期返回对应值，否则返回{@code null}
+     */
+    public Future<Drawable> getDrawableAsync(@NonNull final String key) {
+        return ParallelUtils.getIOExecutor().submit(new Callable<Drawable>() {
+            @Override
+            public Drawable call() {
+                return getDrawable(key);
+            }
+        });
+    }
+
+    /**
+     * 异步读取 Parcelable
+     *
+     * @param key     键
+     * @param creator 建造器
+     * @return 存在且没过期返回对应值，否则返回{@code null}
+     */
+    public <T> Future<T> getParcelableAsync(@NonNull final String key,
+                                            @NonNull final Parcelable.Creator<T> creator) {
+        return ParallelUtils.getIOExecutor().submit(new Callable<T>() {
+            @Override
+            public T call() {
+                return getParcelable(key, creator);
+            }
+        });
+    }
+
+    /**
+     * 异步读取 Serializable
+     *
+     * @param key 键
+     * @return 存在且没过期返回对应值，否则返回{@code null}
+     */
+    public Future<Object> getSerializableAsync(@NonNull final String key) {
+        return ParallelUtils.getIOExecutor().submit(new Callable<Object>() {
+            @Override
+            public Object call() {
+                return getSerializable(key);
+            }
+        });
+    }
+
+    /**
+     * 加入异步写入队列，同一个键尚未写入磁盘时只替换其值，不重复提交写入任务
+     *
+     * @param key      键
+     * @param value    读取时返回的值
+     * @param data     写入磁盘的数据，为空时在IO线程中由value转换
+     * @param saveTime 保存时长，单位：秒
+     * @return 写入结果
+     */
+    private Future<Boolean> enqueueWrite(final String key, final Object value, final byte[] data, final int saveTime) {
+        final PendingWrite write = new PendingWrite(value, data, toDueTime(saveTime));
+        PendingWrite previous;
+        synchronized (mPendingWrites) {
+            previous = mPendingWrites.put(key, write);
+            write.setPrevious(previous);
+        }
+        if (previous == null) {
+            ParallelUtils.getIOExecutor().execute(new Runnable() {
+                @Override
+                public void run() {
+                    flushPendingWrite(key);
+                }
+            });
+        }
+        return write.getFuture();
+    }
+
+    /**
+     * 将键对应的异步写入写入磁盘，写入期间又有新值时继续写入新值
+     *
+     * @param key 键
+     */
+    private void flushPendingWrite(final String key) {
+        Lock lock = mReplaceLock.readLock();
+        lock.lock();
+        try {
+            doFlushPendingWrite(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 需持有{@link #mReplaceLock}的读锁
+     */
+    private void doFlushPendingWrite(final String key) {
+        while (true) {
+            if (!mPendingWrites.containsKey(key)) {
+                return;
+            }
+            // 先占用写入，保证取到的值与写入顺序一致
+            final File tempFile = shardOf(key).beginEdit(key, false);
+            final PendingWrite write;
+            synchronized (mPendingWrites) {
+                write = tempFile != null ? mPendingWrites.get(key) : mPendingWrites.remove(key);
+            }
+            if (tempFile == null) {
+                // 同一个键的流式写入未完成，放弃异步写入
+                if (write != null) {
+                    write.complete(false);
+                }
+                return;
+            }
+            if (write == null) {
+                // 已被其他线程写入或移除
+                shardOf(key).abortEdit(tempFile);
+                return;
+            }
+            // 写入期间持有锁，移除时等待写入完成后再删除，已被移除则放弃写入
+            synchronized (write) {
+                if (write.isDone()) {
+                    shardOf(key).abortEdit(tempFile);
+                } else {
+                    store(key, tempFile, write);
+                }
+            }
+            synchronized (mPendingWrites) {
+                if (mPendingWrites.get(key) == write) {
+                    mPendingWrites.remove(key);
+                    return;
+                }
+                if (!mPendingWrites.containsKey(key)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * 将异步写入的值写入磁盘，需持有写入的锁
+     *
+     * @param key      键
+     * @param tempFile 已占用写入的临时文件
+     * @param write    异步写入
+     */
+    private void store(final String key, final File tempFile, final PendingWrite write) {
+        final byte[] data = write.encode();
+        final long start = System.nanoTime();
+        final boolean success;
+        if (data != null && data.length > 0) {
+            success = storeEntry(key, tempFile, newEntry(key, write.dueTime, data, mCompressEnabled), write.dueTime);
+        } else {
+            success = false;
+            shardOf(key).abortEdit(tempFile);
+        }
+        mStats.writeTime.addAndGet(System.nanoTime() - start);
+        shardOf(key).removeLegacy(key);
+        if (success) {
+            putToMemory(key, write.value instanceof Drawable ? data : write.value, write.dueTime);
+        } else {
+            removeFromMemory(key);
+        }
+        write.complete(success);
+    }
+
+    /**
+     * 获取尚未写入磁盘的异步写入
+     * <p>值类型不一致或已过期时，先同步写入磁盘，再由调用方从磁盘读取</p>
+     *
+     * @param key  键
+     * @param type 需要的值类型
+     * @return 异步写入，不存在返回{@code null}
+     */
+    private PendingWrite getPendingWrite(final String key, final Class<?> type) {
+        PendingWrite write = mPendingWrites.get(key);
+        if (write == null) {
+            return null;
+        }
+        if (type.isInstance(write.value) && !write.isDue()) {
+            return write;
+        }
+        flushPendingWrite(key);
+        return null;
+    }
+
+    private PendingWrite removePendingWrite(final String key) {
+        synchronized (mPendingWrites) {
+            return mPendingWrites.remove(key);
+        }
+    }
+
+    /**
+     * 放弃所有尚未写入磁盘的异步写入，需持有{@link #mReplaceLock}的写锁
+     */
+    private void discardPendingWrites() {
+        List<PendingWrite> pendingWrites;
+        synchronized (mPendingWrites) {
+            pendingWrites = new ArrayList<>(mPendingWrites.values());
+            mPendingWrites.clear();
+        }
+        for (PendingWrite pending : pendingWrites) {
+            pending.complete(false);
+        }
+    }
+
+    /**
+     * 获取缓存大小
+     * <p>单位：字节</p>
+     * <p>不会阻塞，缓存预热未完成时返回当前已统计的大小，需要准确值请使用{@link #getCacheSizeAsync()}</p>
+     *
+     * @return 缓存大小
+     */
+    public long getCacheSize() {
+        long size = 0;
+        for (CacheManager shard : mShards) {
+            size += shard.getCacheSize();
+        }
+        return size;
+    }
+
+    /**
+     * 获取缓存大小
+     * <p>单位：字节</p>
+     * <p>在缓存预热完成后得出结果</p>
+     *
+     * @return 缓存大小
+     */
+    public Future<Long> getCacheSizeAsync() {
+        return CacheManager.getExecutor().submit(new Callable<Long>() {
+            @Override
+            public Long call() throws Exception {
+                long size = 0;
+                for (CacheManager shard : mShards) {
+                    shard.awaitLoaded();
+                    size += shard.getCacheSize();
+                }
+                return size;
+            }
+        });
+    }
+
+    /**
+     * 获取缓存个数
+     * <p>不会阻塞，缓存预热未完成时返回当前已统计的个数，需要准确值请使用{@link #getCacheCountAsync()}</p>
+     *
+     * @return 缓存个数
+     */
+    public int getCacheCount() {
+        int count = 0;
+        for (CacheManager shard : mShards) {
+            count += shard.getCacheCount();
+        }
+        return count;
+    }
+
+    /**
+     * 获取缓存个数
+     * <p>在缓存预热完成后得出结果</p>
+     *
+     * @return 缓存个数
+     */
+    public Future<Integer> getCacheCountAsync() {
+        return CacheManager.getExecutor().submit(new Callable<Integer>() {
+            @Override
+            public Integer call() throws Exception {
+                int count = 0;
+                for (CacheManager shard : mShards) {
+                    shard.awaitLoaded();
+                    count += shard.getCacheCount();
+                }
+                return count;
+            }
+        });
+    }
+
+    /**
+     * 缓存是否已预热完成
+     *
+     * @return {@code true}: 已完成<br>{@code false}: 未完成
+     */
+    public boolean isLoaded() {
+        for (CacheManager shard : mShards) {
+            if (!shard.isLoaded()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 根据键值移除缓存
+     *
+     * @param key 键
+     * @return {@code true}: 移除成功<br>{@code false}: 移除失败
+     */
+    public boolean remove(@NonNull final String key) {
+        PendingWrite pending = removePendingWrite(key);
+        if (pending != null) {
+            pending.complete(false);
+        }
+        removeFromMemory(key);
+        return shardOf(key).removeByKey(key, RemovalCause.EXPLICIT);
+    }
+
+    /**
+     * 清除所有缓存
+     *
+     * @return {@code true}: 清除成功<br>{@code false}: 清除失败
+     */
+    public boolean clear() {
+        Lock lock = mReplaceLock.writeLock();
+        lock.lock();
+        try {
+            discardPendingWrites();
+            MemoryCache memoryCache = mMemoryCache;
+            if (memoryCache != null) {
+                memoryCache.evictAll();
+            }
+            boolean flag = true;
+            for (CacheManager shard : mShards) {
+                flag &= shard.clear();
+            }
+            return flag;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static boolean isSpace(final String s) {
+        if (s == null) {
+            return true;
+        }
+        for (int i = 0, len = s.length(); i < len; ++i) {
+            if (!Character.isWhitespace(s.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright (C) 2018 xuexiangjys(xuexiangjys@163.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.xuexiang.xutil.data.cache;
+
+/**
+ * <pre>
+ *     desc   : LRU索引中的缓存条目
+ *     author : agent
+ *     time   : 2026/10/18 下午12:52
+ * </pre>
+ */
+final class CacheEntry {
+    final String name;
+    final long length;
+    /**
+     * 过期时间，没有为-1
+     */
+    final long dueTime;
+    /**
+     * 最后访问时的访问时钟，需持有lruIndex锁
+     */
+    long lastAccess;
+
+    CacheEntry(final String name, final long length, final long dueTime) {
+        this.name = name;
+        this.length = length;
+        this.dueTime = dueTime;
+    }
+}
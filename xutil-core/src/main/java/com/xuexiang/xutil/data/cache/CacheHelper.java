@@ -0,0 +1,522 @@
+/*
+ * Copyright (C) 2018 xuexiangjys(xuexiangjys@163.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.xuexiang.xutil.data.cache;
+
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Canvas;
+import android.graphics.PixelFormat;
+import android.graphics.drawable.BitmapDrawable;
+import android.graphics.drawable.Drawable;
+import android.os.Parcel;
+import android.os.Parcelable;
+
+import com.xuexiang.xutil.XUtil;
+import com.xuexiang.xutil.file.CloseUtils;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.RandomAccessFile;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * <pre>
+ *     desc   : 缓存文件的读写及数据转换
+ *     author : agent
+ *     time   : 2026/10/18 下午12:52
+ * </pre>
+ */
+final class CacheHelper {
+
+    /**
+     * Don't let anyone instantiate this class.
+     */
+    private CacheHelper() {
+        throw new UnsupportedOperationException("u can't instantiate me...");
+    }
+
+    static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    /**
+     * 缓存文件头：魔数(4) + 版本(1) + 标志位(1) + 过期时间(8) + 键长度(4) + 键(UTF-8)
+     */
+    static final int ENTRY_MAGIC = 0x41434831;
+    static final byte ENTRY_VERSION = 1;
+    static final int ENTRY_FIXED_HEADER_LEN = 18;
+    /**
+     * 标志位：数据已使用Deflater压缩，格式为 原始长度(4) + 压缩后的数据
+     */
+    static final byte FLAG_DEFLATE = 1;
+    static final int STREAM_BUFFER_SIZE = 8192;
+
+    /**
+     * 旧版本的过期时间前缀长度：_$秒数(10位)$_
+     */
+    static final int timeInfoLen = 14;
+
+    /**
+     * 创建缓存文件内容
+     *
+     * @param key     键
+     * @param flags   标志位
+     * @param dueTime 过期时间，没有为-1
+     * @param data    数据
+     * @return 文件头 + 数据
+     */
+    static byte[] newEntry(final String key, final byte flags, final long dueTime, final byte[] data) {
+        byte[] keyBytes = key.getBytes(UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocate(ENTRY_FIXED_HEADER_LEN + keyBytes.length + data.length);
+        buffer.putInt(ENTRY_MAGIC)
+                .put(ENTRY_VERSION)
+                .put(flags)
+                .putLong(dueTime)
+                .putInt(keyBytes.length)
+                .put(keyBytes)
+                .put(data);
+        return buffer.array();
+    }
+
+    /**
+     * 压缩数据
+     *
+     * @param data  数据
+     * @param level 压缩级别
+     * @return 原始长度(4) + 压缩后的数据
+     */
+    static byte[] deflate(final byte[] data, final int level) {
+        Deflater deflater = new Deflater(level);
+        try {
+            deflater.setInput(data);
+            deflater.finish();
+            ByteArrayOutputStream baos = new ByteArrayOutputStream(data.length / 2 + 16);
+            baos.write(data.length >>> 24);
+            baos.write(data.length >>> 16);
+            baos.write(data.length >>> 8);
+            baos.write(data.length);
+            byte[] buffer = new byte[STREAM_BUFFER_SIZE];
+            while (!deflater.finished()) {
+                int count = deflater.deflate(buffer);
+                baos.write(buffer, 0, count);
+            }
+            return baos.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * 解压数据
+     *
+     * @param data   数据
+     * @param offset 原始长度(4) + 压缩后的数据在data中的起始位置
+     * @return 原始数据，数据损坏返回{@code null}
+     */
+    static byte[] inflate(final byte[] data, final int offset) {
+        if (data.length - offset < 4) {
+            return null;
+        }
+        int length = ByteBuffer.wrap(data, offset, 4).getInt();
+        if (length < 0) {
+            return null;
+        }
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data, offset + 4, data.length - offset - 4);
+            byte[] result = new byte[length];
+            int count = 0;
+            while (count < length) {
+                int n = inflater.inflate(result, count, length - count);
+                if (n == 0 && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary())) {
+                    return null;
+                }
+                count += n;
+            }
+            return result;
+        } catch (DataFormatException e) {
+            e.printStackTrace();
+            return null;
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * 从输入流中读取文件头，读取后输入流位于数据的起始位置
+     *
+     * @param is     输入流
+     * @param length 文件长度
+     * @return 文件头，损坏时返回{@code null}
+     */
+    static EntryHeader readHeader(final InputStream is, final long length) throws IOException {
+        if (length < ENTRY_FIXED_HEADER_LEN) {
+            return null;
+        }
+        DataInputStream dis = new DataInputStream(is);
+        byte[] fixed = new byte[ENTRY_FIXED_HEADER_LEN];
+        dis.readFully(fixed);
+        ByteBuffer buffer = ByteBuffer.wrap(fixed);
+        if (buffer.getInt() != ENTRY_MAGIC || buffer.get() != ENTRY_VERSION) {
+            return null;
+        }
+        byte flags = buffer.get();
+        long dueTime = buffer.getLong();
+        int keyLength = buffer.getInt();
+        if (keyLength < 0 || keyLength > length - ENTRY_FIXED_HEADER_LEN) {
+            return null;
+        }
+        byte[] keyBytes = new byte[keyLength];
+        dis.readFully(keyBytes);
+        return new EntryHeader(new String(keyBytes, UTF_8), flags, dueTime, ENTRY_FIXED_HEADER_LEN + keyLength);
+    }
+
+    /**
+     * 读取缓存文件中记录的键
+     *
+     * @param file 缓存文件
+     * @return 键，旧版本的缓存文件或读取失败返回{@code null}
+     */
+    static String readKey(final File file) {
+        FileInputStream fis = null;
+        try {
+            fis = new FileInputStream(file);
+            EntryHeader header = readHeader(fis, file.length());
+            return header != null ? header.key : null;
+        } catch (IOException e) {
+            return null;
+        } finally {
+            CloseUtils.closeIO(fis);
+        }
+    }
+
+    /**
+     * 解析缓存文件头
+     *
+     * @param data 文件内容
+     * @return 文件头，格式不正确返回{@code null}
+     */
+    static EntryHeader parseHeader(final byte[] data) {
+        if (data == null || data.length < ENTRY_FIXED_HEADER_LEN) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        if (buffer.getInt() != ENTRY_MAGIC || buffer.get() != ENTRY_VERSION) {
+            return null;
+        }
+        byte flags = buffer.get();
+        long dueTime = buffer.getLong();
+        int keyLength = buffer.getInt();
+        if (keyLength < 0 || keyLength > buffer.remaining()) {
+            return null;
+        }
+        String key = new String(data, ENTRY_FIXED_HEADER_LEN, keyLength, UTF_8);
+        return new EntryHeader(key, flags, dueTime, ENTRY_FIXED_HEADER_LEN + keyLength);
+    }
+
+    /**
+     * 旧版本的缓存是否过期
+     *
+     * @param data
+     * @return
+     */
+    static boolean isDue(final byte[] data) {
+        long millis = getDueTime(data);
+        return millis != -1 && System.currentTimeMillis() > millis;
+    }
+
+    /**
+     * 获取旧版本缓存的过期时间
+     *
+     * @param data
+     * @return
+     */
+    static long getDueTime(final byte[] data) {
+        if (hasTimeInfo(data)) {
+            String millis = new String(copyOfRange(data, 2, 12));
+            try {
+                return Long.parseLong(millis) * 1000;
+            } catch (NumberFormatException e) {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 获取旧版本缓存中没有过期时间的数据
+     *
+     * @param data
+     * @return
+     */
+    static byte[] getDataWithoutDueTime(final byte[] data) {
+        if (hasTimeInfo(data)) {
+            return copyOfRange(data, timeInfoLen, data.length);
+        }
+        return data;
+    }
+
+    static byte[] copyOfRange(final byte[] original, final int from, final int to) {
+        int newLength = to - from;
+        if (newLength < 0) {
+            throw new IllegalArgumentException(from + " > " + to);
+        }
+        byte[] copy = new byte[newLength];
+        System.arraycopy(original, from, copy, 0, Math.min(original.length - from, newLength));
+        return copy;
+    }
+
+    /**
+     * 是否含有时间信息
+     *
+     * @param data
+     * @return
+     */
+    private static boolean hasTimeInfo(final byte[] data) {
+        return data != null
+                && data.length >= timeInfoLen
+                && data[0] == '_'
+                && data[1] == '$'
+                && data[12] == '$'
+                && data[13] == '_';
+    }
+
+    /**
+     * 写入数据到文件
+     *
+     * @param file
+     * @param bytes
+     * @return 是否写入成功
+     */
+    static boolean writeFileFromBytes(final File file, final byte[] bytes) {
+        FileChannel fc = null;
+        try {
+            fc = new FileOutputStream(file, false).getChannel();
+            fc.write(ByteBuffer.wrap(bytes));
+            fc.force(true);
+            return true;
+        } catch (IOException e) {
+            e.printStackTrace();
+            return false;
+        } finally {
+            CloseUtils.closeIO(fc);
+        }
+    }
+
+    static byte[] readFile2Bytes(final File file) {
+        FileChannel fc = null;
+        try {
+            fc = new RandomAccessFile(file, "r").getChannel();
+            int size = (int) fc.size();
+            MappedByteBuffer mbb = fc.map(FileChannel.MapMode.READ_ONLY, 0, size).load();
+            byte[] data = new byte[size];
+            mbb.get(data, 0, size);
+            return data;
+        } catch (IOException e) {
+            e.printStackTrace();
+            return null;
+        } finally {
+            CloseUtils.closeIO(fc);
+        }
+    }
+
+    static byte[] string2Bytes(final String string) {
+        if (string == null) {
+            return null;
+        }
+        return string.getBytes();
+    }
+
+    static String bytes2String(final byte[] bytes) {
+        if (bytes == null) {
+            return null;
+        }
+        return new String(bytes);
+    }
+
+    static byte[] jsonObject2Bytes(final JSONObject jsonObject) {
+        if (jsonObject == null) {
+            return null;
+        }
+        return jsonObject.toString().getBytes();
+    }
+
+    static JSONObject bytes2JSONObject(final byte[] bytes) {
+        if (bytes == null) {
+            return null;
+        }
+        try {
+            return new JSONObject(new String(bytes));
+        } catch (Exception e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    static byte[] jsonArray2Bytes(final JSONArray jsonArray) {
+        if (jsonArray == null) {
+            return null;
+        }
+        return jsonArray.toString().getBytes();
+    }
+
+    static JSONArray bytes2JSONArray(final byte[] bytes) {
+        if (bytes == null) {
+            return null;
+        }
+        try {
+            return new JSONArray(new String(bytes));
+        } catch (Exception e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    static byte[] parcelable2Bytes(final Parcelable parcelable) {
+        if (parcelable == null) {
+            return null;
+        }
+        Parcel parcel = Parcel.obtain();
+        parcelable.writeToParcel(parcel, 0);
+        byte[] bytes = parcel.marshall();
+        parcel.recycle();
+        return bytes;
+    }
+
+    static <T> T bytes2Parcelable(final byte[] bytes,
+                                          final Parcelable.Creator<T> creator) {
+        if (bytes == null) {
+            return null;
+        }
+        Parcel parcel = Parcel.obtain();
+        parcel.unmarshall(bytes, 0, bytes.length);
+        parcel.setDataPosition(0);
+        T result = creator.createFromParcel(parcel);
+        parcel.recycle();
+        return result;
+    }
+
+    static byte[] serializable2Bytes(final Serializable serializable) {
+        if (serializable == null) {
+            return null;
+        }
+        ByteArrayOutputStream baos;
+        ObjectOutputStream oos = null;
+        try {
+            oos = new ObjectOutputStream(baos = new ByteArrayOutputStream());
+            oos.writeObject(serializable);
+            return baos.toByteArray();
+        } catch (Exception e) {
+            e.printStackTrace();
+            return null;
+        } finally {
+            CloseUtils.closeIO(oos);
+        }
+    }
+
+    static Object bytes2Object(final byte[] bytes) {
+        if (bytes == null) {
+            return null;
+        }
+        ObjectInputStream ois = null;
+        try {
+            ois = new ObjectInputStream(new ByteArrayInputStream(bytes));
+            return ois.readObject();
+        } catch (Exception e) {
+            e.printStackTrace();
+            return null;
+        } finally {
+            CloseUtils.closeIO(ois);
+        }
+    }
+
+    static byte[] bitmap2Bytes(final Bitmap bitmap) {
+        if (bitmap == null) {
+            return null;
+        }
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        bitmap.compress(Bitmap.CompressFormat.PNG, 100, baos);
+        return baos.toByteArray();
+    }
+
+    static Bitmap bytes2Bitmap(final byte[] bytes) {
+        return (bytes == null || bytes.length == 0)
+                ? null
+                : BitmapFactory.decodeByteArray(bytes, 0, bytes.length);
+    }
+
+    static byte[] drawable2Bytes(final Drawable drawable) {
+        return drawable == null ? null : bitmap2Bytes(drawable2Bitmap(drawable));
+    }
+
+    static Drawable bytes2Drawable(final byte[] bytes) {
+        return bytes == null ? null : bitmap2Drawable(bytes2Bitmap(bytes));
+    }
+
+    private static Bitmap drawable2Bitmap(final Drawable drawable) {
+        if (drawable instanceof BitmapDrawable) {
+            BitmapDrawable bitmapDrawable = (BitmapDrawable) drawable;
+            if (bitmapDrawable.getBitmap() != null) {
+                return bitmapDrawable.getBitmap();
+            }
+        }
+        Bitmap bitmap;
+        if (drawable.getIntrinsicWidth() <= 0 || drawable.getIntrinsicHeight() <= 0) {
+            bitmap = Bitmap.createBitmap(
+                    1,
+                    1,
+                    drawable.getOpacity() != PixelFormat.OPAQUE
+                            ? Bitmap.Config.ARGB_8888
+                            : Bitmap.Config.RGB_565
+            );
+        } else {
+            bitmap = Bitmap.createBitmap(
+                    drawable.getIntrinsicWidth(),
+                    drawable.getIntrinsicHeight(),
+                    drawable.getOpacity() != PixelFormat.OPAQUE
+                            ? Bitmap.Config.ARGB_8888
+                            : Bitmap.Config.RGB_565
+            );
+        }
+        Canvas canvas = new Canvas(bitmap);
+        drawable.setBounds(0, 0, canvas.getWidth(), canvas.getHeight());
+        drawable.draw(canvas);
+        return bitmap;
+    }
+
+    private static Drawable bitmap2Drawable(final Bitmap bitmap) {
+        return bitmap == null
+                ? null
+                : new BitmapDrawable(XUtil.getContext().getResources(), bitmap);
+    }
+}
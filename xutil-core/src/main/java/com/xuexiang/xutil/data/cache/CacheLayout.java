@@ -0,0 +1,252 @@
+/*
+ * Copyright (C) 2018 xuexiangjys(xuexiangjys@163.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.xuexiang.xutil.data.cache;
+
+import com.xuexiang.xutil.common.logger.Logger;
+import com.xuexiang.xutil.file.FileIOUtils;
+import com.xuexiang.xutil.file.FileUtils;
+
+import java.io.File;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <pre>
+ *     desc   : 缓存目录的布局【分片及块文件存储】
+ *     author : agent
+ *     time   : 2026/10/18 下午12:52
+ * </pre>
+ * <p>布局文件记录缓存目录的分片数及是否启用块文件存储，布局改变时据此找到原有的缓存并迁移</p>
+ */
+final class CacheLayout {
+
+    /**
+     * Don't let anyone instantiate this class.
+     */
+    private CacheLayout() {
+        throw new UnsupportedOperationException("u can't instantiate me...");
+    }
+
+    private static final String SHARD_DIR_PREFIX = "shard";
+    /**
+     * 布局文件
+     */
+    static final String LAYOUT_FILE = "acache.layout";
+    private static final String LAYOUT_MAGIC = "xutil.ACache.layout";
+    /**
+     * 块文件中的缓存转存为文件时的临时文件后缀
+     */
+    private static final String MIGRATE_FILE_SUFFIX = ".migrate.tmp";
+
+    /**
+     * 分片目录名：shard + 分片数 + _ + 序号
+     *
+     * @param shardCount 分片数
+     * @param index      序号
+     * @return 分片目录名
+     */
+    static String getShardDirName(final int shardCount, final int index) {
+        return SHARD_DIR_PREFIX + shardCount + "_" + index;
+    }
+
+    /**
+     * 键所在的分片
+     *
+     * @param key        键
+     * @param shardCount 分片数
+     * @return 分片的序号
+     */
+    static int indexOfShard(final String key, final int shardCount) {
+        return shardCount == 1 ? 0 : (key.hashCode() & Integer.MAX_VALUE) % shardCount;
+    }
+
+    /**
+     * 在后台将其他布局下的缓存迁移到当前的分片中，并记录当前的布局
+     * <p>没有布局文件时按不分片、未启用块文件存储处理；只迁移、删除文件头校验通过的缓存文件和日志，
+     * 无法确认由缓存写入的文件（包括旧版本以hashCode命名的缓存文件）保持不变</p>
+     * <p>维护线程按提交顺序执行，需在分片开始预热前调用</p>
+     *
+     * @param cacheDir    缓存目录
+     * @param shards      当前的分片
+     * @param slabEnabled 当前是否启用块文件存储
+     */
+    static void migrate(final File cacheDir, final CacheManager[] shards, final boolean slabEnabled) {
+        CacheManager.EXECUTOR.execute(new Runnable() {
+            @Override
+            public void run() {
+                final File layoutFile = new File(cacheDir, LAYOUT_FILE);
+                final int[] layout = readLayout(layoutFile);
+                final int oldShardCount = layout != null ? layout[0] : 1;
+                final boolean oldSlabEnabled = layout != null && layout[1] != 0;
+                if (oldShardCount != shards.length || oldSlabEnabled && !slabEnabled) {
+                    migrateShards(cacheDir, oldShardCount, oldSlabEnabled, shards);
+                }
+                if (layout == null || oldShardCount != shards.length || oldSlabEnabled != slabEnabled) {
+                    FileIOUtils.writeFileAtomically(layoutFile,
+                            LAYOUT_MAGIC + "\n" + shards.length + " " + (slabEnabled ? 1 : 0) + "\n");
+                }
+            }
+        });
+    }
+
+    /**
+     * 读取布局文件
+     *
+     * @return 分片数及是否启用块文件存储（1启用），不存在或格式不正确返回{@code null}
+     */
+    private static int[] readLayout(final File layoutFile) {
+        if (!layoutFile.isFile()) {
+            return null;
+        }
+        List<String> lines = FileIOUtils.readFile2List(layoutFile);
+        if (lines == null || lines.size() < 2 || !LAYOUT_MAGIC.equals(lines.get(0))) {
+            return null;
+        }
+        String[] parts = lines.get(1).split(" ");
+        if (parts.length != 2) {
+            return null;
+        }
+        try {
+            int shardCount = Integer.parseInt(parts[0]);
+            int slab = Integer.parseInt(parts[1]);
+            return shardCount > 0 ? new int[]{shardCount, slab} : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 将原有分片中的缓存按键移入当前的分片，块文件中的缓存转存为文件，移空的原分片目录随后删除
+     */
+    private static void migrateShards(final File cacheDir,
+                                      final int oldShardCount,
+                                      final boolean oldSlabEnabled,
+                                      final CacheManager[] shards) {
+        final Set<CacheManager> changed = new HashSet<>();
+        for (int i = 0; i < oldShardCount; i++) {
+            final File oldDir = oldShardCount == 1 ? cacheDir : new File(cacheDir, getShardDirName(oldShardCount, i));
+            if (!oldDir.isDirectory()) {
+                continue;
+            }
+            // 分片数不变（只关闭了块文件存储）时，原分片即当前分片
+            final CacheManager current = oldShardCount == shards.length ? shards[i] : null;
+            final File[] files = oldDir.listFiles();
+            // 块文件中的缓存比同名的缓存文件新，先转存
+            final Set<File> placed = new HashSet<>();
+            if (oldSlabEnabled) {
+                migrateSlab(new File(oldDir, SlabStore.SLAB_DIR), shards, placed, changed);
+            }
+            int skipped = 0;
+            for (int j = 0; files != null && j < files.length; j++) {
+                final File file = files[j];
+                final String name = file.getName();
+                if (!file.isFile() || LAYOUT_FILE.equals(name)) {
+                    continue;
+                }
+                if (CacheManager.isJournalFileName(name)) {
+                    if (current == null && !CacheManager.deleteJournalFile(file)) {
+                        skipped++;
+                    }
+                    continue;
+                }
+                final String key = CacheHelper.readKey(file);
+                if (key == null || !isMigratableName(name, key)) {
+                    skipped++;
+                    continue;
+                }
+                if (name.endsWith(CacheManager.TEMP_FILE_SUFFIX)) {
+                    // 上次未写入完成的缓存
+                    if (current == null) {
+                        file.delete();
+                    }
+                    continue;
+                }
+                final CacheManager target = shards[indexOfShard(key, shards.length)];
+                if (target == current) {
+                    continue;
+                }
+                if (!placed.contains(new File(target.cacheDir, name)) && target.placeMigrated(file, name)) {
+                    changed.add(target);
+                } else {
+                    file.delete();
+                }
+            }
+            if (current == null) {
+                FileUtils.deleteDir(CacheManager.getReplaceDir(oldDir));
+                FileUtils.deleteDir(CacheManager.getTrashDir(oldDir));
+                if (skipped > 0) {
+                    Logger.w("ACache: " + skipped + " files in " + oldDir.getAbsolutePath()
+                            + " can't be migrated to the new layout, keep them");
+                }
+                if (oldShardCount > 1) {
+                    // 只在已移空时删除
+                    oldDir.delete();
+                }
+            }
+        }
+        // 移入了缓存文件的分片，丢弃日志，预热时遍历目录重建索引
+        for (CacheManager target : changed) {
+            CacheManager.deleteJournalFiles(target.cacheDir);
+        }
+    }
+
+    /**
+     * 文件名是否为键对应的缓存文件或其临时文件
+     */
+    private static boolean isMigratableName(final String name, final String key) {
+        final String fileName = CacheManager.getFileName(key);
+        return name.equals(fileName) || name.equals(fileName + CacheManager.TEMP_FILE_SUFFIX);
+    }
+
+    /**
+     * 将块文件中未过期的缓存转存为当前分片中的缓存文件，然后删除块文件
+     */
+    private static void migrateSlab(final File slabDir,
+                                    final CacheManager[] shards,
+                                    final Set<File> placed,
+                                    final Set<CacheManager> changed) {
+        if (!slabDir.isDirectory()) {
+            return;
+        }
+        final SlabStore slabStore = new SlabStore(slabDir, new AtomicLong());
+        final long now = System.currentTimeMillis();
+        synchronized (slabStore) {
+            slabStore.load();
+            for (SlabEntry entry : slabStore.index.values()) {
+                if (entry.dueTime != -1 && entry.dueTime < now) {
+                    continue;
+                }
+                final CacheManager target = shards[indexOfShard(entry.key, shards.length)];
+                final String name = CacheManager.getFileName(entry.key);
+                final File tempFile = new File(target.cacheDir, name + MIGRATE_FILE_SUFFIX);
+                if (!CacheHelper.writeFileFromBytes(tempFile, slabStore.read(entry))) {
+                    tempFile.delete();
+                    continue;
+                }
+                if (target.placeMigrated(tempFile, name)) {
+                    placed.add(new File(target.cacheDir, name));
+                    changed.add(target);
+                } else {
+                    tempFile.delete();
+                }
+            }
+        }
+        FileUtils.deleteDir(slabDir);
+    }
+}
@@ -0,0 +1,1533 @@
+/*
+ * Copyright (C) 2018 xuexiangjys(xuexiangjys@163.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.xuexiang.xutil.data.cache;
+
+import com.xuexiang.xutil.file.CloseUtils;
+import com.xuexiang.xutil.file.FileUtils;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <pre>
+ *     desc   : 缓存分片的管理【目录、索引、日志及淘汰】
+ *     author : agent
+ *     time   : 2026/10/18 下午12:52
+ * </pre>
+ */
+final class CacheManager {
+    /**
+     * 缓存的后台维护线程（迁移、预热、淘汰、清理过期缓存、压缩日志等），所有缓存实例共享，按提交顺序执行
+     */
+    static final ScheduledExecutorService EXECUTOR
+            = Executors.newSingleThreadScheduledExecutor(new CacheThreadFactory("ACache-Maintenance"));
+    /**
+     * 替换全部缓存时交换目录的结果
+     */
+    private static final int SWAP_SUCCESS = -1;
+    private static final int SWAP_FAILED = -2;
+    /**
+     * 触发淘汰后，缓存尺寸需回落到上限的比例（低水位）
+     */
+    private static final float EVICT_LOW_WATER_RATIO = 0.9f;
+    /**
+     * 每批清理的过期缓存个数，避免长时间占用维护线程
+     */
+    private static final int SWEEP_BATCH_SIZE = 64;
+    /**
+     * 两次清理过期缓存的最小间隔，单位：毫秒
+     */
+    private static final long SWEEP_MIN_INTERVAL = 1000;
+    /**
+     * 按过期时间排序，过期时间相同时按文件名排序
+     */
+    private static final Comparator<CacheEntry> DEADLINE_ORDER = new Comparator<CacheEntry>() {
+        @Override
+        public int compare(CacheEntry lhs, CacheEntry rhs) {
+            if (lhs.dueTime != rhs.dueTime) {
+                return lhs.dueTime < rhs.dueTime ? -1 : 1;
+            }
+            return lhs.name.compareTo(rhs.name);
+        }
+    };
+    /**
+     * 日志文件，以追加的方式记录缓存的状态变化，用于快速预热及崩溃后恢复
+     */
+    private static final String JOURNAL_FILE = "journal";
+    private static final String JOURNAL_FILE_TEMP = "journal.tmp";
+    private static final String JOURNAL_FILE_BACKUP = "journal.bkp";
+    private static final String JOURNAL_MAGIC = "xutil.ACache.journal";
+    private static final String JOURNAL_VERSION = "1";
+    /**
+     * 开始写入，写入完成前缓存文件不可信
+     */
+    private static final String PUT = "PUT";
+    /**
+     * 写入完成：CLEAN 文件名 大小 过期时间
+     */
+    private static final String CLEAN = "CLEAN";
+    private static final String READ = "READ";
+    private static final String REMOVE = "REMOVE";
+    /**
+     * 日志中的冗余记录超过该值（且不少于有效条目数）时压缩日志
+     */
+    private static final int JOURNAL_COMPACT_THRESHOLD = 2000;
+    /**
+     * 写入中的缓存文件后缀，写入完成后再重命名为正式文件
+     */
+    static final String TEMP_FILE_SUFFIX = ".tmp";
+    private static final String REPLACE_DIR_SUFFIX = ".replace";
+    private static final String TRASH_DIR_SUFFIX = ".trash";
+    private static final Charset JOURNAL_CHARSET = Charset.forName("UTF-8");
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+    /**
+     * 缓存文件名的长度，即SHA-1值的16进制字符数
+     */
+    private static final int FILE_NAME_LENGTH = 40;
+
+    private final AtomicLong cacheSize;
+    private final AtomicInteger cacheCount;
+    private final long sizeLimit;
+    private final int countLimit;
+    /**
+     * LRU索引，表头即最久未使用的缓存，所有访问需持有该对象锁
+     * <p>按插入顺序排列，只在{@link #touch(File)}时移至表尾，查询不改变LRU顺序</p>
+     */
+    private final LinkedHashMap<String, CacheEntry> lruIndex = new LinkedHashMap<>();
+    /**
+     * 按过期时间排序的索引，只包含有过期时间的缓存，需持有lruIndex锁
+     */
+    private final TreeSet<CacheEntry> ttlIndex = new TreeSet<>(DEADLINE_ORDER);
+    /**
+     * 已计划的下一次清理过期缓存的时间，需持有lruIndex锁
+     */
+    private long sweepTime = Long.MAX_VALUE;
+    /**
+     * 正在写入中的缓存，需持有lruIndex锁
+     */
+    private final Set<String> editing = new HashSet<>();
+    /**
+     * 有未完成的流式写入{@link Editor}的缓存，是editing的子集，需持有lruIndex锁
+     */
+    private final Set<String> streaming = new HashSet<>();
+    /**
+     * 预热期间被移除的缓存，避免日志把它们重新加入索引，需持有lruIndex锁
+     */
+    private final Set<String> removedWhileLoading = new HashSet<>();
+    /**
+     * 预热前是否被清除过，清除后不再迁移其他布局中的缓存，需持有lruIndex锁
+     */
+    private boolean clearedWhileLoading;
+    /**
+     * 日志打开前产生的记录，需持有lruIndex锁
+     */
+    private final List<String> pendingJournal = new ArrayList<>();
+    /**
+     * 日志写入流，需持有lruIndex锁
+     */
+    private Writer journalWriter;
+    /**
+     * 自上次重建以来日志中的记录数，需持有lruIndex锁
+     */
+    private int journalOpCount;
+    /**
+     * 日志末尾是否存在损坏的记录，只在预热线程中访问
+     */
+    private boolean journalCorrupted;
+    /**
+     * 是否已提交了淘汰任务
+     */
+    private final AtomicBoolean evictScheduled = new AtomicBoolean(false);
+    /**
+     * 是否已提交了压缩日志的任务
+     */
+    private final AtomicBoolean compactScheduled = new AtomicBoolean(false);
+    private final CountDownLatch loadLatch = new CountDownLatch(1);
+    /**
+     * 访问时钟，缓存文件与块文件中的缓存按该值比较最后使用的先后
+     */
+    private final AtomicLong accessClock = new AtomicLong();
+    /**
+     * 小缓存的块文件存储，为空时不启用
+     */
+    private final SlabStore slabStore;
+    final StatsCounter stats;
+    final File cacheDir;
+    private final File journalFile;
+    private final File journalFileTmp;
+    private final File journalFileBackup;
+
+    /**
+     * @param cacheDir    分片目录
+     * @param sizeLimit   最大缓存尺寸，单位字节
+     * @param countLimit  最大缓存个数
+     * @param slabEnabled 是否启用块文件存储
+     * @param stats       统计数据，所有分片共享
+     */
+    CacheManager(final File cacheDir,
+                        final long sizeLimit,
+                        final int countLimit,
+                        final boolean slabEnabled,
+                        final StatsCounter stats) {
+        this.cacheDir = cacheDir;
+        this.stats = stats;
+        this.sizeLimit = sizeLimit;
+        this.countLimit = countLimit;
+        journalFile = new File(cacheDir, JOURNAL_FILE);
+        journalFileTmp = new File(cacheDir, JOURNAL_FILE_TEMP);
+        journalFileBackup = new File(cacheDir, JOURNAL_FILE_BACKUP);
+        cacheSize = new AtomicLong();
+        cacheCount = new AtomicInteger();
+        slabStore = slabEnabled ? new SlabStore(new File(cacheDir, SlabStore.SLAB_DIR), accessClock) : null;
+    }
+
+    /**
+     * @return 缓存的后台维护线程，提交的任务在已提交的迁移、预热之后执行
+     */
+    static ScheduledExecutorService getExecutor() {
+        return EXECUTOR;
+    }
+
+    /**
+     * 在维护线程中开始预热
+     */
+    void startLoad() {
+        EXECUTOR.execute(new Runnable() {
+            @Override
+            public void run() {
+                final long start = System.nanoTime();
+                try {
+                    load();
+                } finally {
+                    stats.loadTime.addAndGet(System.nanoTime() - start);
+                    synchronized (lruIndex) {
+                        removedWhileLoading.clear();
+                    }
+                    loadLatch.countDown();
+                }
+                synchronized (lruIndex) {
+                    scheduleSweep();
+                }
+                scheduleEvictIfNeeded();
+            }
+        });
+    }
+
+    /**
+     * 预热：优先回放日志，日志不可用时才遍历缓存目录
+     */
+    private void load() {
+        // 上次替换全部缓存时被中断遗留的目录
+        FileUtils.deleteDir(getReplaceDir());
+        FileUtils.deleteDir(getTrashDir());
+        if (slabStore != null) {
+            slabStore.load();
+        }
+        if (isJournalFile(journalFileBackup)) {
+            // 重建日志的过程中被中断
+            if (journalFile.exists()) {
+                journalFileBackup.delete();
+            } else {
+                journalFileBackup.renameTo(journalFile);
+            }
+        }
+        LinkedHashMap<String, CacheEntry> loaded = new LinkedHashMap<>(16, 0.75f, true);
+        Set<String> dirty = new HashSet<>();
+        int journalLines = readJournal(loaded, dirty);
+        boolean rebuild = journalLines < 0 || journalCorrupted;
+        if (journalLines < 0) {
+            scanCacheDir(loaded);
+        }
+        synchronized (lruIndex) {
+            mergeLoaded(loaded);
+            // 上次未写入完成的缓存，文件内容不可信
+            for (String name : dirty) {
+                if (lruIndex.containsKey(name) || editing.contains(name)) {
+                    continue;
+                }
+                new File(cacheDir, name).delete();
+                new File(cacheDir, name + TEMP_FILE_SUFFIX).delete();
+            }
+            if (rebuild || !openJournal(journalLines)) {
+                rebuildJournal();
+            }
+        }
+        scheduleCompactIfNeeded();
+    }
+
+    /**
+     * 顺序读取并回放日志
+     *
+     * @param loaded 回放得到的索引
+     * @param dirty  未写入完成的缓存
+     * @return 日志的记录数，日志不存在或格式不正确时返回-1
+     */
+    private int readJournal(final LinkedHashMap<String, CacheEntry> loaded, final Set<String> dirty) {
+        if (!journalFile.isFile()) {
+            return -1;
+        }
+        BufferedReader reader = null;
+        try {
+            reader = new BufferedReader(new InputStreamReader(new FileInputStream(journalFile), JOURNAL_CHARSET));
+            if (!JOURNAL_MAGIC.equals(reader.readLine())
+                    || !JOURNAL_VERSION.equals(reader.readLine())
+                    || !"".equals(reader.readLine())) {
+                return -1;
+            }
+            int lineCount = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!replayJournalLine(line, loaded, dirty)) {
+                    // 进程终止时最后一行可能未写完整，以已回放的内容为准重建日志
+                    journalCorrupted = true;
+                    break;
+                }
+                lineCount++;
+            }
+            return lineCount;
+        } catch (IOException e) {
+            e.printStackTrace();
+            return -1;
+        } finally {
+            CloseUtils.closeIO(reader);
+        }
+    }
+
+    private boolean replayJournalLine(final String line,
+                                      final LinkedHashMap<String, CacheEntry> loaded,
+                                      final Set<String> dirty) {
+        String[] parts = line.split(" ");
+        if (parts.length < 2) {
+            return false;
+        }
+        String op = parts[0];
+        String name = parts[1];
+        if (CLEAN.equals(op) && parts.length == 4) {
+            try {
+                loaded.remove(name);
+                loaded.put(name, new CacheEntry(name, Long.parseLong(parts[2]), Long.parseLong(parts[3])));
+                dirty.remove(name);
+                return true;
+            } catch (NumberFormatException e) {
+                return false;
+            }
+        } else if (PUT.equals(op) && parts.length == 2) {
+            loaded.remove(name);
+            dirty.add(name);
+            return true;
+        } else if (READ.equals(op) && parts.length == 2) {
+            loaded.get(name);
+            return true;
+        } else if (REMOVE.equals(op) && parts.length == 2) {
+            // 移除不等待写入完成，写入中的缓存仍视为未写入完成
+            loaded.remove(name);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 没有可用的日志时，遍历缓存目录建立索引
+     */
+    private void scanCacheDir(final LinkedHashMap<String, CacheEntry> loaded) {
+        final File[] cachedFiles = cacheDir.listFiles();
+        if (cachedFiles == null) {
+            return;
+        }
+        List<CacheEntry> entries = new ArrayList<>(cachedFiles.length);
+        final Map<String, Long> lastModified = new HashMap<>(cachedFiles.length);
+        for (File cachedFile : cachedFiles) {
+            String name = cachedFile.getName();
+            if (cachedFile.isDirectory()) {
+                continue;
+            }
+            if (!isCacheFileName(name)) {
+                if (name.endsWith(TEMP_FILE_SUFFIX) && isHashFileName(name)) {
+                    deleteTempFileIfIdle(cachedFile);
+                }
+                continue;
+            }
+            entries.add(new CacheEntry(name, cachedFile.length(), -1));
+            lastModified.put(name, cachedFile.lastModified());
+        }
+        // 按最后使用时间排序，使LRU索引的初始顺序与上次运行时一致
+        Collections.sort(entries, new Comparator<CacheEntry>() {
+            @Override
+            public int compare(CacheEntry o1, CacheEntry o2) {
+                long t1 = lastModified.get(o1.name);
+                long t2 = lastModified.get(o2.name);
+                return t1 < t2 ? -1 : (t1 == t2 ? 0 : 1);
+            }
+        });
+        for (CacheEntry entry : entries) {
+            loaded.put(entry.name, entry);
+        }
+    }
+
+    /**
+     * 删除残留的临时文件，正在写入中的除外
+     */
+    private void deleteTempFileIfIdle(final File tempFile) {
+        final String tempName = tempFile.getName();
+        final String name = tempName.substring(0, tempName.length() - TEMP_FILE_SUFFIX.length());
+        synchronized (lruIndex) {
+            if (!editing.contains(name)) {
+                tempFile.delete();
+            }
+        }
+    }
+
+    /**
+     * 是否为缓存文件：以SHA-1值或旧版本的hashCode命名，缓存目录中的其他文件不属于缓存
+     */
+    private static boolean isCacheFileName(final String name) {
+        return name.length() == FILE_NAME_LENGTH ? isHashFileName(name) : isLegacyFileName(name);
+    }
+
+    private static boolean isLegacyFileName(final String name) {
+        try {
+            Integer.parseInt(name);
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 是否以缓存文件名（SHA-1值）开头，用于识别缓存写入或迁移时的临时文件
+     */
+    private static boolean isHashFileName(final String name) {
+        if (name.length() < FILE_NAME_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < FILE_NAME_LENGTH; i++) {
+            char c = name.charAt(i);
+            if ((c < '0' || c > '9') && (c < 'a' || c > 'f')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static boolean isJournalFileName(final String name) {
+        return JOURNAL_FILE.equals(name) || JOURNAL_FILE_TEMP.equals(name) || JOURNAL_FILE_BACKUP.equals(name);
+    }
+
+    /**
+     * 删除目录中的日志文件，只删除以日志标识开头的文件
+     */
+    static void deleteJournalFiles(final File dir) {
+        deleteJournalFile(new File(dir, JOURNAL_FILE));
+        deleteJournalFile(new File(dir, JOURNAL_FILE_TEMP));
+        deleteJournalFile(new File(dir, JOURNAL_FILE_BACKUP));
+    }
+
+    /**
+     * 删除日志文件
+     *
+     * @param file 日志文件
+     * @return 是否为日志文件并已删除
+     */
+    static boolean deleteJournalFile(final File file) {
+        return isJournalFile(file) && file.delete();
+    }
+
+    /**
+     * 是否为以日志标识开头的日志文件
+     */
+    private static boolean isJournalFile(final File file) {
+        if (!file.isFile()) {
+            return false;
+        }
+        BufferedReader reader = null;
+        try {
+            reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), JOURNAL_CHARSET));
+            return JOURNAL_MAGIC.equals(reader.readLine());
+        } catch (IOException e) {
+            return false;
+        } finally {
+            CloseUtils.closeIO(reader);
+        }
+    }
+
+    /**
+     * 放入从其他布局迁移来的缓存文件，预热前已被写入、正在写入或已被移除的缓存以运行时为准
+     *
+     * @param source 迁移的缓存文件
+     * @param name   缓存文件名
+     * @return 是否放入，未放入时由调用方删除源文件
+     */
+    boolean placeMigrated(final File source, final String name) {
+        synchronized (lruIndex) {
+            if (clearedWhileLoading || lruIndex.containsKey(name) || editing.contains(name)
+                    || removedWhileLoading.contains(name)) {
+                return false;
+            }
+            return source.renameTo(new File(cacheDir, name));
+        }
+    }
+
+    /**
+     * 合并预热结果，预热期间的写入和移除以运行时为准，且排在LRU的末尾，需持有lruIndex锁
+     */
+    private void mergeLoaded(final LinkedHashMap<String, CacheEntry> loaded) {
+        List<CacheEntry> runtime = new ArrayList<>(lruIndex.values());
+        Set<String> runtimeNames = new HashSet<>(lruIndex.keySet());
+        clearIndex();
+        for (CacheEntry entry : loaded.values()) {
+            if (!runtimeNames.contains(entry.name) && !removedWhileLoading.contains(entry.name)) {
+                addEntry(entry);
+            }
+        }
+        for (CacheEntry entry : runtime) {
+            addEntry(entry);
+        }
+    }
+
+    /**
+     * 以追加方式打开日志，并写入日志打开前产生的记录，需持有lruIndex锁
+     *
+     * @param journalLines 日志中已有的记录数
+     * @return 是否打开成功，日志需要重建时返回{@code false}
+     */
+    private boolean openJournal(final int journalLines) {
+        try {
+            journalWriter = new BufferedWriter(new OutputStreamWriter(
+                    new FileOutputStream(journalFile, true), JOURNAL_CHARSET));
+            journalOpCount = journalLines;
+            List<String> lines = new ArrayList<>(pendingJournal);
+            pendingJournal.clear();
+            for (String line : lines) {
+                appendJournal(line, false);
+            }
+            journalWriter.flush();
+            return true;
+        } catch (IOException e) {
+            e.printStackTrace();
+            CloseUtils.closeIO(journalWriter);
+            journalWriter = null;
+            return false;
+        }
+    }
+
+    /**
+     * 根据当前索引重写日志，先写入临时文件再替换，需持有lruIndex锁
+     */
+    private void rebuildJournal() {
+        CloseUtils.closeIO(journalWriter);
+        journalWriter = null;
+        Writer writer = null;
+        boolean success = false;
+        try {
+            writer = new BufferedWriter(new OutputStreamWriter(
+                    new FileOutputStream(journalFileTmp), JOURNAL_CHARSET));
+            writer.write(JOURNAL_MAGIC + "\n" + JOURNAL_VERSION + "\n\n");
+            for (CacheEntry entry : lruIndex.values()) {
+                writer.write(cleanLine(entry));
+                writer.write('\n');
+            }
+            for (String name : editing) {
+                writer.write(PUT + ' ' + name + '\n');
+            }
+            writer.flush();
+            success = true;
+        } catch (IOException e) {
+            e.printStackTrace();
+        } finally {
+            CloseUtils.closeIO(writer);
+        }
+        if (!success) {
+            journalFileTmp.delete();
+            return;
+        }
+        if (journalFile.exists() && !journalFile.renameTo(journalFileBackup)) {
+            journalFileTmp.delete();
+            return;
+        }
+        if (!journalFileTmp.renameTo(journalFile)) {
+            journalFileBackup.renameTo(journalFile);
+            return;
+        }
+        journalFileBackup.delete();
+        pendingJournal.clear();
+        try {
+            journalWriter = new BufferedWriter(new OutputStreamWriter(
+                    new FileOutputStream(journalFile, true), JOURNAL_CHARSET));
+            journalOpCount = lruIndex.size() + editing.size();
+        } catch (IOException e) {
+            e.printStackTrace();
+            journalWriter = null;
+        }
+    }
+
+    private static String cleanLine(final CacheEntry entry) {
+        return CLEAN + ' ' + entry.name + ' ' + entry.length + ' ' + entry.dueTime;
+    }
+
+    /**
+     * 追加一条日志记录，需持有lruIndex锁
+     *
+     * @param line  记录
+     * @param flush 是否立即写入，访问记录丢失只影响LRU顺序，可不立即写入
+     */
+    private void appendJournal(final String line, final boolean flush) {
+        journalOpCount++;
+        if (journalWriter == null) {
+            if (!isLoaded()) {
+                pendingJournal.add(line);
+            }
+            return;
+        }
+        try {
+            journalWriter.write(line);
+            journalWriter.write('\n');
+            if (flush) {
+                journalWriter.flush();
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+            // 写入失败时丢弃当前日志，稍后根据索引重建
+            CloseUtils.closeIO(journalWriter);
+            journalWriter = null;
+            journalOpCount = Integer.MAX_VALUE / 2;
+        }
+    }
+
+    /**
+     * 冗余记录过多时在后台线程中压缩日志
+     */
+    private void scheduleCompactIfNeeded() {
+        synchronized (lruIndex) {
+            if (!isLoaded() || !needCompact()) {
+                return;
+            }
+        }
+        if (!compactScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        EXECUTOR.execute(new Runnable() {
+            @Override
+            public void run() {
+                compactScheduled.set(false);
+                synchronized (lruIndex) {
+                    if (needCompact()) {
+                        rebuildJournal();
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * 需持有lruIndex锁
+     */
+    private boolean needCompact() {
+        int redundantOpCount = journalOpCount - lruIndex.size();
+        return journalWriter == null
+                || (redundantOpCount >= JOURNAL_COMPACT_THRESHOLD && redundantOpCount >= lruIndex.size());
+    }
+
+    /**
+     * 获取缓存大小，预热未完成时返回当前已统计的大小
+     */
+    long getCacheSize() {
+        return slabStore != null ? cacheSize.get() + slabStore.liveBytes.get() : cacheSize.get();
+    }
+
+    /**
+     * 获取缓存个数，预热未完成时返回当前已统计的个数
+     */
+    int getCacheCount() {
+        return slabStore != null ? cacheCount.get() + slabStore.liveCount.get() : cacheCount.get();
+    }
+
+    boolean isLoaded() {
+        return loadLatch.getCount() == 0;
+    }
+
+    /**
+     * 等待预热完成
+     */
+    void awaitLoaded() throws InterruptedException {
+        loadLatch.await();
+    }
+
+    /**
+     * 等待所有写入完成，有未完成的流式写入时不等待，调用时不能持有其他分片的锁
+     *
+     * @return 是否已没有写入，有未完成的流式写入或等待被中断时返回{@code false}
+     */
+    private boolean awaitEdits() {
+        synchronized (lruIndex) {
+            while (!editing.isEmpty() && streaming.isEmpty()) {
+                try {
+                    lruIndex.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+            return editing.isEmpty();
+        }
+    }
+
+    /**
+     * 交换所有分片的目录，有写入未完成时不在持有锁时等待，释放全部锁后等待该分片的写入完成再重试
+     *
+     * @param shards       所有分片
+     * @param shardEntries 各分片替换用的目录中的缓存
+     * @return 是否交换成功，失败时丢弃替换用的目录
+     */
+    static boolean swapAll(final CacheManager[] shards, final List<List<CacheEntry>> shardEntries) {
+        while (true) {
+            int result = swapShards(shards, 0, shardEntries);
+            if (result == SWAP_SUCCESS) {
+                return true;
+            }
+            if (result == SWAP_FAILED || !shards[result].awaitEdits()) {
+                for (CacheManager shard : shards) {
+                    shard.discardReplaceDir();
+                }
+                return false;
+            }
+        }
+    }
+
+    /**
+     * 依次持有所有分片的锁后再交换目录，保证替换对所有分片同时可见
+     *
+     * @return {@link #SWAP_SUCCESS}、{@link #SWAP_FAILED}，有写入未完成时返回该分片的序号
+     */
+    private static int swapShards(final CacheManager[] shards, final int index, final List<List<CacheEntry>> shardEntries) {
+        if (index == shards.length) {
+            boolean success = true;
+            for (int i = 0; i < shards.length && success; i++) {
+                success = shards[i].swapReplaceDir(shardEntries.get(i));
+            }
+            return success ? SWAP_SUCCESS : SWAP_FAILED;
+        }
+        final CacheManager shard = shards[index];
+        synchronized (shard.lruIndex) {
+            if (!shard.streaming.isEmpty()) {
+                // 流式写入由调用方控制完成的时机，可能永远不会完成，直接失败
+                return SWAP_FAILED;
+            }
+            if (!shard.editing.isEmpty()) {
+                return index;
+            }
+            return swapShards(shards, index + 1, shardEntries);
+        }
+    }
+
+    /**
+     * 替换全部缓存时，新的缓存先写入该目录
+     */
+    private File getReplaceDir() {
+        return getReplaceDir(cacheDir);
+    }
+
+    static File getReplaceDir(final File cacheDir) {
+        File dir = cacheDir.getAbsoluteFile();
+        return new File(dir.getParentFile(), dir.getName() + REPLACE_DIR_SUFFIX);
+    }
+
+    /**
+     * 替换全部缓存时，原有的缓存目录先重命名为该目录再删除
+     */
+    private File getTrashDir() {
+        return getTrashDir(cacheDir);
+    }
+
+    static File getTrashDir(final File cacheDir) {
+        File dir = cacheDir.getAbsoluteFile();
+        return new File(dir.getParentFile(), dir.getName() + TRASH_DIR_SUFFIX);
+    }
+
+    boolean prepareReplaceDir() {
+        File replaceDir = getReplaceDir();
+        FileUtils.deleteDir(replaceDir);
+        return replaceDir.mkdirs();
+    }
+
+    void discardReplaceDir() {
+        FileUtils.deleteDir(getReplaceDir());
+    }
+
+    /**
+     * 写入替换用的缓存文件
+     *
+     * @param content 缓存文件内容
+     * @param key     键
+     * @param dueTime 过期时间，没有为-1
+     * @return 写入的缓存，失败返回{@code null}
+     */
+    CacheEntry writeReplaceEntry(final byte[] content, final String key, final long dueTime) {
+        File file = new File(getReplaceDir(), getFileName(key));
+        if (!CacheHelper.writeFileFromBytes(file, content)) {
+            return null;
+        }
+        return new CacheEntry(file.getName(), file.length(), dueTime);
+    }
+
+    /**
+     * 交换缓存目录与替换用的目录，并以新的缓存重建索引和日志，需持有lruIndex锁且没有未完成的写入
+     *
+     * @param entries 替换用的目录中的缓存
+     * @return 是否交换成功，失败时原有的缓存保持不变
+     */
+    private boolean swapReplaceDir(final List<CacheEntry> entries) {
+        final File replaceDir = getReplaceDir();
+        final File trashDir = getTrashDir();
+        List<SlabEntry> replacedSlab = Collections.emptyList();
+        synchronized (lruIndex) {
+            CloseUtils.closeIO(journalWriter);
+            journalWriter = null;
+            FileUtils.deleteDir(trashDir);
+            if (!cacheDir.renameTo(trashDir)) {
+                rebuildJournal();
+                FileUtils.deleteDir(replaceDir);
+                return false;
+            }
+            if (!replaceDir.renameTo(cacheDir)) {
+                trashDir.renameTo(cacheDir);
+                rebuildJournal();
+                FileUtils.deleteDir(replaceDir);
+                return false;
+            }
+            // 不分片时布局文件也在缓存目录中
+            new File(trashDir, CacheLayout.LAYOUT_FILE).renameTo(new File(cacheDir, CacheLayout.LAYOUT_FILE));
+            clearIndex();
+            for (CacheEntry entry : entries) {
+                addEntry(entry);
+            }
+            rebuildJournal();
+            if (slabStore != null) {
+                // 原有的块文件已随缓存目录移走
+                replacedSlab = slabStore.clear();
+            }
+        }
+        for (SlabEntry entry : replacedSlab) {
+            stats.recordRemoval(entry.key, entry.size(), RemovalCause.REPLACED);
+        }
+        EXECUTOR.execute(new Runnable() {
+            @Override
+            public void run() {
+                File[] files = trashDir.listFiles();
+                if (files != null) {
+                    for (File file : files) {
+                        if (file.isFile() && isCacheFileName(file.getName())) {
+                            stats.recordRemoval(stats.resolveKey(file), file.length(), RemovalCause.REPLACED);
+                        }
+                    }
+                }
+                FileUtils.deleteDir(trashDir);
+            }
+        });
+        scheduleEvictIfNeeded();
+        return true;
+    }
+
+    /**
+     * 缓存文件名，取键的SHA-1值，避免不同的键冲突
+     */
+    static String getFileName(final String key) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-1");
+            byte[] digest = md.digest(key.getBytes(CacheHelper.UTF_8));
+            char[] name = new char[digest.length << 1];
+            for (int i = 0, j = 0; i < digest.length; i++) {
+                name[j++] = HEX_DIGITS[digest[i] >>> 4 & 0x0f];
+                name[j++] = HEX_DIGITS[digest[i] & 0x0f];
+            }
+            return new String(name);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 旧版本的缓存文件名，不同的键可能冲突，仅用于迁移
+     */
+    private static String getLegacyFileName(final String key) {
+        return String.valueOf(key.hashCode());
+    }
+
+    /**
+     * 开始写入缓存，同一个缓存同时只允许一个写入
+     * <p>流式写入由调用方控制完成的时机，不等待，直接失败；其他写入很快完成，等待其完成</p>
+     *
+     * @param key    键
+     * @param stream 是否为流式写入
+     * @return 写入用的临时文件，写入前需调用{@link #beginWrite(File)}，写入后需调用{@link #commitEdit(String, File, boolean, long)}，
+     * 改为写入块文件时调用{@link #commitSlabEdit(String, File, byte[], long)}，未写入时调用{@link #abortEdit(File)}；
+     * 同一个缓存有未完成的流式写入或等待被中断时返回{@code null}
+     */
+    File beginEdit(final String key, final boolean stream) {
+        final String name = getFileName(key);
+        synchronized (lruIndex) {
+            while (editing.contains(name)) {
+                if (streaming.contains(name)) {
+                    return null;
+                }
+                try {
+                    lruIndex.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return null;
+                }
+            }
+            editing.add(name);
+            if (stream) {
+                streaming.add(name);
+            }
+        }
+        return new File(cacheDir, name + TEMP_FILE_SUFFIX);
+    }
+
+    /**
+     * 创建流式写入的写入器
+     *
+     * @param key      键
+     * @param dueTime  过期时间，没有为-1
+     * @param tempFile {@link #beginEdit(String, boolean)}以流式写入开始后返回的临时文件
+     * @param listener 写入完成的监听
+     * @return {@link Editor}
+     */
+    Editor newEditor(final String key,
+                            final long dueTime,
+                            final File tempFile,
+                            final Editor.OnCompleteListener listener) {
+        return new Editor(this, key, dueTime, tempFile, listener);
+    }
+
+    /**
+     * 结束写入，需持有lruIndex锁
+     */
+    private void endEdit(final String name) {
+        editing.remove(name);
+        streaming.remove(name);
+        lruIndex.notifyAll();
+    }
+
+    /**
+     * 开始写入临时文件，先记录日志，写入完成前进程终止时预热会删除未完成的文件
+     *
+     * @param tempFile 写入用的临时文件
+     */
+    void beginWrite(final File tempFile) {
+        final String tempName = tempFile.getName();
+        final String name = tempName.substring(0, tempName.length() - TEMP_FILE_SUFFIX.length());
+        synchronized (lruIndex) {
+            appendJournal(PUT + ' ' + name, true);
+        }
+    }
+
+    /**
+     * 是否写入块文件
+     *
+     * @param length 缓存文件内容的长度
+     */
+    boolean isSlabEntry(final int length) {
+        return slabStore != null && length <= SlabStore.MAX_ENTRY_SIZE;
+    }
+
+    /**
+     * 完成写入，内容写入块文件，并移除已有的缓存文件
+     *
+     * @param tempFile {@link #beginEdit(String, boolean)}返回的临时文件，不会被写入
+     * @param content  缓存文件内容（文件头 + 数据）
+     * @param dueTime  过期时间，没有为-1
+     * @return 是否写入成功，失败时已有的缓存保持不变
+     */
+    boolean commitSlabEdit(final String key, final File tempFile, final byte[] content, final long dueTime) {
+        SlabEntry replacedSlab;
+        try {
+            replacedSlab = slabStore.put(key, content, dueTime);
+        } catch (IOException e) {
+            e.printStackTrace();
+            abortEdit(tempFile);
+            return false;
+        }
+        stats.bytesWritten.addAndGet(content.length);
+        stats.writeCount.incrementAndGet();
+        final String tempName = tempFile.getName();
+        final String name = tempName.substring(0, tempName.length() - TEMP_FILE_SUFFIX.length());
+        CacheEntry replaced = null;
+        synchronized (lruIndex) {
+            try {
+                replaced = lruIndex.get(name);
+                // 预热未完成时索引不完整，需检查文件
+                if (replaced != null || !isLoaded()) {
+                    new File(cacheDir, name).delete();
+                    removeEntry(name);
+                    if (!isLoaded()) {
+                        removedWhileLoading.add(name);
+                    }
+                    appendJournal(REMOVE + ' ' + name, true);
+                }
+            } finally {
+                endEdit(name);
+            }
+            if (dueTime != -1 && isLoaded()) {
+                scheduleSweep();
+            }
+        }
+        if (replaced != null) {
+            stats.recordRemoval(key, replaced.length, RemovalCause.REPLACED);
+        }
+        if (replacedSlab != null) {
+            stats.recordRemoval(key, replacedSlab.size(), RemovalCause.REPLACED);
+        }
+        scheduleEvictIfNeeded();
+        scheduleCompactIfNeeded();
+        slabStore.scheduleCompactIfNeeded();
+        return true;
+    }
+
+    /**
+     * 从块文件中读取缓存，预热未回放完块文件时视为未命中，不阻塞调用线程
+     *
+     * @return 缓存文件内容（文件头 + 数据），未启用、不存在或未回放完成返回{@code null}
+     */
+    byte[] getFromSlab(final String key) {
+        return slabStore != null ? slabStore.get(key) : null;
+    }
+
+    /**
+     * 移除块文件中的缓存
+     *
+     * @param key   键
+     * @param cause 移除原因，为空时不通知{@link OnRemovalListener}
+     * @return 被移除的缓存，不存在返回{@code null}
+     */
+    SlabEntry removeFromSlab(final String key, final RemovalCause cause) {
+        if (slabStore == null) {
+            return null;
+        }
+        SlabEntry removed = slabStore.remove(key);
+        if (removed == null) {
+            return null;
+        }
+        if (cause != null) {
+            stats.recordRemoval(key, removed.size(), cause);
+        }
+        slabStore.scheduleCompactIfNeeded();
+        return removed;
+    }
+
+    /**
+     * 放弃尚未调用{@link #beginWrite(File)}的写入，缓存文件和日志都未改变，无需记录日志
+     *
+     * @param tempFile {@link #beginEdit(String, boolean)}返回的临时文件
+     */
+    void abortEdit(final File tempFile) {
+        final String tempName = tempFile.getName();
+        final String name = tempName.substring(0, tempName.length() - TEMP_FILE_SUFFIX.length());
+        synchronized (lruIndex) {
+            endEdit(name);
+        }
+    }
+
+    /**
+     * 完成写入，写入成功时将临时文件重命名为缓存文件
+     *
+     * @param tempFile 写入用的临时文件
+     * @param success  是否写入成功
+     * @param dueTime  过期时间，没有为-1
+     */
+    void commitEdit(final String key, final File tempFile, final boolean success, final long dueTime) {
+        final String tempName = tempFile.getName();
+        final String name = tempName.substring(0, tempName.length() - TEMP_FILE_SUFFIX.length());
+        final File file = new File(cacheDir, name);
+        CacheEntry replaced = null;
+        synchronized (lruIndex) {
+            try {
+                final long length = tempFile.length();
+                if (success && tempFile.renameTo(file)) {
+                    replaced = lruIndex.get(name);
+                    stats.bytesWritten.addAndGet(length);
+                    stats.writeCount.incrementAndGet();
+                    removeEntry(name);
+                    removedWhileLoading.remove(name);
+                    CacheEntry entry = new CacheEntry(name, length, dueTime);
+                    addEntry(entry);
+                    appendJournal(cleanLine(entry), true);
+                } else {
+                    tempFile.delete();
+                    CacheEntry old = lruIndex.get(name);
+                    if (old != null && file.exists()) {
+                        appendJournal(cleanLine(old), true);
+                    } else {
+                        removeEntry(name);
+                        appendJournal(REMOVE + ' ' + name, true);
+                    }
+                }
+            } finally {
+                endEdit(name);
+            }
+        }
+        if (replaced != null) {
+            stats.recordRemoval(key, replaced.length, RemovalCause.REPLACED);
+        }
+        scheduleEvictIfNeeded();
+        scheduleCompactIfNeeded();
+    }
+
+    File getFileIfExists(final String key) {
+        return getCacheFileIfExists(getFileName(key));
+    }
+
+    File getLegacyFileIfExists(final String key) {
+        return getCacheFileIfExists(getLegacyFileName(key));
+    }
+
+    /**
+     * 获取缓存文件，文件大小与日志记录不一致（如被截断）时视为不存在并移除
+     *
+     * @param name 文件名
+     * @return 缓存文件，不存在返回{@code null}
+     */
+    private File getCacheFileIfExists(final String name) {
+        final File file = new File(cacheDir, name);
+        CacheEntry entry;
+        synchronized (lruIndex) {
+            entry = lruIndex.get(name);
+            if (entry == null) {
+                if (isLoaded()) {
+                    return null;
+                }
+                return file.exists() ? file : null;
+            }
+        }
+        if (file.length() == entry.length) {
+            return file;
+        }
+        synchronized (lruIndex) {
+            if (lruIndex.get(name) == entry) {
+                removeEntry(name);
+                file.delete();
+                appendJournal(REMOVE + ' ' + name, true);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 记录缓存被访问
+     */
+    void touch(final File file) {
+        synchronized (lruIndex) {
+            // 重新插入以移至表尾
+            CacheEntry entry = lruIndex.remove(file.getName());
+            if (entry != null) {
+                lruIndex.put(entry.name, entry);
+                entry.lastAccess = accessClock.incrementAndGet();
+                appendJournal(READ + ' ' + file.getName(), false);
+            }
+        }
+        scheduleCompactIfNeeded();
+    }
+
+    /**
+     * 移除缓存
+     *
+     * @param key   键
+     * @param cause 移除原因，为空时不通知{@link OnRemovalListener}
+     * @return 是否移除成功
+     */
+    boolean removeByKey(final String key, final RemovalCause cause) {
+        boolean removed = removeByName(getFileName(key), key, cause);
+        removeFromSlab(key, cause);
+        return removed & removeLegacy(key, cause);
+    }
+
+    /**
+     * 移除旧版本的缓存文件
+     */
+    boolean removeLegacy(final String key) {
+        return removeLegacy(key, null);
+    }
+
+    private boolean removeLegacy(final String key, final RemovalCause cause) {
+        final String name = getLegacyFileName(key);
+        synchronized (lruIndex) {
+            if (isLoaded() && !lruIndex.containsKey(name)) {
+                return true;
+            }
+        }
+        return removeByName(name, key, cause);
+    }
+
+    private boolean removeByName(final String name, final String key, final RemovalCause cause) {
+        final File file = new File(cacheDir, name);
+        long removedLength = -1;
+        synchronized (lruIndex) {
+            // 不等待正在进行的写入，其完成后写入的值视为移除之后的写入
+            CacheEntry entry = lruIndex.get(name);
+            if (entry != null) {
+                removedLength = entry.length;
+            } else if (file.exists()) {
+                removedLength = file.length();
+            }
+            if (file.exists() && !file.delete()) {
+                return false;
+            }
+            removeEntry(name);
+            if (!isLoaded()) {
+                removedWhileLoading.add(name);
+            }
+            appendJournal(REMOVE + ' ' + name, true);
+        }
+        if (cause != null && removedLength >= 0) {
+            stats.recordRemoval(key, removedLength, cause);
+        }
+        scheduleCompactIfNeeded();
+        return true;
+    }
+
+    boolean clear() {
+        if (slabStore != null) {
+            for (SlabEntry entry : slabStore.clear()) {
+                stats.recordRemoval(entry.key, entry.size(), RemovalCause.EXPLICIT);
+            }
+        }
+        synchronized (lruIndex) {
+            if (!isLoaded()) {
+                removedWhileLoading.addAll(lruIndex.keySet());
+                clearedWhileLoading = true;
+            }
+            clearIndex();
+            if (isLoaded()) {
+                rebuildJournal();
+            } else {
+                pendingJournal.clear();
+            }
+        }
+        File[] files = cacheDir.listFiles();
+        if (files == null || files.length <= 0) {
+            return true;
+        }
+        boolean flag = true;
+        for (File file : files) {
+            String name = file.getName();
+            if (file.isDirectory() || !isCacheFileName(name)) {
+                continue;
+            }
+            // 文件名为键的SHA-1值，重新写入不会改变文件中的键，在锁外读取
+            final String key = stats.resolveKey(file);
+            long length;
+            synchronized (lruIndex) {
+                // 清除期间被重新写入的缓存不再删除
+                if (lruIndex.containsKey(name)) {
+                    continue;
+                }
+                if (!isLoaded()) {
+                    removedWhileLoading.add(name);
+                }
+                length = file.length();
+                if (!file.delete()) {
+                    flag = false;
+                    continue;
+                }
+            }
+            stats.recordRemoval(key, length, RemovalCause.EXPLICIT);
+        }
+        return flag;
+    }
+
+    /**
+     * 加入索引，需持有lruIndex锁
+     */
+    private void addEntry(final CacheEntry entry) {
+        entry.lastAccess = accessClock.incrementAndGet();
+        lruIndex.put(entry.name, entry);
+        cacheSize.addAndGet(entry.length);
+        cacheCount.addAndGet(1);
+        if (entry.dueTime != -1) {
+            ttlIndex.add(entry);
+            if (isLoaded()) {
+                scheduleSweep();
+            }
+        }
+    }
+
+    /**
+     * 移出索引，需持有lruIndex锁
+     */
+    private void removeEntry(final String name) {
+        CacheEntry entry = lruIndex.remove(name);
+        if (entry != null) {
+            cacheSize.addAndGet(-entry.length);
+            cacheCount.addAndGet(-1);
+            if (entry.dueTime != -1) {
+                ttlIndex.remove(entry);
+            }
+        }
+    }
+
+    /**
+     * 清空索引，需持有lruIndex锁
+     */
+    private void clearIndex() {
+        lruIndex.clear();
+        ttlIndex.clear();
+        cacheSize.set(0);
+        cacheCount.set(0);
+    }
+
+    private boolean isOverLimit() {
+        return getCacheCount() > countLimit || getCacheSize() > sizeLimit;
+    }
+
+    /**
+     * 超出上限时在后台线程中批量淘汰，避免阻塞写入线程
+     */
+    private void scheduleEvictIfNeeded() {
+        if (!isOverLimit() || !evictScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        EXECUTOR.execute(new Runnable() {
+            @Override
+            public void run() {
+                evictScheduled.set(false);
+                evictToLowWater();
+            }
+        });
+    }
+
+    /**
+     * 按LRU顺序淘汰缓存，直至尺寸和个数都回落到低水位以下
+     * <p>启用块文件存储时，缓存文件与块文件中的缓存按最后访问的先后一起淘汰</p>
+     */
+    private void evictToLowWater() {
+        final long sizeLowWater = (long) (sizeLimit * EVICT_LOW_WATER_RATIO);
+        final int countLowWater = (int) (countLimit * EVICT_LOW_WATER_RATIO);
+        List<CacheEntry> expired = new ArrayList<>();
+        List<CacheEntry> victims = new ArrayList<>();
+        List<SlabEntry> slabExpired = new ArrayList<>();
+        List<SlabEntry> slabVictims = new ArrayList<>();
+        synchronized (lruIndex) {
+            if (!isOverLimit()) {
+                return;
+            }
+            // 已过期的缓存不占用LRU的额度，优先淘汰
+            final long now = System.currentTimeMillis();
+            while (!ttlIndex.isEmpty() && ttlIndex.first().dueTime < now
+                    && (getCacheCount() > countLowWater || getCacheSize() > sizeLowWater)) {
+                CacheEntry entry = ttlIndex.first();
+                removeEntry(entry.name);
+                expired.add(entry);
+                appendJournal(REMOVE + ' ' + entry.name, false);
+            }
+            // 未启用块文件存储时重复持有lruIndex锁即可
+            synchronized (slabStore != null ? slabStore : lruIndex) {
+                if (slabStore != null) {
+                    SlabEntry entry;
+                    while ((getCacheCount() > countLowWater || getCacheSize() > sizeLowWater)
+                            && (entry = slabStore.firstExpired(now)) != null) {
+                        slabStore.remove(entry.key);
+                        slabExpired.add(entry);
+                    }
+                }
+                Iterator<CacheEntry> iterator = lruIndex.values().iterator();
+                CacheEntry fileEldest = iterator.hasNext() ? iterator.next() : null;
+                while (getCacheCount() > countLowWater || getCacheSize() > sizeLowWater) {
+                    SlabEntry slabEldest = slabStore != null ? slabStore.eldest() : null;
+                    if (slabEldest != null && (fileEldest == null || slabEldest.lastAccess < fileEldest.lastAccess)) {
+                        slabStore.remove(slabEldest.key);
+                        slabVictims.add(slabEldest);
+                        continue;
+                    }
+                    if (fileEldest == null) {
+                        break;
+                    }
+                    iterator.remove();
+                    cacheSize.addAndGet(-fileEldest.length);
+                    cacheCount.addAndGet(-1);
+                    if (fileEldest.dueTime != -1) {
+                        ttlIndex.remove(fileEldest);
+                    }
+                    victims.add(fileEldest);
+                    appendJournal(REMOVE + ' ' + fileEldest.name, false);
+                    fileEldest = iterator.hasNext() ? iterator.next() : null;
+                }
+            }
+        }
+        deleteVictims(expired, RemovalCause.EXPIRED);
+        deleteVictims(victims, RemovalCause.EVICTED);
+        for (SlabEntry entry : slabExpired) {
+            stats.recordRemoval(entry.key, entry.size(), RemovalCause.EXPIRED);
+        }
+        for (SlabEntry entry : slabVictims) {
+            stats.recordRemoval(entry.key, entry.size(), RemovalCause.EVICTED);
+        }
+        if (slabStore != null) {
+            slabStore.scheduleCompactIfNeeded();
+        }
+    }
+
+    /**
+     * 缓存文件与块文件中的缓存最早的过期时间，需持有lruIndex锁
+     *
+     * @return 没有有过期时间的缓存时返回{@link Long#MAX_VALUE}
+     */
+    private long firstDueTime() {
+        long dueTime = ttlIndex.isEmpty() ? Long.MAX_VALUE : ttlIndex.first().dueTime;
+        return slabStore != null ? Math.min(dueTime, slabStore.firstDueTime()) : dueTime;
+    }
+
+    /**
+     * 在最早的过期时间到达后清理过期缓存，需持有lruIndex锁
+     */
+    private void scheduleSweep() {
+        final long dueTime = firstDueTime();
+        if (dueTime == Long.MAX_VALUE) {
+            return;
+        }
+        final long now = System.currentTimeMillis();
+        final long time = Math.max(dueTime + 1, now + SWEEP_MIN_INTERVAL);
+        // 已计划了更早的清理时无需重复提交
+        if (time >= sweepTime) {
+            return;
+        }
+        sweepTime = time;
+        EXECUTOR.schedule(new Runnable() {
+            @Override
+            public void run() {
+                sweepExpired();
+            }
+        }, time - now, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 分批清理已过期的缓存，未清理完时继续提交下一批
+     */
+    private void sweepExpired() {
+        List<CacheEntry> victims = new ArrayList<>();
+        List<SlabEntry> slabVictims = new ArrayList<>();
+        boolean hasMore;
+        synchronized (lruIndex) {
+            if (sweepTime > System.currentTimeMillis()) {
+                // 已被更早的清理任务处理过，等待其计划的清理
+                return;
+            }
+            sweepTime = Long.MAX_VALUE;
+            final long now = System.currentTimeMillis();
+            while (!ttlIndex.isEmpty() && ttlIndex.first().dueTime < now
+                    && victims.size() < SWEEP_BATCH_SIZE) {
+                CacheEntry entry = ttlIndex.first();
+                removeEntry(entry.name);
+                victims.add(entry);
+                appendJournal(REMOVE + ' ' + entry.name, false);
+            }
+            if (slabStore != null) {
+                synchronized (slabStore) {
+                    SlabEntry entry;
+                    while (victims.size() + slabVictims.size() < SWEEP_BATCH_SIZE
+                            && (entry = slabStore.firstExpired(now)) != null) {
+                        slabStore.remove(entry.key);
+                        slabVictims.add(entry);
+                    }
+                }
+            }
+            hasMore = firstDueTime() < now;
+            if (hasMore) {
+                sweepTime = now;
+            } else {
+                scheduleSweep();
+            }
+        }
+        deleteVictims(victims, RemovalCause.EXPIRED);
+        for (SlabEntry entry : slabVictims) {
+            stats.recordRemoval(entry.key, entry.size(), RemovalCause.EXPIRED);
+        }
+        if (!slabVictims.isEmpty()) {
+            slabStore.scheduleCompactIfNeeded();
+        }
+        if (hasMore) {
+            EXECUTOR.execute(new Runnable() {
+                @Override
+                public void run() {
+                    sweepExpired();
+                }
+            });
+        }
+    }
+
+    /**
+     * 删除已移出索引的缓存文件
+     *
+     * @param victims 已移出索引的缓存
+     * @param cause   移除原因
+     */
+    private void deleteVictims(final List<CacheEntry> victims, final RemovalCause cause) {
+        if (victims.isEmpty()) {
+            return;
+        }
+        for (CacheEntry victim : victims) {
+            File file = new File(cacheDir, victim.name);
+            // 文件名为键的SHA-1值，重新写入不会改变文件中的键，在锁外读取
+            final String key = stats.resolveKey(file);
+            synchronized (lruIndex) {
+                // 淘汰期间被重新写入的缓存不再删除
+                if (lruIndex.containsKey(victim.name)) {
+                    continue;
+                }
+                file.delete();
+            }
+            stats.recordRemoval(key, victim.length, cause);
+        }
+        synchronized (lruIndex) {
+            if (journalWriter != null) {
+                try {
+                    journalWriter.flush();
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+        scheduleCompactIfNeeded();
+    }
+}
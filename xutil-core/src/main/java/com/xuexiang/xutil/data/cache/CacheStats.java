@@ -0,0 +1,192 @@
+/*
+ * Copyright (C) 2018 xuexiangjys(xuexiangjys@163.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.xuexiang.xutil.data.cache;
+
+/**
+ * <pre>
+ *     desc   : 缓存的统计数据快照
+ *     author : agent
+ *     time   : 2026/10/18 下午12:52
+ * </pre>
+ */
+public final class CacheStats {
+    private final long memoryHitCount;
+    private final long memoryMissCount;
+    private final long diskHitCount;
+    private final long diskMissCount;
+    private final long expirationCount;
+    private final long evictionCount;
+    private final long bytesWritten;
+    private final long writeCount;
+    private final long writeTime;
+    private final long bytesRead;
+    private final long readCount;
+    private final long readTime;
+    private final long loadTime;
+    private final long cacheSize;
+    private final int cacheCount;
+
+    CacheStats(final StatsCounter counter, final long cacheSize, final int cacheCount) {
+        memoryHitCount = counter.memoryHitCount.get();
+        memoryMissCount = counter.memoryMissCount.get();
+        diskHitCount = counter.diskHitCount.get();
+        diskMissCount = counter.diskMissCount.get();
+        expirationCount = counter.expirationCount.get();
+        evictionCount = counter.evictionCount.get();
+        bytesWritten = counter.bytesWritten.get();
+        writeCount = counter.writeCount.get();
+        writeTime = counter.writeTime.get();
+        bytesRead = counter.bytesRead.get();
+        readCount = counter.readCount.get();
+        readTime = counter.readTime.get();
+        loadTime = counter.loadTime.get();
+        this.cacheSize = cacheSize;
+        this.cacheCount = cacheCount;
+    }
+
+    /**
+     * @return 内存缓存命中次数
+     */
+    public long getMemoryHitCount() {
+        return memoryHitCount;
+    }
+
+    /**
+     * @return 内存缓存未命中次数
+     */
+    public long getMemoryMissCount() {
+        return memoryMissCount;
+    }
+
+    /**
+     * @return 磁盘缓存命中次数
+     */
+    public long getDiskHitCount() {
+        return diskHitCount;
+    }
+
+    /**
+     * @return 磁盘缓存未命中次数
+     */
+    public long getDiskMissCount() {
+        return diskMissCount;
+    }
+
+    /**
+     * @return 命中率，内存或磁盘命中均算作命中，还未读取过时返回1
+     */
+    public double getHitRate() {
+        long hits = memoryHitCount + diskHitCount;
+        long requests = hits + diskMissCount;
+        return requests > 0 ? (double) hits / requests : 1;
+    }
+
+    /**
+     * @return 因过期被移除的缓存个数
+     */
+    public long getExpirationCount() {
+        return expirationCount;
+    }
+
+    /**
+     * @return 因超出上限被淘汰的缓存个数
+     */
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * @return 写入磁盘的字节数
+     */
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    /**
+     * @return 写入磁盘的次数
+     */
+    public long getWriteCount() {
+        return writeCount;
+    }
+
+    /**
+     * @return 写入缓存文件的总耗时，单位：纳秒
+     */
+    public long getWriteTime() {
+        return writeTime;
+    }
+
+    /**
+     * @return 从磁盘读取的字节数
+     */
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    /**
+     * @return 读取缓存文件的次数
+     */
+    public long getReadCount() {
+        return readCount;
+    }
+
+    /**
+     * @return 读取缓存文件的总耗时，单位：纳秒，不包括流式读取
+     */
+    public long getReadTime() {
+        return readTime;
+    }
+
+    /**
+     * @return 缓存预热的总耗时，单位：纳秒
+     */
+    public long getLoadTime() {
+        return loadTime;
+    }
+
+    /**
+     * @return 缓存大小，单位：字节
+     */
+    public long getCacheSize() {
+        return cacheSize;
+    }
+
+    /**
+     * @return 缓存个数
+     */
+    public int getCacheCount() {
+        return cacheCount;
+    }
+
+    /**
+     * @return 缓存文件的平均大小，单位：字节
+     */
+    public long getAverageEntrySize() {
+        return cacheCount > 0 ? cacheSize / cacheCount : 0;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheStats{hitRate=" + getHitRate()
+                + ", memoryHit=" + memoryHitCount + ", memoryMiss=" + memoryMissCount
+                + ", diskHit=" + diskHitCount + ", diskMiss=" + diskMissCount
+                + ", expiration=" + expirationCount + ", eviction=" + evictionCount
+                + ", bytesWritten=" + bytesWritten + ", writeCount=" + writeCount + ", writeTime=" + writeTime
+                + ", bytesRead=" + bytesRead + ", readCount=" + readCount + ", readTime=" + readTime
+                + ", loadTime=" + loadTime + ", cacheSize=" + cacheSize + ", cacheCount=" + cacheCount + '}';
+    }
+}
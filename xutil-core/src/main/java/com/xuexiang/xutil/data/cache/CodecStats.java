@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2018 xuexiangjys(xuexiangjys@163.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.xuexiang.xutil.data.cache;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <pre>
+ *     desc   : 编码器的耗时统计
+ *     author : agent
+ *     time   : 2026/10/18 下午12:52
+ * </pre>
+ */
+public final class CodecStats {
+    private final AtomicLong encodeCount = new AtomicLong();
+    private final AtomicLong encodeTime = new AtomicLong();
+    private final AtomicLong decodeCount = new AtomicLong();
+    private final AtomicLong decodeTime = new AtomicLong();
+    private final AtomicLong encodeFailureCount = new AtomicLong();
+    private final AtomicLong decodeFailureCount = new AtomicLong();
+
+    void recordEncode(final long nanos, final boolean success) {
+        encodeCount.incrementAndGet();
+        encodeTime.addAndGet(nanos);
+        if (!success) {
+            encodeFailureCount.incrementAndGet();
+        }
+    }
+
+    void recordDecode(final long nanos, final boolean success) {
+        decodeCount.incrementAndGet();
+        decodeTime.addAndGet(nanos);
+        if (!success) {
+            decodeFailureCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * @return 编码次数
+     */
+    public long getEncodeCount() {
+        return encodeCount.get();
+    }
+
+    /**
+     * @return 编码总耗时，单位：纳秒
+     */
+    public long getEncodeTime() {
+        return encodeTime.get();
+    }
+
+    /**
+     * @return 解码次数
+     */
+    public long getDecodeCount() {
+        return decodeCount.get();
+    }
+
+    /**
+     * @return 解码总耗时，单位：纳秒
+     */
+    public long getDecodeTime() {
+        return decodeTime.get();
+    }
+
+    /**
+     * @return 编码失败（编码器抛出异常或返回空）的次数
+     */
+    public long getEncodeFailureCount() {
+        return encodeFailureCount.get();
+    }
+
+    /**
+     * @return 解码失败（编码器抛出异常或返回空）的次数
+     */
+    public long getDecodeFailureCount() {
+        return decodeFailureCount.get();
+    }
+
+    @Override
+    public String toString() {
+        long encodes = getEncodeCount();
+        long decodes = getDecodeCount();
+        return "CodecStats{encode=" + encodes + ", avgEncodeNanos=" + (encodes > 0 ? getEncodeTime() / encodes : 0)
+                + ", encodeFailure=" + getEncodeFailureCount()
+                + ", decode=" + decodes + ", avgDecodeNanos=" + (decodes > 0 ? getDecodeTime() / decodes : 0)
+                + ", decodeFailure=" + getDecodeFailureCount() + '}';
+    }
+}
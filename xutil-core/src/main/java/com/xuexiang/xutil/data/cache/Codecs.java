@@ -0,0 +1,226 @@
+/*
+ * Copyright (C) 2018 xuexiangjys(xuexiangjys@163.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.xuexiang.xutil.data.cache;
+
+import android.graphics.Bitmap;
+
+import androidx.annotation.NonNull;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+
+import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+
+/**
+ * <pre>
+ *     desc   : 内置的编码器
+ *     author : agent
+ *     time   : 2026/10/18 下午12:52
+ * </pre>
+ */
+public final class Codecs {
+
+    private static final Gson GSON = new Gson();
+
+    /**
+     * Don't let anyone instantiate this class.
+     */
+    private Codecs() {
+        throw new UnsupportedOperationException("u can't instantiate me...");
+    }
+
+    public static final ValueCodec<Integer> INTEGER = new ValueCodec<Integer>() {
+        @Override
+        public byte[] encode(@NonNull Integer value) {
+            return ByteBuffer.allocate(4).putInt(value).array();
+        }
+
+        @Override
+        public Integer decode(@NonNull byte[] data) {
+            return data.length == 4 ? ByteBuffer.wrap(data).getInt() : null;
+        }
+    };
+
+    public static final ValueCodec<Long> LONG = new ValueCodec<Long>() {
+        @Override
+        public byte[] encode(@NonNull Long value) {
+            return ByteBuffer.allocate(8).putLong(value).array();
+        }
+
+        @Override
+        public Long decode(@NonNull byte[] data) {
+            return data.length == 8 ? ByteBuffer.wrap(data).getLong() : null;
+        }
+    };
+
+    public static final ValueCodec<Float> FLOAT = new ValueCodec<Float>() {
+        @Override
+        public byte[] encode(@NonNull Float value) {
+            return ByteBuffer.allocate(4).putFloat(value).array();
+        }
+
+        @Override
+        public Float decode(@NonNull byte[] data) {
+            return data.length == 4 ? ByteBuffer.wrap(data).getFloat() : null;
+        }
+    };
+
+    public static final ValueCodec<Double> DOUBLE = new ValueCodec<Double>() {
+        @Override
+        public byte[] encode(@NonNull Double value) {
+            return ByteBuffer.allocate(8).putDouble(value).array();
+        }
+
+        @Override
+        public Double decode(@NonNull byte[] data) {
+            return data.length == 8 ? ByteBuffer.wrap(data).getDouble() : null;
+        }
+    };
+
+    public static final ValueCodec<Boolean> BOOLEAN = new ValueCodec<Boolean>() {
+        @Override
+        public byte[] encode(@NonNull Boolean value) {
+            return new byte[]{(byte) (value ? 1 : 0)};
+        }
+
+        @Override
+        public Boolean decode(@NonNull byte[] data) {
+            return data.length == 1 ? data[0] != 0 : null;
+        }
+    };
+
+    /**
+     * 带长度前缀的UTF-8字符串
+     */
+    public static final ValueCodec<String> STRING = new ValueCodec<String>() {
+        @Override
+        public byte[] encode(@NonNull String value) {
+            byte[] bytes = value.getBytes(CacheHelper.UTF_8);
+            return ByteBuffer.allocate(4 + bytes.length).putInt(bytes.length).put(bytes).array();
+        }
+
+        @Override
+        public String decode(@NonNull byte[] data) {
+            if (data.length < 4) {
+                return null;
+            }
+            int length = ByteBuffer.wrap(data).getInt();
+            if (length < 0 || length != data.length - 4) {
+                return null;
+            }
+            return new String(data, 4, length, CacheHelper.UTF_8);
+        }
+    };
+
+    /**
+     * Bitmap的原始像素，读取时无需解码图片
+     * <p>数据格式：宽(int) + 高(int) + 是否有透明度(byte) + 像素格式名长度(byte) + 像素格式名 + 像素</p>
+     * <p>占用空间比PNG大，适合需要频繁读取的小图</p>
+     */
+    public static final ValueCodec<Bitmap> BITMAP = new ValueCodec<Bitmap>() {
+        @Override
+        public byte[] encode(@NonNull Bitmap value) {
+            Bitmap.Config config = value.getConfig();
+            if (config == null || value.isRecycled()) {
+                return null;
+            }
+            byte[] configName = config.name().getBytes(CacheHelper.UTF_8);
+            ByteBuffer buffer = ByteBuffer.allocate(10 + configName.length + value.getByteCount());
+            buffer.putInt(value.getWidth())
+                    .putInt(value.getHeight())
+                    .put((byte) (value.hasAlpha() ? 1 : 0))
+                    .put((byte) configName.length)
+                    .put(configName);
+            value.copyPixelsToBuffer(buffer);
+            return buffer.array();
+        }
+
+        @Override
+        public Bitmap decode(@NonNull byte[] data) {
+            if (data.length < 10) {
+                return null;
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(data);
+            int width = buffer.getInt();
+            int height = buffer.getInt();
+            boolean hasAlpha = buffer.get() != 0;
+            int nameLength = buffer.get() & 0xFF;
+            if (width <= 0 || height <= 0 || nameLength > buffer.remaining()) {
+                return null;
+            }
+            Bitmap.Config config;
+            try {
+                config = Bitmap.Config.valueOf(new String(data, buffer.position(), nameLength, CacheHelper.UTF_8));
+            } catch (IllegalArgumentException e) {
+                e.printStackTrace();
+                return null;
+            }
+            buffer.position(buffer.position() + nameLength);
+            Bitmap bitmap = Bitmap.createBitmap(width, height, config);
+            if (bitmap.getByteCount() != buffer.remaining()) {
+                return null;
+            }
+            bitmap.copyPixelsFromBuffer(buffer);
+            bitmap.setHasAlpha(hasAlpha);
+            return bitmap;
+        }
+    };
+
+    /**
+     * 使用Gson编码的对象
+     *
+     * @param clazz 对象类型
+     * @return 编码器
+     */
+    public static <T> ValueCodec<T> gson(@NonNull final Class<T> clazz) {
+        return new GsonCodec<>(clazz);
+    }
+
+    /**
+     * 使用Gson编码的对象
+     *
+     * @param type 对象类型，可以是泛型类型
+     * @return 编码器
+     */
+    public static <T> ValueCodec<T> gson(@NonNull final Type type) {
+        return new GsonCodec<>(type);
+    }
+
+    private static final class GsonCodec<T> implements ValueCodec<T> {
+        private final Type type;
+
+        private GsonCodec(final Type type) {
+            this.type = type;
+        }
+
+        @Override
+        public byte[] encode(@NonNull T value) {
+            return GSON.toJson(value, type).getBytes(CacheHelper.UTF_8);
+        }
+
+        @Override
+        public T decode(@NonNull byte[] data) {
+            try {
+                return GSON.fromJson(new String(data, CacheHelper.UTF_8), type);
+            } catch (JsonParseException e) {
+                e.printStackTrace();
+                return null;
+            }
+        }
+    }
+}
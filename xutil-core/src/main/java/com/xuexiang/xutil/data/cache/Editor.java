@@ -0,0 +1,193 @@
+/*
+ * Copyright (C) 2018 xuexiangjys(xuexiangjys@163.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.xuexiang.xutil.data.cache;
+
+import androidx.annotation.NonNull;
+
+import com.xuexiang.xutil.file.CloseUtils;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * <pre>
+ *     desc   : 缓存的写入器
+ *     author : agent
+ *     time   : 2026/10/18 下午12:52
+ * </pre>
+ */
+public final class Editor {
+    private final CacheManager shard;
+    private final String key;
+    private final long dueTime;
+    private final File tempFile;
+    private final OnCompleteListener listener;
+    private EditorOutputStream outputStream;
+    /**
+     * 是否已开始写入临时文件
+     */
+    private boolean writeStarted;
+    private boolean hasErrors;
+    private boolean done;
+
+    Editor(final CacheManager shard,
+           final String key,
+           final long dueTime,
+           final File tempFile,
+           final OnCompleteListener listener) {
+        this.shard = shard;
+        this.key = key;
+        this.dueTime = dueTime;
+        this.tempFile = tempFile;
+        this.listener = listener;
+    }
+
+    /**
+     * 获取写入数据的输出流，多次调用返回同一个流
+     *
+     * @return 输出流
+     * @throws IOException 创建临时文件失败
+     */
+    public OutputStream newOutputStream() throws IOException {
+        if (done) {
+            throw new IllegalStateException("editor has been committed or aborted");
+        }
+        if (outputStream == null) {
+            shard.beginWrite(tempFile);
+            writeStarted = true;
+            FileOutputStream fos = new FileOutputStream(tempFile);
+            outputStream = new EditorOutputStream(new BufferedOutputStream(fos, CacheHelper.STREAM_BUFFER_SIZE));
+            outputStream.write(CacheHelper.newEntry(key, (byte) 0, dueTime, new byte[0]));
+        }
+        return outputStream;
+    }
+
+    /**
+     * 提交写入，会关闭输出流
+     *
+     * @return {@code true}: 写入成功<br>{@code false}: 写入失败
+     */
+    public boolean commit() {
+        if (done) {
+            return false;
+        }
+        boolean success = true;
+        try {
+            newOutputStream();
+            outputStream.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+            success = false;
+        }
+        return complete(success && !hasErrors);
+    }
+
+    /**
+     * 放弃写入，已有的缓存保持不变
+     */
+    public void abort() {
+        if (done) {
+            return;
+        }
+        CloseUtils.closeIO(outputStream);
+        complete(false);
+    }
+
+    private boolean complete(final boolean success) {
+        done = true;
+        // 流式写入的值总是保存为文件，先移除块文件中的旧值
+        SlabEntry replacedSlab = success ? shard.removeFromSlab(key, null) : null;
+        if (!writeStarted) {
+            // 未开始写入，缓存和日志都未改变
+            shard.abortEdit(tempFile);
+        } else {
+            shard.commitEdit(key, tempFile, success, dueTime);
+        }
+        if (replacedSlab != null) {
+            shard.stats.recordRemoval(key, replacedSlab.size(), RemovalCause.REPLACED);
+        }
+        shard.removeLegacy(key);
+        if (listener != null) {
+            listener.onComplete(key, success);
+        }
+        return success;
+    }
+
+    /**
+     * 写入完成的监听
+     */
+    public interface OnCompleteListener {
+        /**
+         * 写入已提交或已放弃
+         *
+         * @param key     键
+         * @param success 是否写入成功
+         */
+        void onComplete(String key, boolean success);
+    }
+
+    private final class EditorOutputStream extends FilterOutputStream {
+
+        private EditorOutputStream(final OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int oneByte) throws IOException {
+            try {
+                out.write(oneByte);
+            } catch (IOException e) {
+                hasErrors = true;
+                throw e;
+            }
+        }
+
+        @Override
+        public void write(@NonNull byte[] buffer, int offset, int length) throws IOException {
+            try {
+                out.write(buffer, offset, length);
+            } catch (IOException e) {
+                hasErrors = true;
+                throw e;
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            try {
+                out.flush();
+            } catch (IOException e) {
+                hasErrors = true;
+                throw e;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                out.close();
+            } catch (IOException e) {
+                hasErrors = true;
+                throw e;
+            }
+        }
+    }
+}
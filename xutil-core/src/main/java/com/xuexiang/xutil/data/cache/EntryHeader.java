@@ -0,0 +1,48 @@
+/*
+ * Copyright (C) 2018 xuexiangjys(xuexiangjys@163.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.xuexiang.xutil.data.cache;
+
+/**
+ * <pre>
+ *     desc   : 缓存文件头
+ *     author : agent
+ *     time   : 2026/10/18 下午12:52
+ * </pre>
+ */
+final class EntryHeader {
+    final String key;
+    final byte flags;
+    /**
+     * 过期时间，没有为-1
+     */
+    final long dueTime;
+    /**
+     * 数据在文件中的起始位置
+     */
+    final int dataOffset;
+
+    EntryHeader(final String key, final byte flags, final long dueTime, final int dataOffset) {
+        this.key = key;
+        this.flags = flags;
+        this.dueTime = dueTime;
+        this.dataOffset = dataOffset;
+    }
+
+    boolean isDue() {
+        return dueTime != -1 && System.currentTimeMillis() > dueTime;
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright (C) 2018 xuexiangjys(xuexiangjys@163.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.xuexiang.xutil.data.cache;
+
+import android.graphics.Bitmap;
+
+import androidx.annotation.NonNull;
+import androidx.collection.LruCache;
+
+/**
+ * <pre>
+ *     desc   : 内存缓存，按值类型计算占用的尺寸
+ *     author : agent
+ *     time   : 2026/10/18 下午12:52
+ * </pre>
+ */
+final class MemoryCache extends LruCache<String, MemoryEntry> {
+
+    MemoryCache(final int maxSize) {
+        super(maxSize);
+    }
+
+    @Override
+    protected int sizeOf(@NonNull final String key, @NonNull final MemoryEntry entry) {
+        return entry.weight;
+    }
+
+    /**
+     * 计算值占用的尺寸
+     *
+     * @param value 值
+     * @return 尺寸，单位字节
+     */
+    static int weigh(final Object value) {
+        if (value instanceof byte[]) {
+            return ((byte[]) value).length;
+        } else if (value instanceof String) {
+            return ((String) value).length() * 2;
+        } else if (value instanceof Bitmap) {
+            return ((Bitmap) value).getByteCount();
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright (C) 2018 xuexiangjys(xuexiangjys@163.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.xuexiang.xutil.data.cache;
+
+/**
+ * <pre>
+ *     desc   : 缓存被移除的监听
+ *     author : agent
+ *     time   : 2026/10/18 下午12:52
+ * </pre>
+ */
+public interface OnRemovalListener {
+
+    /**
+     * 缓存被移除，在执行移除的线程中回调
+     *
+     * @param key   键，旧版本的缓存文件中没有记录键，此时为{@code null}
+     * @param size  缓存文件的大小，单位：字节
+     * @param cause 移除原因
+     */
+    void onRemoval(String key, long size, RemovalCause cause);
+}
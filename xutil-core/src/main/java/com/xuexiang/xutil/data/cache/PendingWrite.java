@@ -0,0 +1,124 @@
+/*
+ * Copyright (C) 2018 xuexiangjys(xuexiangjys@163.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.xuexiang.xutil.data.cache;
+
+import android.graphics.Bitmap;
+import android.graphics.drawable.Drawable;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.FutureTask;
+
+/**
+ * <pre>
+ *     desc   : 尚未写入磁盘的异步写入
+ *     author : agent
+ *     time   : 2026/10/18 下午12:52
+ * </pre>
+ */
+final class PendingWrite {
+    /**
+     * 读取时返回的值
+     */
+    final Object value;
+    /**
+     * 写入磁盘的数据，为空时由value转换
+     */
+    private byte[] data;
+    /**
+     * 过期时间，没有为-1
+     */
+    final long dueTime;
+    /**
+     * 被当前写入覆盖的写入，当前写入完成时一并完成
+     */
+    private PendingWrite previous;
+    private boolean result;
+    private final FutureTask<Boolean> future = new FutureTask<>(new Callable<Boolean>() {
+        @Override
+        public Boolean call() {
+            return result;
+        }
+    });
+
+    PendingWrite(final Object value, final byte[] data, final long dueTime) {
+        this.value = value;
+        this.data = data;
+        this.dueTime = dueTime;
+    }
+
+    /**
+     * 覆盖之前的写入，需在加入写入队列时调用
+     *
+     * @param previous 被覆盖的写入，当前写入完成时一并完成
+     */
+    void setPrevious(final PendingWrite previous) {
+        this.previous = previous;
+    }
+
+    /**
+     * @return 写入结果
+     */
+    FutureTask<Boolean> getFuture() {
+        return future;
+    }
+
+    byte[] encode() {
+        if (data == null) {
+            if (value instanceof String) {
+                data = CacheHelper.string2Bytes((String) value);
+            } else if (value instanceof Bitmap) {
+                data = CacheHelper.bitmap2Bytes((Bitmap) value);
+            } else if (value instanceof Drawable) {
+                data = CacheHelper.drawable2Bytes((Drawable) value);
+            }
+        }
+        return data;
+    }
+
+    boolean isDue() {
+        return dueTime != -1 && System.currentTimeMillis() > dueTime;
+    }
+
+    /**
+     * @return 是否已完成，包括被移除或覆盖
+     */
+    synchronized boolean isDone() {
+        return future.isDone();
+    }
+
+    /**
+     * 完成写入，同时完成被覆盖的写入
+     * <p>写入磁盘期间持有该写入的锁，在此期间完成会等待写入结束</p>
+     *
+     * @param success 写入结果
+     */
+    void complete(final boolean success) {
+        PendingWrite write = this;
+        while (write != null) {
+            PendingWrite previous;
+            synchronized (write) {
+                if (!write.future.isDone()) {
+                    write.result = success;
+                    write.future.run();
+                }
+                previous = write.previous;
+                write.previous = null;
+            }
+            write = previous;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright (C) 2018 xuexiangjys(xuexiangjys@163.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.xuexiang.xutil.data.cache;
+
+import java.util.Map;
+
+/**
+ * <pre>
+ *     desc   : 缓存被移除的原因
+ *     author : agent
+ *     time   : 2026/10/18 下午12:52
+ * </pre>
+ */
+public enum RemovalCause {
+    /**
+     * 调用{@link #remove(String)}、{@link #clear()}移除
+     */
+    EXPLICIT,
+    /**
+     * 被新的值覆盖，包括{@link #replaceAll(Map)}替换
+     */
+    REPLACED,
+    /**
+     * 已过期
+     */
+    EXPIRED,
+    /**
+     * 超出缓存尺寸或个数的上限被淘汰
+     */
+    EVICTED
+}
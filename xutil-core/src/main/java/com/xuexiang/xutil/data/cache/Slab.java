@@ -0,0 +1,45 @@
+/*
+ * Copyright (C) 2018 xuexiangjys(xuexiangjys@163.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.xuexiang.xutil.data.cache;
+
+import java.io.File;
+import java.nio.MappedByteBuffer;
+
+/**
+ * <pre>
+ *     desc   : 内存映射的块文件
+ *     author : agent
+ *     time   : 2026/10/18 下午12:52
+ * </pre>
+ */
+final class Slab {
+    final int id;
+    final File file;
+    final MappedByteBuffer buffer;
+    final int capacity;
+    /**
+     * 下一条记录的写入位置，需持有SlabStore锁
+     */
+    int writePosition;
+
+    Slab(final int id, final File file, final MappedByteBuffer buffer, final int capacity) {
+        this.id = id;
+        this.file = file;
+        this.buffer = buffer;
+        this.capacity = capacity;
+    }
+}
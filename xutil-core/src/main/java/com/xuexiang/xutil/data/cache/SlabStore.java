@@ -0,0 +1,500 @@
+/*
+ * Copyright (C) 2018 xuexiangjys(xuexiangjys@163.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.xuexiang.xutil.data.cache;
+
+import com.xuexiang.xutil.file.CloseUtils;
+import com.xuexiang.xutil.file.FileUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+/**
+ * <pre>
+ *     desc   : 小缓存的块文件存储
+ *     author : agent
+ *     time   : 2026/10/18 下午12:52
+ * </pre>
+ * <p>缓存文件内容依次追加到内存映射的块文件中，内存中按LRU顺序记录每个缓存所在的块及位置，读写无需打开文件</p>
+ * <p>记录格式：内容长度(4) + CRC32(4) + 类型(1) + 内容，写入记录的内容为缓存文件内容（文件头 + 数据），移除记录的内容为键</p>
+ * <p>块文件按序号从小到大回放即可恢复索引，进程终止时未写完整的记录会被CRC32校验丢弃；
+ * 被覆盖或移除的记录在无效空间过多时由压缩回收；
+ * 有过期时间的缓存与缓存文件一样按过期时间排序，由{@link CacheManager}的定时清理和淘汰移除</p>
+ */
+final class SlabStore {
+    /**
+     * 缓存文件内容不超过该值时才写入块文件，单位：字节
+     */
+    static final int MAX_ENTRY_SIZE = 4 * 1024;
+    static final String SLAB_DIR = "slab";
+    /**
+     * 块文件的大小，单位：字节
+     */
+    private static final int SLAB_SIZE = 4 * 1024 * 1024;
+    private static final String SLAB_FILE_PREFIX = "slab_";
+    private static final Pattern SLAB_FILE_PATTERN = Pattern.compile("slab_(\\d+)");
+    static final int RECORD_HEADER_LEN = 9;
+    private static final byte TYPE_PUT = 1;
+    private static final byte TYPE_REMOVE = 2;
+    /**
+     * 无效空间超过该值且不少于有效空间时压缩，单位：字节
+     */
+    private static final long COMPACT_THRESHOLD = 1024 * 1024;
+    /**
+     * 按过期时间排序，过期时间相同时按键排序
+     */
+    private static final Comparator<SlabEntry> DEADLINE_ORDER = new Comparator<SlabEntry>() {
+        @Override
+        public int compare(SlabEntry lhs, SlabEntry rhs) {
+            if (lhs.dueTime != rhs.dueTime) {
+                return lhs.dueTime < rhs.dueTime ? -1 : 1;
+            }
+            return lhs.key.compareTo(rhs.key);
+        }
+    };
+
+    private final File dir;
+    private final AtomicLong accessClock;
+    /**
+     * 按访问顺序排列的索引，需持有该对象锁
+     */
+    final LinkedHashMap<String, SlabEntry> index = new LinkedHashMap<>(16, 0.75f, true);
+    /**
+     * 按过期时间排序的索引，只包含有过期时间的缓存，需持有该对象锁
+     */
+    private final TreeSet<SlabEntry> ttlIndex = new TreeSet<>(DEADLINE_ORDER);
+    /**
+     * 按序号排列的块文件，只向最后一个追加，需持有该对象锁
+     */
+    private final List<Slab> slabs = new ArrayList<>();
+    final AtomicLong liveBytes = new AtomicLong();
+    final AtomicInteger liveCount = new AtomicInteger();
+    private final AtomicBoolean compactScheduled = new AtomicBoolean(false);
+    /**
+     * 被覆盖或移除的记录所占的空间，需持有该对象锁
+     */
+    private long deadBytes;
+    private int nextSlabId;
+    /**
+     * 是否已回放完成，读取时不加锁判断
+     */
+    private volatile boolean loaded;
+
+    SlabStore(final File dir, final AtomicLong accessClock) {
+        this.dir = dir;
+        this.accessClock = accessClock;
+    }
+
+    /**
+     * 回放块文件，建立索引
+     * <p>由预热在维护线程中调用；写入和移除需要完整的索引，预热前调用时在调用线程中回放</p>
+     */
+    synchronized void load() {
+        if (loaded) {
+            return;
+        }
+        try {
+            replayAll();
+        } finally {
+            loaded = true;
+        }
+    }
+
+    /**
+     * 需持有该对象锁
+     */
+    private void replayAll() {
+        File[] files = dir.listFiles();
+        if (files == null) {
+            return;
+        }
+        List<File> slabFiles = new ArrayList<>(files.length);
+        for (File file : files) {
+            if (file.isFile() && SLAB_FILE_PATTERN.matcher(file.getName()).matches()) {
+                slabFiles.add(file);
+            }
+        }
+        Collections.sort(slabFiles, new Comparator<File>() {
+            @Override
+            public int compare(File o1, File o2) {
+                int id1 = getSlabId(o1);
+                int id2 = getSlabId(o2);
+                return id1 < id2 ? -1 : (id1 == id2 ? 0 : 1);
+            }
+        });
+        try {
+            for (File file : slabFiles) {
+                Slab slab = openSlab(file, getSlabId(file), false);
+                slabs.add(slab);
+                replay(slab);
+                nextSlabId = slab.id + 1;
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+            // 缺少任一块文件都可能使已移除的缓存重新出现，全部清除
+            reset();
+        }
+    }
+
+    private static int getSlabId(final File file) {
+        try {
+            return Integer.parseInt(file.getName().substring(SLAB_FILE_PREFIX.length()));
+        } catch (NumberFormatException e) {
+            return Integer.MAX_VALUE;
+        }
+    }
+
+    /**
+     * 顺序回放块文件中的记录，遇到损坏的记录即停止，之后从该位置继续追加，需持有该对象锁
+     */
+    private void replay(final Slab slab) {
+        final ByteBuffer buffer = slab.buffer.duplicate();
+        int position = 0;
+        while (slab.capacity - position >= RECORD_HEADER_LEN) {
+            buffer.position(position);
+            final int length = buffer.getInt();
+            final int crc = buffer.getInt();
+            final byte type = buffer.get();
+            if (length < 0 || length > slab.capacity - position - RECORD_HEADER_LEN) {
+                break;
+            }
+            byte[] content = new byte[length];
+            buffer.get(content);
+            if (crcOf(type, content) != crc) {
+                break;
+            }
+            if (type == TYPE_PUT) {
+                EntryHeader header = CacheHelper.parseHeader(content);
+                if (header == null) {
+                    break;
+                }
+                putIndex(new SlabEntry(header.key, slab, position + RECORD_HEADER_LEN, length, header.dueTime));
+            } else if (type == TYPE_REMOVE) {
+                removeIndex(new String(content, CacheHelper.UTF_8));
+                deadBytes += RECORD_HEADER_LEN + length;
+            } else {
+                break;
+            }
+            position += RECORD_HEADER_LEN + length;
+        }
+        slab.writePosition = position;
+    }
+
+    /**
+     * 读取缓存
+     * <p>回放未完成时直接视为未命中，不在调用线程中回放，也不等待正在回放的维护线程</p>
+     *
+     * @param key 键
+     * @return 缓存文件内容（文件头 + 数据），不存在或回放未完成返回{@code null}
+     */
+    byte[] get(final String key) {
+        if (!loaded) {
+            return null;
+        }
+        synchronized (this) {
+            SlabEntry entry = index.get(key);
+            if (entry == null) {
+                return null;
+            }
+            entry.lastAccess = accessClock.incrementAndGet();
+            return read(entry);
+        }
+    }
+
+    /**
+     * 写入缓存
+     *
+     * @param key     键
+     * @param content 缓存文件内容（文件头 + 数据）
+     * @param dueTime 过期时间，没有为-1
+     * @return 被覆盖的缓存，没有返回{@code null}
+     * @throws IOException 创建块文件失败
+     */
+    synchronized SlabEntry put(final String key, final byte[] content, final long dueTime) throws IOException {
+        load();
+        return putIndex(append(key, TYPE_PUT, content, dueTime));
+    }
+
+    /**
+     * 移除缓存，并追加移除记录
+     *
+     * @param key 键
+     * @return 被移除的缓存，不存在返回{@code null}
+     */
+    synchronized SlabEntry remove(final String key) {
+        load();
+        if (!index.containsKey(key)) {
+            return null;
+        }
+        try {
+            byte[] content = key.getBytes(CacheHelper.UTF_8);
+            append(key, TYPE_REMOVE, content, -1);
+            deadBytes += RECORD_HEADER_LEN + content.length;
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        return removeIndex(key);
+    }
+
+    /**
+     * 清除所有缓存及块文件
+     *
+     * @return 被清除的缓存
+     */
+    synchronized List<SlabEntry> clear() {
+        load();
+        List<SlabEntry> removed = new ArrayList<>(index.values());
+        reset();
+        return removed;
+    }
+
+    /**
+     * 需持有该对象锁
+     */
+    private void reset() {
+        index.clear();
+        ttlIndex.clear();
+        slabs.clear();
+        liveBytes.set(0);
+        liveCount.set(0);
+        deadBytes = 0;
+        FileUtils.deleteDir(dir);
+    }
+
+    /**
+     * 最久未使用的缓存，需持有该对象锁
+     */
+    SlabEntry eldest() {
+        load();
+        Iterator<SlabEntry> iterator = index.values().iterator();
+        return iterator.hasNext() ? iterator.next() : null;
+    }
+
+    /**
+     * 最早过期的缓存，需持有该对象锁
+     *
+     * @param now 当前时间
+     * @return 已过期时返回该缓存，否则返回{@code null}
+     */
+    SlabEntry firstExpired(final long now) {
+        load();
+        if (ttlIndex.isEmpty()) {
+            return null;
+        }
+        SlabEntry first = ttlIndex.first();
+        return first.dueTime < now ? first : null;
+    }
+
+    /**
+     * @return 最早的过期时间，没有有过期时间的缓存或回放未完成时返回{@link Long#MAX_VALUE}
+     */
+    synchronized long firstDueTime() {
+        return ttlIndex.isEmpty() ? Long.MAX_VALUE : ttlIndex.first().dueTime;
+    }
+
+    /**
+     * 追加一条记录，最后一个块文件的剩余空间不足时创建新的块文件，需持有该对象锁
+     */
+    private SlabEntry append(final String key, final byte type, final byte[] content, final long dueTime) throws IOException {
+        Slab slab = slabs.isEmpty() ? null : slabs.get(slabs.size() - 1);
+        if (slab == null || slab.capacity - slab.writePosition < RECORD_HEADER_LEN + content.length) {
+            slab = createSlab();
+            slabs.add(slab);
+        }
+        return writeRecord(slab, key, type, content, dueTime);
+    }
+
+    /**
+     * 需持有该对象锁
+     */
+    private SlabEntry writeRecord(final Slab slab, final String key, final byte type,
+                                  final byte[] content, final long dueTime) {
+        final int position = slab.writePosition;
+        ByteBuffer buffer = slab.buffer.duplicate();
+        buffer.position(position);
+        buffer.putInt(content.length)
+                .putInt(crcOf(type, content))
+                .put(type)
+                .put(content);
+        slab.writePosition = position + RECORD_HEADER_LEN + content.length;
+        return new SlabEntry(key, slab, position + RECORD_HEADER_LEN, content.length, dueTime);
+    }
+
+    byte[] read(final SlabEntry entry) {
+        byte[] content = new byte[entry.length];
+        ByteBuffer buffer = entry.slab.buffer.duplicate();
+        buffer.position(entry.offset);
+        buffer.get(content);
+        return content;
+    }
+
+    private static int crcOf(final byte type, final byte[] content) {
+        CRC32 crc = new CRC32();
+        crc.update(type);
+        crc.update(content, 0, content.length);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * 加入索引并排在LRU的末尾，需持有该对象锁
+     *
+     * @return 被覆盖的缓存
+     */
+    private SlabEntry putIndex(final SlabEntry entry) {
+        SlabEntry old = removeIndex(entry.key);
+        entry.lastAccess = accessClock.incrementAndGet();
+        index.put(entry.key, entry);
+        if (entry.dueTime != -1) {
+            ttlIndex.add(entry);
+        }
+        liveBytes.addAndGet(entry.size());
+        liveCount.incrementAndGet();
+        return old;
+    }
+
+    /**
+     * 移出索引，需持有该对象锁
+     */
+    private SlabEntry removeIndex(final String key) {
+        SlabEntry old = index.remove(key);
+        if (old != null) {
+            if (old.dueTime != -1) {
+                ttlIndex.remove(old);
+            }
+            liveBytes.addAndGet(-old.size());
+            liveCount.decrementAndGet();
+            deadBytes += old.size();
+        }
+        return old;
+    }
+
+    /**
+     * 需持有该对象锁
+     */
+    private Slab createSlab() throws IOException {
+        if (!dir.exists() && !dir.mkdirs()) {
+            throw new IOException("can't make dirs in " + dir.getAbsolutePath());
+        }
+        final int id = nextSlabId++;
+        return openSlab(new File(dir, SLAB_FILE_PREFIX + id), id, true);
+    }
+
+    private static Slab openSlab(final File file, final int id, final boolean create) throws IOException {
+        RandomAccessFile raf = null;
+        try {
+            raf = new RandomAccessFile(file, "rw");
+            if (create) {
+                raf.setLength(SLAB_SIZE);
+            }
+            final int capacity = (int) Math.min(raf.length(), SLAB_SIZE);
+            // 关闭文件后映射仍然有效
+            MappedByteBuffer buffer = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+            return new Slab(id, file, buffer, capacity);
+        } finally {
+            CloseUtils.closeIO(raf);
+        }
+    }
+
+    /**
+     * 需持有该对象锁
+     */
+    private boolean needCompact() {
+        return deadBytes >= COMPACT_THRESHOLD && deadBytes >= liveBytes.get();
+    }
+
+    /**
+     * 无效空间过多时在后台线程中压缩
+     */
+    void scheduleCompactIfNeeded() {
+        synchronized (this) {
+            if (!needCompact()) {
+                return;
+            }
+        }
+        if (!compactScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        CacheManager.EXECUTOR.execute(new Runnable() {
+            @Override
+            public void run() {
+                compactScheduled.set(false);
+                synchronized (SlabStore.this) {
+                    if (needCompact()) {
+                        compact();
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * 按LRU顺序将有效的缓存写入新的块文件，再删除原有的块文件，需持有该对象锁
+     * <p>原有的块文件按序号从小到大删除，中途终止时剩余的块文件中的移除记录仍排在其写入记录之后，回放结果不变</p>
+     */
+    private void compact() {
+        final List<Slab> oldSlabs = new ArrayList<>(slabs);
+        final List<Slab> newSlabs = new ArrayList<>();
+        final List<SlabEntry> moved = new ArrayList<>(index.size());
+        try {
+            Slab slab = null;
+            for (SlabEntry entry : index.values()) {
+                if (slab == null || slab.capacity - slab.writePosition < entry.size()) {
+                    slab = createSlab();
+                    newSlabs.add(slab);
+                }
+                SlabEntry copy = writeRecord(slab, entry.key, TYPE_PUT, read(entry), entry.dueTime);
+                copy.lastAccess = entry.lastAccess;
+                moved.add(copy);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+            for (Slab slab : newSlabs) {
+                slab.file.delete();
+            }
+            return;
+        }
+        index.clear();
+        ttlIndex.clear();
+        for (SlabEntry entry : moved) {
+            index.put(entry.key, entry);
+            if (entry.dueTime != -1) {
+                ttlIndex.add(entry);
+            }
+        }
+        slabs.clear();
+        slabs.addAll(newSlabs);
+        deadBytes = 0;
+        for (Slab slab : oldSlabs) {
+            slab.file.delete();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (C) 2018 xuexiangjys(xuexiangjys@163.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.xuexiang.xutil.data.cache;
+
+import com.xuexiang.xutil.file.CloseUtils;
+
+import java.io.Closeable;
+import java.io.InputStream;
+
+/**
+ * <pre>
+ *     desc   : 缓存的快照，读取期间缓存被覆盖或移除不影响已打开的快照
+ *     author : agent
+ *     time   : 2026/10/18 下午12:52
+ * </pre>
+ */
+public final class Snapshot implements Closeable {
+    private final InputStream inputStream;
+    private final long length;
+    private final long dueTime;
+
+    /**
+     * @param inputStream 读取数据的输入流，已跳过文件头
+     * @param length      数据的长度，单位：字节
+     * @param dueTime     过期时间，没有为-1
+     */
+    Snapshot(final InputStream inputStream, final long length, final long dueTime) {
+        this.inputStream = inputStream;
+        this.length = length;
+        this.dueTime = dueTime;
+    }
+
+    /**
+     * @return 读取数据的输入流，已跳过文件头
+     */
+    public InputStream getInputStream() {
+        return inputStream;
+    }
+
+    /**
+     * @return 数据的长度，单位：字节
+     */
+    public long getLength() {
+        return length;
+    }
+
+    /**
+     * @return 过期时间，没有为-1
+     */
+    public long getDueTime() {
+        return dueTime;
+    }
+
+    @Override
+    public void close() {
+        CloseUtils.closeIO(inputStream);
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright (C) 2018 xuexiangjys(xuexiangjys@163.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.xuexiang.xutil.data.cache;
+
+import java.io.File;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <pre>
+ *     desc   : 统计数据及移除监听，所有分片共享
+ *     author : agent
+ *     time   : 2026/10/18 下午12:52
+ * </pre>
+ */
+final class StatsCounter {
+    final AtomicLong memoryHitCount = new AtomicLong();
+    final AtomicLong memoryMissCount = new AtomicLong();
+    final AtomicLong diskHitCount = new AtomicLong();
+    final AtomicLong diskMissCount = new AtomicLong();
+    final AtomicLong expirationCount = new AtomicLong();
+    final AtomicLong evictionCount = new AtomicLong();
+    final AtomicLong bytesWritten = new AtomicLong();
+    final AtomicLong writeCount = new AtomicLong();
+    final AtomicLong writeTime = new AtomicLong();
+    final AtomicLong bytesRead = new AtomicLong();
+    final AtomicLong readCount = new AtomicLong();
+    final AtomicLong readTime = new AtomicLong();
+    final AtomicLong loadTime = new AtomicLong();
+    private volatile OnRemovalListener listener;
+
+    void setOnRemovalListener(final OnRemovalListener listener) {
+        this.listener = listener;
+    }
+
+    void recordRead(final long bytes, final long nanos) {
+        bytesRead.addAndGet(bytes);
+        readCount.incrementAndGet();
+        readTime.addAndGet(nanos);
+    }
+
+    void recordRemoval(final String key, final long size, final RemovalCause cause) {
+        if (cause == RemovalCause.EXPIRED) {
+            expirationCount.incrementAndGet();
+        } else if (cause == RemovalCause.EVICTED) {
+            evictionCount.incrementAndGet();
+        }
+        OnRemovalListener l = listener;
+        if (l != null) {
+            try {
+                l.onRemoval(key, size, cause);
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * 设置了监听时从缓存文件头中读取键，否则不读取
+     */
+    String resolveKey(final File file) {
+        return listener != null ? CacheHelper.readKey(file) : null;
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright (C) 2018 xuexiangjys(xuexiangjys@163.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.xuexiang.xutil.data.cache;
+
+import androidx.annotation.NonNull;
+
+/**
+ * <pre>
+ *     desc   : 缓存值的编码器，用于以更紧凑、更快速的格式缓存自定义类型
+ *     author : agent
+ *     time   : 2026/10/18 下午12:52
+ * </pre>
+ * @param <T> 值类型
+ */
+public interface ValueCodec<T> {
+
+    /**
+     * 编码
+     *
+     * @param value 值
+     * @return 编码后的数据，失败返回{@code null}
+     */
+    byte[] encode(@NonNull T value);
+
+    /**
+     * 解码
+     *
+     * @param data 数据
+     * @return 解码后的值，失败返回{@code null}
+     */
+    T decode(@NonNull byte[] data);
+}
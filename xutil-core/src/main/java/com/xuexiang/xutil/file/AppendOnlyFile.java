@@ -0,0 +1,297 @@
+/*
+ * Copyright (C) 2018 xuexiangjys(xuexiangjys@163.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.xuexiang.xutil.file;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * <pre>
+ *     desc   : 只追加写入的文件【适用于日志、埋点等频繁的小数据写入】
+ *     author : agent
+ *     time   : 2026/10/18 下午12:09
+ * </pre>
+ * <p>按块预先扩展并映射文件，追加的数据直接写入映射的内存中，写满一块后再映射下一块，
+ * 只在 {@link #flush()} 时将数据同步到磁盘。记录已写入数据的长度，关闭时将文件截断到该长度。</p>
+ * <p>映射块按块大小对齐，打开期间及异常退出后文件在磁盘上的长度为块大小的整数倍，末尾为未写入的 0，
+ * 已写入数据的长度以 {@link #length()} 为准。打开期间在同目录下的 {@code 文件名.len} 中记录已提交的长度，
+ * 打开及每次 {@link #flush()} 时更新，正常关闭后删除。异常退出后再次打开时恢复到最后一次提交的长度，
+ * 之后写入但未同步的数据被丢弃，写入的数据可以包含任意字节</p>
+ */
+public final class AppendOnlyFile implements Closeable {
+
+    /**
+     * 默认块大小
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 1024 * 1024;
+
+    /**
+     * 记录已提交长度的文件的后缀
+     */
+    private static final String LENGTH_FILE_SUFFIX = ".len";
+
+    /**
+     * 打开文件，不存在时创建
+     *
+     * @param file 文件
+     * @return 追加写入的文件，失败返回 {@code null}
+     */
+    public static AppendOnlyFile open(final File file) {
+        return open(file, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * 打开文件，不存在时创建
+     *
+     * @param file      文件
+     * @param chunkSize 每次预先扩展并映射的大小
+     * @return 追加写入的文件，失败返回 {@code null}
+     */
+    public static AppendOnlyFile open(final File file, final int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize must be greater than 0");
+        }
+        if (file == null) {
+            return null;
+        }
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.exists() && !parent.mkdirs()) {
+            return null;
+        }
+        RandomAccessFile raf = null;
+        RandomAccessFile lengthRaf = null;
+        try {
+            raf = new RandomAccessFile(file, "rw");
+            FileChannel channel = raf.getChannel();
+            File lengthFile = new File(file.getPath() + LENGTH_FILE_SUFFIX);
+            long length = recoverLength(channel, lengthFile);
+            // 扩展文件前先记录长度，之后任何时候异常退出都能恢复
+            lengthRaf = new RandomAccessFile(lengthFile, "rw");
+            writeLength(lengthRaf, length);
+            return new AppendOnlyFile(file, channel, lengthFile, lengthRaf, chunkSize, length);
+        } catch (IOException e) {
+            e.printStackTrace();
+            CloseUtils.closeIO(raf, lengthRaf);
+            return null;
+        }
+    }
+
+    private final File mFile;
+    private final FileChannel mChannel;
+    private final File mLengthFile;
+    private final RandomAccessFile mLengthRaf;
+    private final int mChunkSize;
+    /**
+     * 已写入数据的长度
+     */
+    private long mLength;
+    /**
+     * 已同步到磁盘并记录的长度
+     */
+    private long mCommittedLength;
+    /**
+     * 当前映射块及其在文件中的起始位置
+     */
+    private MappedByteBuffer mChunk;
+    private long mChunkStart = -1;
+    private boolean mClosed;
+
+    private AppendOnlyFile(final File file, final FileChannel channel, final File lengthFile,
+                           final RandomAccessFile lengthRaf, final int chunkSize, final long length) {
+        mFile = file;
+        mChannel = channel;
+        mLengthFile = lengthFile;
+        mLengthRaf = lengthRaf;
+        mChunkSize = chunkSize;
+        mLength = length;
+        mCommittedLength = length;
+    }
+
+    /**
+     * 追加数据
+     *
+     * @param data 数据
+     * @return {@code true}: 写入成功<br>{@code false}: 写入失败
+     */
+    public boolean append(final byte[] data) {
+        return data != null && append(data, 0, data.length);
+    }
+
+    /**
+     * 追加数据
+     *
+     * @param data   数据
+     * @param offset 偏移量
+     * @param length 长度
+     * @return {@code true}: 写入成功<br>{@code false}: 写入失败
+     */
+    public synchronized boolean append(final byte[] data, final int offset, final int length) {
+        if (offset < 0 || length < 0 || offset + length > data.length) {
+            throw new IndexOutOfBoundsException();
+        }
+        if (mClosed) {
+            return false;
+        }
+        final long start = mLength;
+        try {
+            int written = 0;
+            while (written < length) {
+                ByteBuffer chunk = chunkFor(mLength);
+                chunk.position((int) (mLength - mChunkStart));
+                int count = Math.min(length - written, chunk.remaining());
+                chunk.put(data, offset + written, count);
+                written += count;
+                mLength += count;
+            }
+            return true;
+        } catch (IOException e) {
+            e.printStackTrace();
+            // 不保留写入了一部分的记录
+            discard(start);
+            return false;
+        }
+    }
+
+    /**
+     * 丢弃从指定位置开始已写入的数据，之后的写入会覆盖这部分数据
+     */
+    private void discard(final long start) {
+        mLength = start;
+    }
+
+    /**
+     * @return 已写入数据的长度
+     */
+    public synchronized long length() {
+        return mLength;
+    }
+
+    /**
+     * 将已写入的数据同步到磁盘并提交其长度，只同步当前映射块中的脏页
+     *
+     * @return {@code true}: 同步成功<br>{@code false}: 记录长度失败或已关闭
+     */
+    public synchronized boolean flush() {
+        if (mClosed) {
+            return false;
+        }
+        if (mChunk != null) {
+            mChunk.force();
+        }
+        if (mLength == mCommittedLength) {
+            return true;
+        }
+        try {
+            // 数据同步后再记录长度，记录的长度之内的数据都已在磁盘上
+            writeLength(mLengthRaf, mLength);
+            mCommittedLength = mLength;
+            return true;
+        } catch (IOException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    /**
+     * 同步数据并关闭文件，文件截断到已写入数据的长度
+     */
+    @Override
+    public synchronized void close() {
+        if (mClosed) {
+            return;
+        }
+        boolean committed = flush();
+        mClosed = true;
+        mChunk = null;
+        try {
+            // 截断同步到磁盘后文件长度即为已写入的长度，不再需要记录；失败时保留记录用于下次恢复
+            mChannel.truncate(mLength);
+            mChannel.force(true);
+            if (committed) {
+                CloseUtils.closeIO(mLengthRaf);
+                mLengthFile.delete();
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        } finally {
+            CloseUtils.closeIO(mChannel, mLengthRaf);
+            DirLengthCache.notifyChanged(mFile);
+        }
+    }
+
+    /**
+     * 获取包含指定位置的映射块，写满的块在切换前同步到磁盘
+     */
+    private MappedByteBuffer chunkFor(final long position) throws IOException {
+        long start = position - position % mChunkSize;
+        if (mChunk == null || start != mChunkStart) {
+            if (mChunk != null) {
+                mChunk.force();
+            }
+            // 映射超出文件末尾的区域时文件会被扩展
+            boolean extending = start + mChunkSize > mChannel.size();
+            mChunk = mChannel.map(FileChannel.MapMode.READ_WRITE, start, mChunkSize);
+            mChunkStart = start;
+            if (extending) {
+                // 原地扩展不会改变目录的修改时间
+                DirLengthCache.notifyChanged(mFile);
+            }
+        }
+        return mChunk;
+    }
+
+    /**
+     * 恢复已写入数据的长度，有记录时为记录的已提交长度，没有记录时为正常关闭的文件，即文件长度
+     */
+    private static long recoverLength(final FileChannel channel, final File lengthFile) throws IOException {
+        long size = channel.size();
+        if (!lengthFile.exists()) {
+            return size;
+        }
+        RandomAccessFile raf = null;
+        try {
+            raf = new RandomAccessFile(lengthFile, "r");
+            long length = raf.readLong();
+            if (raf.readLong() != ~length || length < 0) {
+                throw new IOException("corrupted length file: " + lengthFile);
+            }
+            // 文件可能在外部被截断
+            return Math.min(length, size);
+        } catch (IOException e) {
+            // 记录不完整时无法确定提交的长度，保留整个文件
+            e.printStackTrace();
+            return size;
+        } finally {
+            CloseUtils.closeIO(raf);
+        }
+    }
+
+    /**
+     * 记录已提交的长度，同时写入长度的反码用于校验
+     */
+    private static void writeLength(final RandomAccessFile raf, final long length) throws IOException {
+        raf.seek(0);
+        raf.writeLong(length);
+        raf.writeLong(~length);
+        raf.getFD().sync();
+    }
+}
@@ -0,0 +1,329 @@
+/*
+ * Copyright (C) 2018 xuexiangjys(xuexiangjys@163.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.xuexiang.xutil.file;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <pre>
+ *     desc   : 缓冲区池
+ *     author : agent
+ *     time   : 2026/10/18 下午12:07
+ * </pre>
+ * <p>复用 IO 读写使用的字节数组和直接缓冲区，减少频繁读写时的内存分配和 GC。
+ * 缓冲区按 2 的幂分级（4KB ~ 1MB），池中缓冲区的总大小有上限，超过上限时归还的缓冲区直接丢弃。</p>
+ * <pre>
+ *     byte[] buffer = BufferPool.getDefault().acquireBytes(8192);
+ *     try {
+ *         ...
+ *     } finally {
+ *         BufferPool.getDefault().release(buffer);
+ *     }
+ * </pre>
+ * <p>归还后不能再使用该缓冲区，也不能重复归还</p>
+ */
+public final class BufferPool {
+
+    private static final int MIN_SHIFT = 12;
+    private static final int MAX_SHIFT = 20;
+    /**
+     * 可复用的最小缓冲区大小，更小的请求按该大小分配
+     */
+    public static final int MIN_POOLED_SIZE = 1 << MIN_SHIFT;
+    /**
+     * 可复用的最大缓冲区大小，更大的请求直接分配，不进入缓冲区池
+     */
+    public static final int MAX_POOLED_SIZE = 1 << MAX_SHIFT;
+
+    private static final BufferPool DEFAULT = new BufferPool(2 * 1024 * 1024, 1024 * 1024);
+
+    /**
+     * @return 默认的缓冲区池，FileIOUtils、ZipUtils 等工具类共享
+     */
+    public static BufferPool getDefault() {
+        return DEFAULT;
+    }
+
+    private final Bucket<byte[]>[] mByteBuckets;
+    private final Bucket<ByteBuffer>[] mDirectBuckets;
+    private final long mMaxPooledBytes;
+    private final long mMaxPooledDirectBytes;
+    private final AtomicLong mPooledBytes = new AtomicLong();
+    private final AtomicLong mPooledDirectBytes = new AtomicLong();
+
+    private final AtomicLong mHitCount = new AtomicLong();
+    private final AtomicLong mMissCount = new AtomicLong();
+    private final AtomicLong mDiscardCount = new AtomicLong();
+
+    /**
+     * @param maxPooledBytes       池中字节数组总大小上限
+     * @param maxPooledDirectBytes 池中直接缓冲区总大小上限
+     */
+    public BufferPool(final long maxPooledBytes, final long maxPooledDirectBytes) {
+        mMaxPooledBytes = maxPooledBytes;
+        mMaxPooledDirectBytes = maxPooledDirectBytes;
+        mByteBuckets = newBuckets(MAX_SHIFT - MIN_SHIFT + 1);
+        mDirectBuckets = newBuckets(MAX_SHIFT - MIN_SHIFT + 1);
+    }
+
+    /**
+     * 不能直接创建泛型数组，先创建原始类型的数组再转换，数组不会暴露给外部
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <T> Bucket<T>[] newBuckets(final int count) {
+        Bucket<T>[] buckets = (Bucket<T>[]) new Bucket[count];
+        for (int i = 0; i < count; i++) {
+            buckets[i] = new Bucket<>();
+        }
+        return buckets;
+    }
+
+    /**
+     * 获取字节数组
+     *
+     * @param minSize 最小长度
+     * @return 长度不小于 minSize 的字节数组，内容未清零
+     */
+    public byte[] acquireBytes(final int minSize) {
+        int index = bucketIndex(minSize);
+        if (index < 0) {
+            mMissCount.incrementAndGet();
+            return new byte[minSize];
+        }
+        byte[] bytes = mByteBuckets[index].poll();
+        if (bytes != null) {
+            mPooledBytes.addAndGet(-bytes.length);
+            mHitCount.incrementAndGet();
+            return bytes;
+        }
+        mMissCount.incrementAndGet();
+        return new byte[1 << (index + MIN_SHIFT)];
+    }
+
+    /**
+     * 归还字节数组
+     *
+     * @param bytes 通过 {@link #acquireBytes(int)} 获取的字节数组
+     */
+    public void release(final byte[] bytes) {
+        if (bytes == null) {
+            return;
+        }
+        int index = exactBucketIndex(bytes.length);
+        if (index < 0 || !reserve(mPooledBytes, bytes.length, mMaxPooledBytes)) {
+            mDiscardCount.incrementAndGet();
+            return;
+        }
+        mByteBuckets[index].offer(bytes);
+    }
+
+    /**
+     * 获取直接缓冲区
+     *
+     * @param minCapacity 最小容量
+     * @return 容量不小于 minCapacity 且已清空（position 为 0，limit 为容量）的直接缓冲区
+     */
+    public ByteBuffer acquireDirect(final int minCapacity) {
+        int index = bucketIndex(minCapacity);
+        if (index < 0) {
+            mMissCount.incrementAndGet();
+            return ByteBuffer.allocateDirect(minCapacity);
+        }
+        ByteBuffer buffer = mDirectBuckets[index].poll();
+        if (buffer != null) {
+            mPooledDirectBytes.addAndGet(-buffer.capacity());
+            mHitCount.incrementAndGet();
+            buffer.clear();
+            return buffer;
+        }
+        mMissCount.incrementAndGet();
+        return ByteBuffer.allocateDirect(1 << (index + MIN_SHIFT));
+    }
+
+    /**
+     * 归还直接缓冲区
+     *
+     * @param buffer 通过 {@link #acquireDirect(int)} 获取的直接缓冲区
+     */
+    public void release(final ByteBuffer buffer) {
+        if (buffer == null) {
+            return;
+        }
+        int index = buffer.isDirect() ? exactBucketIndex(buffer.capacity()) : -1;
+        if (index < 0 || !reserve(mPooledDirectBytes, buffer.capacity(), mMaxPooledDirectBytes)) {
+            mDiscardCount.incrementAndGet();
+            return;
+        }
+        mDirectBuckets[index].offer(buffer);
+    }
+
+    /**
+     * 清空缓冲区池
+     */
+    public void clear() {
+        for (Bucket<byte[]> bucket : mByteBuckets) {
+            byte[] bytes;
+            while ((bytes = bucket.poll()) != null) {
+                mPooledBytes.addAndGet(-bytes.length);
+            }
+        }
+        for (Bucket<ByteBuffer> bucket : mDirectBuckets) {
+            ByteBuffer buffer;
+            while ((buffer = bucket.poll()) != null) {
+                mPooledDirectBytes.addAndGet(-buffer.capacity());
+            }
+        }
+    }
+
+    /**
+     * @return 缓冲区池统计信息快照
+     */
+    public Stats getStats() {
+        return new Stats(mHitCount.get(), mMissCount.get(), mDiscardCount.get(),
+                mPooledBytes.get(), mPooledDirectBytes.get());
+    }
+
+    /**
+     * 在总大小上限内占用额度
+     */
+    private static boolean reserve(final AtomicLong pooled, final int size, final long max) {
+        while (true) {
+            long current = pooled.get();
+            if (current + size > max) {
+                return false;
+            }
+            if (pooled.compareAndSet(current, current + size)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * @return 能容纳 size 的最小分级，超过最大分级时返回 -1
+     */
+    private static int bucketIndex(final int size) {
+        if (size > MAX_POOLED_SIZE) {
+            return -1;
+        }
+        if (size <= MIN_POOLED_SIZE) {
+            return 0;
+        }
+        return 32 - Integer.numberOfLeadingZeros(size - 1) - MIN_SHIFT;
+    }
+
+    /**
+     * @return 大小恰好为分级大小时的分级，否则返回 -1
+     */
+    private static int exactBucketIndex(final int size) {
+        if (size < MIN_POOLED_SIZE || size > MAX_POOLED_SIZE || Integer.bitCount(size) != 1) {
+            return -1;
+        }
+        return Integer.numberOfTrailingZeros(size) - MIN_SHIFT;
+    }
+
+    private static final class Bucket<T> {
+        private final ArrayDeque<T> mItems = new ArrayDeque<>();
+
+        private synchronized T poll() {
+            return mItems.pollFirst();
+        }
+
+        private synchronized void offer(final T item) {
+            mItems.offerFirst(item);
+        }
+    }
+
+    /**
+     * 缓冲区池统计信息
+     */
+    public static final class Stats {
+        private final long hitCount;
+        private final long missCount;
+        private final long discardCount;
+        private final long pooledBytes;
+        private final long pooledDirectBytes;
+
+        private Stats(final long hitCount,
+                      final long missCount,
+                      final long discardCount,
+                      final long pooledBytes,
+                      final long pooledDirectBytes) {
+            this.hitCount = hitCount;
+            this.missCount = missCount;
+            this.discardCount = discardCount;
+            this.pooledBytes = pooledBytes;
+            this.pooledDirectBytes = pooledDirectBytes;
+        }
+
+        /**
+         * @return 从池中获取到缓冲区的次数
+         */
+        public long getHitCount() {
+            return hitCount;
+        }
+
+        /**
+         * @return 池中没有可用缓冲区而新分配的次数
+         */
+        public long getMissCount() {
+            return missCount;
+        }
+
+        /**
+         * @return 命中率，没有请求时为 0
+         */
+        public double getHitRate() {
+            long total = hitCount + missCount;
+            return total == 0 ? 0 : (double) hitCount / total;
+        }
+
+        /**
+         * @return 归还时因超过上限或大小不符而丢弃的次数
+         */
+        public long getDiscardCount() {
+            return discardCount;
+        }
+
+        /**
+         * @return 池中字节数组的总大小
+         */
+        public long getPooledBytes() {
+            return pooledBytes;
+        }
+
+        /**
+         * @return 池中直接缓冲区的总大小
+         */
+        public long getPooledDirectBytes() {
+            return pooledDirectBytes;
+        }
+
+        @Override
+        public String toString() {
+            return "Stats{" +
+                    "hitCount=" + hitCount +
+                    ", missCount=" + missCount +
+                    ", hitRate=" + getHitRate() +
+                    ", discardCount=" + discardCount +
+                    ", pooledBytes=" + pooledBytes +
+                    ", pooledDirectBytes=" + pooledDirectBytes +
+                    '}';
+        }
+    }
+}
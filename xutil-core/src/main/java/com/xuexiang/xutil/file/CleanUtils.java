@@ -118,6 +118,58 @@ public final class CleanUtils {
         return deleteFilesInDir(dir);
     }
 
+    //=======================缓存大小=======================//
+
+    /**
+     * 获取内部缓存与外部缓存的总大小
+     * <p>使用 {@link DirLengthCache}，重复获取时只重新读取发生变化的目录，适合反复刷新的缓存大小显示；
+     * 通过本类清除时会同步更新</p>
+     *
+     * @return 缓存大小，单位：字节
+     */
+    public static long getCacheSize() {
+        long size = getDirLength(XUtil.getContext().getCacheDir());
+        if (Environment.MEDIA_MOUNTED.equals(Environment.getExternalStorageState())) {
+            size += getDirLength(XUtil.getContext().getExternalCacheDir());
+        }
+        return size;
+    }
+
+    /**
+     * 获取内部缓存的大小
+     * <p>/data/data/com.xxx.xxx/cache</p>
+     *
+     * @return 缓存大小，单位：字节
+     */
+    public static long getInternalCacheSize() {
+        return getDirLength(XUtil.getContext().getCacheDir());
+    }
+
+    /**
+     * 获取外部缓存的大小
+     * <p>/storage/emulated/0/android/data/com.xxx.xxx/cache</p>
+     *
+     * @return 缓存大小，单位：字节，外部存储不可用时返回 0
+     */
+    public static long getExternalCacheSize() {
+        return Environment.MEDIA_MOUNTED.equals(Environment.getExternalStorageState())
+                ? getDirLength(XUtil.getContext().getExternalCacheDir()) : 0;
+    }
+
+    /**
+     * 获取自定义目录的大小
+     *
+     * @param dir 目录
+     * @return 目录大小，单位：字节，不是目录时返回 0
+     */
+    public static long getCustomCacheSize(final File dir) {
+        return getDirLength(dir);
+    }
+
+    private static long getDirLength(final File dir) {
+        return Math.max(0, DirLengthCache.getDirLength(dir));
+    }
+
     public static boolean deleteFilesInDir(final String dirPath) {
         return deleteFilesInDir(getFileByPath(dirPath));
     }
@@ -126,6 +178,15 @@ public final class CleanUtils {
         if (dir == null) {
             return false;
         }
+        try {
+            return deleteFilesInDirInternal(dir);
+        } finally {
+            // 删除中途失败时也可能已删除了部分文件
+            DirLengthCache.invalidate(dir);
+        }
+    }
+
+    private static boolean deleteFilesInDirInternal(final File dir) {
         // 目录不存在返回 true
         if (!dir.exists()) {
             return true;
@@ -0,0 +1,289 @@
+/*
+ * Copyright (C) 2018 xuexiangjys(xuexiangjys@163.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.xuexiang.xutil.file;
+
+import com.xuexiang.xutil.common.StringUtils;
+import com.xuexiang.xutil.system.ParallelUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <pre>
+ *     desc   : 目录大小缓存
+ *     author : agent
+ *     time   : 2026/10/18 下午12:01
+ * </pre>
+ * <p>按目录缓存其直接子文件的总大小和子目录列表，以目录的修改时间作为缓存的依据。
+ * 目录中增删文件会改变目录的修改时间，因此再次计算时只需检查各级子目录的修改时间，
+ * 只有发生变化的目录才重新读取，不必再获取每个文件的大小。</p>
+ * <p>原地修改文件内容（如 FileOutputStream 追加写入的日志、数据库文件、下载中的文件）不会改变目录的修改时间，
+ * 缓存的结果会过时。通过 {@link FileIOUtils}、{@link AppendOnlyFile} 写入的文件会自动调用
+ * {@link #notifyChanged(File)}，其他方式写入的文件需要自行调用，因此只适用于写入方式可控的目录，
+ * 需要准确结果时请使用不缓存的 {@link FileUtils#getDirLength(File)}</p>
+ * <p>最多缓存 {@link #MAX_CACHED_DIRS} 个目录，超过时清空后重新缓存</p>
+ * <p>不进入指向目录的符号链接（与 {@link FileTreeUtils} 删除目录时一致），避免重复统计及链接形成的循环</p>
+ */
+public final class DirLengthCache {
+
+    private DirLengthCache() {
+        throw new UnsupportedOperationException("u can't instantiate me...");
+    }
+
+    /**
+     * 文件系统修改时间的精度，FAT 等文件系统为 2 秒，在此时间内读取的目录无法确认之后是否还有变化
+     */
+    private static final long MTIME_GRANULARITY = 2000;
+    /**
+     * 只在前两层子目录上并发计算，更深的子目录在各自线程中顺序计算
+     */
+    private static final int PARALLEL_DEPTH = 2;
+    /**
+     * 最多缓存的目录个数
+     */
+    public static final int MAX_CACHED_DIRS = 4096;
+
+    private static final ConcurrentHashMap<String, Node> CACHE = new ConcurrentHashMap<>();
+    /**
+     * 每次通知变化时递增，用于发现读取目录期间发生的变化
+     */
+    private static final AtomicInteger CHANGE_COUNT = new AtomicInteger();
+
+    /**
+     * 获取目录长度，只重新读取修改时间发生变化或被通知变化的目录
+     *
+     * @param dirPath 目录路径
+     * @return 目录长度，不是目录时返回 -1
+     */
+    public static long getDirLength(final String dirPath) {
+        return getDirLength(StringUtils.isSpace(dirPath) ? null : new File(dirPath));
+    }
+
+    /**
+     * 获取目录长度，只重新读取修改时间发生变化或被通知变化的目录
+     *
+     * @param dir 目录
+     * @return 目录长度，不是目录时返回 -1
+     */
+    public static long getDirLength(final File dir) {
+        if (dir == null || !dir.isDirectory()) {
+            return -1;
+        }
+        return compute(dir.getAbsolutePath(), 0);
+    }
+
+    /**
+     * 通知文件或目录发生了变化，下次计算时重新读取其所在的目录
+     *
+     * @param file 发生变化的文件或目录
+     */
+    public static void notifyChanged(final File file) {
+        if (file == null) {
+            return;
+        }
+        // 缓存为空时也需递增，正在读取的目录可能在之后才放入缓存
+        CHANGE_COUNT.incrementAndGet();
+        if (CACHE.isEmpty()) {
+            return;
+        }
+        File absoluteFile = file.getAbsoluteFile();
+        markStale(absoluteFile.getPath());
+        markStale(absoluteFile.getParent());
+    }
+
+    /**
+     * 移除目录及其所有子目录的缓存
+     *
+     * @param dir 目录
+     */
+    public static void invalidate(final File dir) {
+        if (dir == null) {
+            return;
+        }
+        CHANGE_COUNT.incrementAndGet();
+        removeTree(dir.getAbsolutePath());
+    }
+
+    /**
+     * 清空缓存
+     */
+    public static void clear() {
+        CHANGE_COUNT.incrementAndGet();
+        CACHE.clear();
+    }
+
+    private static long compute(final String path, final int depth) {
+        final File dir = new File(path);
+        final long mtime = dir.lastModified();
+        Node node = CACHE.get(path);
+        if (node == null || !node.isValid(mtime)) {
+            int changeCount = CHANGE_COUNT.get();
+            Node newNode = list(dir, mtime);
+            if (newNode == null) {
+                // 目录已不存在或无法读取
+                removeTree(path);
+                return 0;
+            }
+            if (changeCount != CHANGE_COUNT.get()) {
+                newNode.mStale = true;
+            }
+            if (node == null && CACHE.size() >= MAX_CACHED_DIRS) {
+                CACHE.clear();
+            }
+            CACHE.put(path, newNode);
+            if (node != null) {
+                removeVanished(node, newNode);
+            }
+            node = newNode;
+        }
+        final String[] subDirs = node.mSubDirs;
+        long length = node.mOwnLength;
+        if (depth < PARALLEL_DEPTH && subDirs.length > 1) {
+            final long[] lengths = new long[subDirs.length];
+            ParallelUtils.forEach(subDirs.length, new ParallelUtils.IndexTask() {
+                @Override
+                public void run(int index) {
+                    lengths[index] = compute(subDirs[index], depth + 1);
+                }
+            });
+            for (long subLength : lengths) {
+                length += subLength;
+            }
+        } else {
+            for (String subDir : subDirs) {
+                length += compute(subDir, depth + 1);
+            }
+        }
+        return length;
+    }
+
+    private static Node list(final File dir, final long mtime) {
+        long listedAt = System.currentTimeMillis();
+        File[] files = dir.listFiles();
+        if (files == null) {
+            return null;
+        }
+        long ownLength = 0;
+        List<String> subDirs = new ArrayList<>();
+        String canonicalPath = null;
+        for (File file : files) {
+            if (file.isDirectory()) {
+                if (canonicalPath == null) {
+                    canonicalPath = getCanonicalPath(dir);
+                }
+                if (!isSymlink(canonicalPath, file)) {
+                    subDirs.add(file.getPath());
+                }
+            } else {
+                ownLength += file.length();
+            }
+        }
+        return new Node(mtime, listedAt, ownLength, subDirs.toArray(new String[subDirs.size()]));
+    }
+
+    /**
+     * 规范路径与所在目录的规范路径加上文件名不一致时为符号链接，无法确定时也视为符号链接
+     *
+     * @param parentCanonicalPath 所在目录的规范路径
+     * @param file                文件
+     */
+    private static boolean isSymlink(final String parentCanonicalPath, final File file) {
+        String canonicalPath = getCanonicalPath(file);
+        return parentCanonicalPath == null || canonicalPath == null
+                || !canonicalPath.equals(new File(parentCanonicalPath, file.getName()).getPath());
+    }
+
+    private static String getCanonicalPath(final File file) {
+        try {
+            return file.getCanonicalPath();
+        } catch (IOException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    private static void markStale(final String path) {
+        if (path == null) {
+            return;
+        }
+        Node node = CACHE.get(path);
+        if (node != null) {
+            node.mStale = true;
+        }
+    }
+
+    /**
+     * 移除已不存在的子目录的缓存
+     */
+    private static void removeVanished(final Node oldNode, final Node newNode) {
+        if (oldNode.mSubDirs.length == 0) {
+            return;
+        }
+        Set<String> current = new HashSet<>(Arrays.asList(newNode.mSubDirs));
+        for (String subDir : oldNode.mSubDirs) {
+            if (!current.contains(subDir)) {
+                removeTree(subDir);
+            }
+        }
+    }
+
+    private static void removeTree(final String path) {
+        ArrayDeque<String> pending = new ArrayDeque<>();
+        pending.push(path);
+        while (!pending.isEmpty()) {
+            Node node = CACHE.remove(pending.pop());
+            if (node != null) {
+                for (String subDir : node.mSubDirs) {
+                    pending.push(subDir);
+                }
+            }
+        }
+    }
+
+    /**
+     * 单个目录的缓存
+     */
+    private static final class Node {
+        private final long mMtime;
+        private final long mListedAt;
+        /**
+         * 直接子文件的总大小
+         */
+        private final long mOwnLength;
+        private final String[] mSubDirs;
+        private volatile boolean mStale;
+
+        private Node(final long mtime, final long listedAt, final long ownLength, final String[] subDirs) {
+            mMtime = mtime;
+            mListedAt = listedAt;
+            mOwnLength = ownLength;
+            mSubDirs = subDirs;
+        }
+
+        private boolean isValid(final long mtime) {
+            return !mStale && mMtime == mtime && mListedAt - mMtime >= MTIME_GRANULARITY;
+        }
+    }
+}
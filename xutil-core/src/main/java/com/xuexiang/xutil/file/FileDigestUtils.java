@@ -0,0 +1,321 @@
+/*
+ * Copyright (C) 2018 xuexiangjys(xuexiangjys@163.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.xuexiang.xutil.file;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * <pre>
+ *     desc   : 文件摘要工具类
+ *     author : agent
+ *     time   : 2026/10/18 下午12:02
+ * </pre>
+ * <p>一次顺序读取同时计算多种摘要，例如上传校验时同时需要 MD5 和 SHA-256，不必将文件读取两遍</p>
+ * <p>不小于 {@link #MAP_THRESHOLD} 的文件通过 {@link MappedFile} 映射后直接计算，省去读取时的系统调用和复制；
+ * 较小的文件映射的开销大于读取，使用流读取</p>
+ * <pre>
+ *     Map&lt;String, byte[]&gt; digests = FileDigestUtils.digest(file, FileDigestUtils.MD5, FileDigestUtils.SHA256);
+ * </pre>
+ */
+public final class FileDigestUtils {
+
+    private FileDigestUtils() {
+        throw new UnsupportedOperationException("u can't instantiate me...");
+    }
+
+    public static final String MD5 = "MD5";
+    public static final String SHA1 = "SHA-1";
+    public static final String SHA256 = "SHA-256";
+    /**
+     * CRC32 校验码，结果为 4 字节大端序
+     */
+    public static final String CRC32 = "CRC32";
+
+    /**
+     * 读取缓冲区大小，较大的缓冲区可以减少读取次数
+     */
+    private static final int BUFFER_SIZE = 256 * 1024;
+    /**
+     * 使用内存映射计算摘要的最小文件大小
+     */
+    public static final long MAP_THRESHOLD = 1024 * 1024;
+    /**
+     * 映射窗口大小，为 {@link #BUFFER_SIZE} 的整数倍，每次计算的数据不会跨越窗口
+     */
+    private static final int MAP_WINDOW_SIZE = 8 * 1024 * 1024;
+
+    /**
+     * 计算文件的摘要
+     *
+     * @param filePath   文件路径
+     * @param algorithms 摘要算法，{@link #CRC32} 或 {@link MessageDigest} 支持的算法
+     * @return 算法与摘要的映射，与传入的算法顺序一致，失败返回 {@code null}
+     */
+    public static Map<String, byte[]> digest(final String filePath, final String... algorithms) {
+        return digest(FileUtils.getFileByPath(filePath), algorithms);
+    }
+
+    /**
+     * 计算文件的摘要
+     *
+     * @param file       文件
+     * @param algorithms 摘要算法，{@link #CRC32} 或 {@link MessageDigest} 支持的算法
+     * @return 算法与摘要的映射，与传入的算法顺序一致，失败返回 {@code null}
+     */
+    public static Map<String, byte[]> digest(final File file, final String... algorithms) {
+        return digest(file, algorithms, null);
+    }
+
+    /**
+     * 计算文件的摘要
+     *
+     * @param file       文件
+     * @param algorithms 摘要算法，{@link #CRC32} 或 {@link MessageDigest} 支持的算法
+     * @param listener   进度监听，可为空
+     * @return 算法与摘要的映射，与传入的算法顺序一致，失败或被取消返回 {@code null}
+     */
+    public static Map<String, byte[]> digest(final File file,
+                                             final String[] algorithms,
+                                             final OnDigestListener listener) {
+        if (file == null || algorithms == null || algorithms.length == 0) {
+            return null;
+        }
+        Hasher[] hashers = new Hasher[algorithms.length];
+        try {
+            for (int i = 0; i < algorithms.length; i++) {
+                hashers[i] = newHasher(algorithms[i]);
+            }
+        } catch (NoSuchAlgorithmException e) {
+            e.printStackTrace();
+            return null;
+        }
+        boolean completed = file.length() >= MAP_THRESHOLD
+                ? updateMapped(file, hashers, listener)
+                : updateStream(file, hashers, listener);
+        if (!completed) {
+            return null;
+        }
+        Map<String, byte[]> digests = new LinkedHashMap<>();
+        for (int i = 0; i < algorithms.length; i++) {
+            digests.put(algorithms[i], hashers[i].digest());
+        }
+        return digests;
+    }
+
+    /**
+     * 通过流读取文件并计算摘要
+     *
+     * @return {@code true}: 完成<br>{@code false}: 失败或被取消
+     */
+    private static boolean updateStream(final File file, final Hasher[] hashers, final OnDigestListener listener) {
+        InputStream is = null;
+        byte[] buffer = BufferPool.getDefault().acquireBytes(BUFFER_SIZE);
+        try {
+            is = FileUtils.getFileInputStream(file);
+            final long total = file.length();
+            long hashed = 0;
+            int len;
+            while ((len = is.read(buffer, 0, BUFFER_SIZE)) != -1) {
+                for (Hasher hasher : hashers) {
+                    hasher.update(buffer, len);
+                }
+                hashed += len;
+                if (listener != null && !listener.onProgress(hashed, total)) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (IOException e) {
+            e.printStackTrace();
+            return false;
+        } finally {
+            CloseUtils.closeIO(is);
+            BufferPool.getDefault().release(buffer);
+        }
+    }
+
+    /**
+     * 映射文件并计算摘要，无法映射时改为流读取
+     *
+     * @return {@code true}: 完成<br>{@code false}: 失败或被取消
+     */
+    private static boolean updateMapped(final File file, final Hasher[] hashers, final OnDigestListener listener) {
+        MappedFile mappedFile = MappedFile.open(file, MAP_WINDOW_SIZE);
+        if (mappedFile == null) {
+            return updateStream(file, hashers, listener);
+        }
+        byte[] scratch = BufferPool.getDefault().acquireBytes(BUFFER_SIZE);
+        try {
+            final long total = mappedFile.length();
+            long hashed = 0;
+            while (hashed < total) {
+                ByteBuffer slice = mappedFile.slice(hashed, (int) Math.min(BUFFER_SIZE, total - hashed));
+                int len = slice.remaining();
+                for (Hasher hasher : hashers) {
+                    hasher.update(slice.duplicate(), scratch);
+                }
+                hashed += len;
+                if (listener != null && !listener.onProgress(hashed, total)) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (IllegalStateException e) {
+            // 映射失败，例如地址空间不足
+            e.printStackTrace();
+            return false;
+        } finally {
+            mappedFile.close();
+            BufferPool.getDefault().release(scratch);
+        }
+    }
+
+    /**
+     * 计算文件的摘要，结果为大写的 16 进制字符串
+     *
+     * @param file       文件
+     * @param algorithms 摘要算法，{@link #CRC32} 或 {@link MessageDigest} 支持的算法
+     * @return 算法与摘要的映射，与传入的算法顺序一致，失败返回 {@code null}
+     */
+    public static Map<String, String> digest2HexString(final File file, final String... algorithms) {
+        Map<String, byte[]> digests = digest(file, algorithms);
+        if (digests == null) {
+            return null;
+        }
+        Map<String, String> result = new LinkedHashMap<>();
+        for (Map.Entry<String, byte[]> entry : digests.entrySet()) {
+            result.put(entry.getKey(), bytes2HexString(entry.getValue()));
+        }
+        return result;
+    }
+
+    /**
+     * 计算文件的单个摘要
+     *
+     * @param file      文件
+     * @param algorithm 摘要算法，{@link #CRC32} 或 {@link MessageDigest} 支持的算法
+     * @return 摘要，失败返回 {@code null}
+     */
+    public static byte[] digestSingle(final File file, final String algorithm) {
+        Map<String, byte[]> digests = digest(file, algorithm);
+        return digests != null ? digests.get(algorithm) : null;
+    }
+
+    private static Hasher newHasher(final String algorithm) throws NoSuchAlgorithmException {
+        if (CRC32.equalsIgnoreCase(algorithm)) {
+            return new Crc32Hasher();
+        }
+        return new MessageDigestHasher(MessageDigest.getInstance(algorithm));
+    }
+
+    private interface Hasher {
+        void update(byte[] buffer, int len);
+
+        /**
+         * @param buffer  映射的数据
+         * @param scratch 不能直接读取缓冲区时用于复制数据，长度不小于 buffer 的剩余长度
+         */
+        void update(ByteBuffer buffer, byte[] scratch);
+
+        byte[] digest();
+    }
+
+    private static final class MessageDigestHasher implements Hasher {
+        private final MessageDigest mDigest;
+
+        private MessageDigestHasher(final MessageDigest digest) {
+            mDigest = digest;
+        }
+
+        @Override
+        public void update(final byte[] buffer, final int len) {
+            mDigest.update(buffer, 0, len);
+        }
+
+        @Override
+        public void update(final ByteBuffer buffer, final byte[] scratch) {
+            mDigest.update(buffer);
+        }
+
+        @Override
+        public byte[] digest() {
+            return mDigest.digest();
+        }
+    }
+
+    /**
+     * {@link java.util.zip.CRC32#update(java.nio.ByteBuffer)} 需要 API 26，映射的数据先复制到字节数组中
+     */
+    private static final class Crc32Hasher implements Hasher {
+        private final CRC32 mCrc32 = new CRC32();
+
+        @Override
+        public void update(final byte[] buffer, final int len) {
+            mCrc32.update(buffer, 0, len);
+        }
+
+        @Override
+        public void update(final ByteBuffer buffer, final byte[] scratch) {
+            int len = buffer.remaining();
+            buffer.get(scratch, 0, len);
+            mCrc32.update(scratch, 0, len);
+        }
+
+        @Override
+        public byte[] digest() {
+            long value = mCrc32.getValue();
+            return new byte[]{(byte) (value >>> 24), (byte) (value >>> 16), (byte) (value >>> 8), (byte) value};
+        }
+    }
+
+    private static final char[] HEX_DIGITS =
+            {'0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'A', 'B', 'C', 'D', 'E', 'F'};
+
+    private static String bytes2HexString(final byte[] bytes) {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        char[] ret = new char[bytes.length << 1];
+        for (int i = 0, j = 0; i < bytes.length; i++) {
+            ret[j++] = HEX_DIGITS[bytes[i] >>> 4 & 0x0f];
+            ret[j++] = HEX_DIGITS[bytes[i] & 0x0f];
+        }
+        return new String(ret);
+    }
+
+    /**
+     * 摘要计算进度监听
+     */
+    public interface OnDigestListener {
+        /**
+         * 每读取一段数据回调一次，在计算摘要的线程中执行
+         *
+         * @param hashedBytes 已读取的字节数
+         * @param totalBytes  文件总字节数
+         * @return {@code true}: 继续计算<br>{@code false}: 取消计算
+         */
+        boolean onProgress(long hashedBytes, long totalBytes);
+    }
+}
@@ -28,10 +28,12 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.OutputStream;
+import java.io.Reader;
 import java.io.RandomAccessFile;
 import java.nio.ByteBuffer;
 import java.nio.MappedByteBuffer;
 import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -55,6 +57,11 @@ public final class FileIOUtils {
      */
     private static int sBufferSize = 8192;
 
+    /**
+     * FileChannel单次传输的最大长度
+     */
+    private static final long TRANSFER_CHUNK_SIZE = 64 * 1024 * 1024;
+
     //=====================写流文件=========================//
 
     /**
@@ -108,9 +115,9 @@ public final class FileIOUtils {
             return false;
         }
         OutputStream os = null;
+        byte[] data = BufferPool.getDefault().acquireBytes(sBufferSize);
         try {
             os = new BufferedOutputStream(new FileOutputStream(file, append));
-            byte[] data = new byte[sBufferSize];
             int len;
             while ((len = is.read(data, 0, sBufferSize)) != -1) {
                 os.write(data, 0, len);
@@ -122,6 +129,8 @@ public final class FileIOUtils {
             return false;
         } finally {
             CloseUtils.closeIO(is, os);
+            BufferPool.getDefault().release(data);
+            DirLengthCache.notifyChanged(file);
         }
     }
 
@@ -137,9 +146,9 @@ public final class FileIOUtils {
             return false;
         }
         OutputStream os = null;
+        byte[] data = BufferPool.getDefault().acquireBytes(sBufferSize);
         try {
             os = new BufferedOutputStream(targetOs);
-            byte[] data = new byte[sBufferSize];
             int len;
             while ((len = is.read(data, 0, sBufferSize)) != -1) {
                 os.write(data, 0, len);
@@ -151,6 +160,76 @@ public final class FileIOUtils {
             return false;
         } finally {
             CloseUtils.closeIO(is, os);
+            BufferPool.getDefault().release(data);
+        }
+    }
+
+    //=====================复制文件（通过FileChannel）=========================//
+
+    /**
+     * 复制文件
+     *
+     * @param srcFilePath  源文件路径
+     * @param destFilePath 目标文件路径
+     * @return {@code true}: 复制成功<br>{@code false}: 复制失败
+     */
+    public static boolean copyFileByChannel(final String srcFilePath, final String destFilePath) {
+        return copyFileByChannel(getFileByPath(srcFilePath), getFileByPath(destFilePath));
+    }
+
+    /**
+     * 复制文件
+     * <p>优先使用{@link FileChannel#transferTo(long, long, java.nio.channels.WritableByteChannel)}，
+     * 数据不经过Java堆；不支持时再通过直接缓冲区读写</p>
+     *
+     * @param srcFile  源文件
+     * @param destFile 目标文件，已存在时会被覆盖
+     * @return {@code true}: 复制成功<br>{@code false}: 复制失败，源文件和目标文件为同一文件时也返回{@code false}
+     */
+    public static boolean copyFileByChannel(final File srcFile, final File destFile) {
+        // 打开目标文件会将其截断，同一文件时源文件的内容会丢失
+        if (!isFileExists(srcFile) || destFile == null || isSameFile(srcFile, destFile)
+                || !createOrExistsFile(destFile)) {
+            return false;
+        }
+        FileChannel in = null;
+        FileChannel out = null;
+        try {
+            in = new FileInputStream(srcFile).getChannel();
+            out = new FileOutputStream(destFile).getChannel();
+            final long size = in.size();
+            long position = 0;
+            while (position < size) {
+                // 单次传输的长度有上限，需分段传输
+                long count = in.transferTo(position, Math.min(size - position, TRANSFER_CHUNK_SIZE), out);
+                if (count <= 0) {
+                    break;
+                }
+                position += count;
+            }
+            if (position < size) {
+                // 当前文件系统不支持或文件在复制期间被截断，从已复制的位置继续读写
+                in.position(position);
+                ByteBuffer buffer = BufferPool.getDefault().acquireDirect(sBufferSize);
+                try {
+                    while (in.read(buffer) != -1) {
+                        buffer.flip();
+                        while (buffer.hasRemaining()) {
+                            out.write(buffer);
+                        }
+                        buffer.clear();
+                    }
+                } finally {
+                    BufferPool.getDefault().release(buffer);
+                }
+            }
+            return true;
+        } catch (IOException e) {
+            e.printStackTrace();
+            return false;
+        } finally {
+            CloseUtils.closeIO(in, out);
+            DirLengthCache.notifyChanged(destFile);
         }
     }
 
@@ -217,6 +296,7 @@ public final class FileIOUtils {
             return false;
         } finally {
             CloseUtils.closeIO(bos);
+            DirLengthCache.notifyChanged(file);
         }
     }
 
@@ -292,6 +372,7 @@ public final class FileIOUtils {
 
     /**
      * 将字节数组写入文件
+     * <p>频繁写入同一文件时可不强制写入，再通过 {@link FileSyncer} 合并多次写入的同步</p>
      *
      * @param file    文件
      * @param bytes   字节数组
@@ -320,6 +401,7 @@ public final class FileIOUtils {
             return false;
         } finally {
             CloseUtils.closeIO(fc);
+            DirLengthCache.notifyChanged(file);
         }
     }
 
@@ -395,6 +477,7 @@ public final class FileIOUtils {
 
     /**
      * 将字节数组写入文件
+     * <p>每次追加都会重新映射文件末尾，频繁追加少量数据时请使用 {@link AppendOnlyFile}</p>
      *
      * @param file    文件
      * @param bytes   字节数组
@@ -423,6 +506,7 @@ public final class FileIOUtils {
             return false;
         } finally {
             CloseUtils.closeIO(fc);
+            DirLengthCache.notifyChanged(file);
         }
     }
 
@@ -491,6 +575,87 @@ public final class FileIOUtils {
             return false;
         } finally {
             CloseUtils.closeIO(bw);
+            DirLengthCache.notifyChanged(file);
+        }
+    }
+
+    //=========================原子写入（先写临时文件再重命名）===========================//
+
+    /**
+     * 原子写入字节数组
+     *
+     * @param filePath 文件路径
+     * @param bytes    字节数组
+     * @return {@code true}: 写入成功<br>{@code false}: 写入失败
+     */
+    public static boolean writeFileAtomically(final String filePath, final byte[] bytes) {
+        return writeFileAtomically(getFileByPath(filePath), bytes);
+    }
+
+    /**
+     * 原子写入字符串
+     *
+     * @param filePath 文件路径
+     * @param content  写入内容
+     * @return {@code true}: 写入成功<br>{@code false}: 写入失败
+     */
+    public static boolean writeFileAtomically(final String filePath, final String content) {
+        return writeFileAtomically(getFileByPath(filePath), content);
+    }
+
+    /**
+     * 原子写入字符串，使用 UTF-8 编码
+     *
+     * @param file    文件
+     * @param content 写入内容
+     * @return {@code true}: 写入成功<br>{@code false}: 写入失败
+     */
+    public static boolean writeFileAtomically(final File file, final String content) {
+        return content != null && writeFileAtomically(file, content.getBytes(Charset.forName("UTF-8")));
+    }
+
+    /**
+     * 原子写入字节数组
+     * <p>先写入同目录下的临时文件并同步一次，再重命名覆盖目标文件，最后同步所在目录使重命名持久化。
+     * 写入中途崩溃时目标文件保持原内容，不会出现写了一半的文件，也不必每次写入都强制同步。
+     * 同步通过 {@link FileSyncer#getDefault()} 进行，同一目录下并发的原子写入合并目录的同步</p>
+     * <p>返回 {@code false} 时目标文件可能已被替换，只是未确认持久化</p>
+     *
+     * @param file  文件
+     * @param bytes 字节数组
+     * @return {@code true}: 写入成功<br>{@code false}: 写入失败
+     */
+    public static boolean writeFileAtomically(final File file, final byte[] bytes) {
+        if (file == null || bytes == null) {
+            return false;
+        }
+        File dir = file.getAbsoluteFile().getParentFile();
+        if (!createOrExistsDir(dir)) {
+            return false;
+        }
+        File tempFile = null;
+        FileOutputStream fos = null;
+        try {
+            // 同一文件可能被并发写入，临时文件名需唯一
+            tempFile = File.createTempFile("." + file.getName() + "-", ".tmp", dir);
+            fos = new FileOutputStream(tempFile);
+            fos.write(bytes);
+            fos.close();
+            fos = null;
+            if (!FileSyncer.getDefault().sync(tempFile) || !tempFile.renameTo(file)) {
+                return false;
+            }
+            tempFile = null;
+            // 重命名修改的是目录项，同步目录后才能保证重启后可见
+            return FileSyncer.getDefault().sync(dir);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return false;
+        } finally {
+            CloseUtils.closeIO(fos);
+            if (tempFile != null) {
+                tempFile.delete();
+            }
         }
     }
 
@@ -582,6 +747,7 @@ public final class FileIOUtils {
 
     /**
      * 读取文件到字符串链表中
+     * <p>已通过 {@link LineIndex#build(File)} 构建行索引时直接定位到开始行附近</p>
      *
      * @param file        文件
      * @param st          需要读取的开始行数
@@ -599,18 +765,21 @@ public final class FileIOUtils {
         if (st > end) {
             return null;
         }
+        FileInputStream fis = null;
         BufferedReader reader = null;
         try {
             String line;
             int curLine = 1;
             List<String> list = new ArrayList<>();
-            if (isSpace(charsetName)) {
-                reader = new BufferedReader(new InputStreamReader(new FileInputStream(file)));
-            } else {
-                reader = new BufferedReader(
-                        new InputStreamReader(new FileInputStream(file), charsetName)
-                );
+            Charset charset = isSpace(charsetName) ? Charset.defaultCharset() : Charset.forName(charsetName);
+            fis = new FileInputStream(file);
+            // 已构建行索引时直接定位到附近的行首
+            LineIndex index = LineIndex.getCached(file);
+            if (index != null && LineIndex.isSupported(charset)) {
+                curLine = index.getIndexedLine(st);
+                fis.getChannel().position(index.getIndexedOffset(st));
             }
+            reader = new BufferedReader(new InputStreamReader(fis, charset));
             while ((line = reader.readLine()) != null) {
                 if (curLine > end) {
                     break;
@@ -624,6 +793,99 @@ public final class FileIOUtils {
         } catch (IOException e) {
             e.printStackTrace();
             return null;
+        } finally {
+            CloseUtils.closeIO(reader, fis);
+        }
+    }
+
+    /**
+     * 逐行读取文件
+     * <p>不会将整个文件读入内存，适合解析较大的日志、CSV 文件</p>
+     *
+     * @param filePath    文件路径
+     * @param charsetName 编码格式，为空时使用默认编码
+     * @param visitor     行访问者
+     * @return {@code true}: 读取完成<br>{@code false}: 读取失败或被访问者中止
+     */
+    public static boolean forEachLine(final String filePath,
+                                      final String charsetName,
+                                      final LineVisitor visitor) {
+        return forEachLine(getFileByPath(filePath), charsetName, visitor);
+    }
+
+    /**
+     * 逐行读取文件
+     * <p>不会将整个文件读入内存，适合解析较大的日志、CSV 文件</p>
+     *
+     * @param file        文件
+     * @param charsetName 编码格式，为空时使用默认编码
+     * @param visitor     行访问者
+     * @return {@code true}: 读取完成<br>{@code false}: 读取失败或被访问者中止
+     */
+    public static boolean forEachLine(final File file,
+                                      final String charsetName,
+                                      final LineVisitor visitor) {
+        return forEachLine(file, isSpace(charsetName) ? Charset.defaultCharset() : Charset.forName(charsetName), visitor);
+    }
+
+    /**
+     * 逐行读取文件
+     * <p>不会将整个文件读入内存，适合解析较大的日志、CSV 文件。
+     * \n、\r\n、\r 均视为换行，与 {@link BufferedReader#readLine()} 一致，行内容不包含换行符</p>
+     *
+     * @param file    文件
+     * @param charset 编码格式
+     * @param visitor 行访问者
+     * @return {@code true}: 读取完成<br>{@code false}: 读取失败或被访问者中止
+     */
+    public static boolean forEachLine(final File file,
+                                      final Charset charset,
+                                      final LineVisitor visitor) {
+        if (!isFileExists(file) || charset == null || visitor == null) {
+            return false;
+        }
+        Reader reader = null;
+        try {
+            reader = new InputStreamReader(new FileInputStream(file), charset);
+            // 读取缓冲区和行缓冲区在整个读取过程中复用
+            char[] buffer = new char[sBufferSize];
+            StringBuilder line = new StringBuilder();
+            int lineNumber = 0;
+            boolean prevCR = false;
+            boolean pending = false;
+            int len;
+            while ((len = reader.read(buffer)) != -1) {
+                int start = 0;
+                for (int i = 0; i < len; i++) {
+                    char c = buffer[i];
+                    if (c != '\n' && c != '\r') {
+                        prevCR = false;
+                        continue;
+                    }
+                    if (c == '\n' && prevCR) {
+                        // \r\n 在 \r 处已结束一行
+                        prevCR = false;
+                        start = i + 1;
+                        continue;
+                    }
+                    line.append(buffer, start, i - start);
+                    if (!visitor.onLine(line, ++lineNumber)) {
+                        return false;
+                    }
+                    line.setLength(0);
+                    pending = false;
+                    prevCR = c == '\r';
+                    start = i + 1;
+                }
+                if (start < len) {
+                    line.append(buffer, start, len - start);
+                    pending = true;
+                }
+            }
+            return !pending || visitor.onLine(line, ++lineNumber);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return false;
         } finally {
             CloseUtils.closeIO(reader);
         }
@@ -752,10 +1014,10 @@ public final class FileIOUtils {
         }
         FileInputStream fis = null;
         ByteArrayOutputStream os = null;
+        byte[] b = BufferPool.getDefault().acquireBytes(sBufferSize);
         try {
             fis = new FileInputStream(file);
             os = new ByteArrayOutputStream();
-            byte[] b = new byte[sBufferSize];
             int len;
             while ((len = fis.read(b, 0, sBufferSize)) != -1) {
                 os.write(b, 0, len);
@@ -766,6 +1028,7 @@ public final class FileIOUtils {
             return null;
         } finally {
             CloseUtils.closeIO(fis, os);
+            BufferPool.getDefault().release(b);
         }
     }
 
@@ -819,6 +1082,7 @@ public final class FileIOUtils {
 
     /**
      * 读取文件到字节数组中
+     * <p>会将映射的内容复制到堆内存中，只需读取时请使用 {@link #readFile2BufferByMap(File)} 或 {@link MappedFile}</p>
      *
      * @param file 文件
      * @return 字符数组
@@ -830,6 +1094,9 @@ public final class FileIOUtils {
         FileChannel fc = null;
         try {
             fc = new RandomAccessFile(file, "r").getChannel();
+            if (fc.size() > Integer.MAX_VALUE) {
+                return null;
+            }
             int size = (int) fc.size();
             MappedByteBuffer mbb = fc.map(FileChannel.MapMode.READ_ONLY, 0, size).load();
             byte[] result = new byte[size];
@@ -843,6 +1110,56 @@ public final class FileIOUtils {
         }
     }
 
+    /**
+     * 以只读内存映射的方式读取文件
+     *
+     * @param filePath 文件路径
+     * @return 只读缓冲区
+     */
+    public static ByteBuffer readFile2BufferByMap(final String filePath) {
+        return readFile2BufferByMap(getFileByPath(filePath));
+    }
+
+    /**
+     * 以只读内存映射的方式读取文件
+     * <p>不复制到堆内存中，关闭文件后映射仍然有效。超过 2GB 的文件请使用 {@link MappedFile} 按窗口读取</p>
+     *
+     * @param file 文件
+     * @return 只读缓冲区，失败或文件超过 2GB 时返回 {@code null}
+     */
+    public static ByteBuffer readFile2BufferByMap(final File file) {
+        if (!isFileExists(file)) {
+            return null;
+        }
+        FileChannel fc = null;
+        try {
+            fc = new RandomAccessFile(file, "r").getChannel();
+            if (fc.size() > Integer.MAX_VALUE) {
+                return null;
+            }
+            return fc.map(FileChannel.MapMode.READ_ONLY, 0, fc.size());
+        } catch (IOException e) {
+            e.printStackTrace();
+            return null;
+        } finally {
+            CloseUtils.closeIO(fc);
+        }
+    }
+
+    /**
+     * 行访问者
+     */
+    public interface LineVisitor {
+        /**
+         * 读取到一行
+         *
+         * @param line       行内容，不包含换行符。该对象会被复用，只在回调期间有效，需要保存时请调用 toString()
+         * @param lineNumber 行号，从 1 开始
+         * @return {@code true}: 继续读取<br>{@code false}: 停止读取
+         */
+        boolean onLine(CharSequence line, int lineNumber);
+    }
+
     /**
      * 设置缓冲区尺寸
      *
@@ -886,6 +1203,23 @@ public final class FileIOUtils {
         return file != null && file.exists();
     }
 
+    /**
+     * 是否为同一文件，路径写法不同或经过符号链接指向同一文件时也视为相同
+     *
+     * @return 无法确定时返回{@code true}
+     */
+    static boolean isSameFile(final File file1, final File file2) {
+        if (file1.equals(file2)) {
+            return true;
+        }
+        try {
+            return file1.getCanonicalFile().equals(file2.getCanonicalFile());
+        } catch (IOException e) {
+            e.printStackTrace();
+            return true;
+        }
+    }
+
     private static boolean isSpace(final String s) {
         if (s == null) {
             return true;
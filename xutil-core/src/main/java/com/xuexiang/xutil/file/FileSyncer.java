@@ -0,0 +1,298 @@
+/*
+ * Copyright (C) 2018 xuexiangjys(xuexiangjys@163.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.xuexiang.xutil.file;
+
+import android.os.Build;
+import android.system.ErrnoException;
+import android.system.Os;
+import android.system.OsConstants;
+
+import java.io.File;
+import java.io.FileDescriptor;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * <pre>
+ *     desc   : 文件同步器【合并多次写入的 fsync】
+ *     author : agent
+ *     time   : 2026/10/18 下午12:05
+ * </pre>
+ * <p>频繁写入同一文件时，写入时不强制同步（isForce = false），写入后调用 {@link #sync(File)} 或
+ * {@link #requestSync(File)}。同步在后台线程中进行，一次 fsync 覆盖其开始前的所有写入，
+ * 同步期间到达的请求合并到下一次同步中，多个写入者只需等待同一次 fsync。</p>
+ * <p>也可以同步目录，使目录中新建、重命名及删除的文件持久化（需要 API 21，更低版本直接视为成功）</p>
+ */
+public final class FileSyncer {
+
+    private static volatile FileSyncer sDefault;
+
+    /**
+     * @return 默认的文件同步器，收到请求后立即同步
+     */
+    public static FileSyncer getDefault() {
+        if (sDefault == null) {
+            synchronized (FileSyncer.class) {
+                if (sDefault == null) {
+                    sDefault = new FileSyncer(0);
+                }
+            }
+        }
+        return sDefault;
+    }
+
+    private final long mDelayMillis;
+    /**
+     * 各文件的同步状态，由 this 保护
+     */
+    private final Map<String, SyncState> mStates = new HashMap<>();
+    private final Set<String> mDirty = new LinkedHashSet<>();
+    private Thread mThread;
+
+    /**
+     * @param delayMillis 收到请求后等待多久再同步，等待期间的请求合并为一次同步，为 0 时只合并同步期间到达的请求
+     */
+    public FileSyncer(final long delayMillis) {
+        mDelayMillis = Math.max(0, delayMillis);
+    }
+
+    /**
+     * 请求同步文件，不等待同步完成
+     *
+     * @param file 文件
+     */
+    public void requestSync(final File file) {
+        if (file != null) {
+            request(file.getAbsolutePath());
+        }
+    }
+
+    /**
+     * 同步文件，等待覆盖本次调用之前所有写入的同步完成
+     *
+     * @param file 文件
+     * @return {@code true}: 同步成功<br>{@code false}: 同步失败或被中断
+     */
+    public boolean sync(final File file) {
+        if (file == null) {
+            return false;
+        }
+        Waiter waiter;
+        synchronized (this) {
+            SyncState state = request(file.getAbsolutePath());
+            waiter = state.addWaiter();
+        }
+        return await(waiter);
+    }
+
+    /**
+     * 同步所有已请求同步的文件，并等待同步完成
+     *
+     * @return {@code true}: 全部同步成功<br>{@code false}: 有文件同步失败或被中断
+     */
+    public boolean flush() {
+        List<Waiter> waiters = new ArrayList<>();
+        synchronized (this) {
+            // 包括等待中和正在同步的文件
+            for (SyncState state : mStates.values()) {
+                if (state.mSynced < state.mRequested) {
+                    waiters.add(state.addWaiter());
+                }
+            }
+        }
+        boolean success = true;
+        for (Waiter waiter : waiters) {
+            success &= await(waiter);
+        }
+        return success;
+    }
+
+    private synchronized SyncState request(final String path) {
+        SyncState state = mStates.get(path);
+        if (state == null) {
+            state = new SyncState();
+            mStates.put(path, state);
+        }
+        state.mRequested++;
+        mDirty.add(path);
+        if (mThread == null) {
+            mThread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    loop();
+                }
+            }, "FileSyncer");
+            mThread.setDaemon(true);
+            mThread.start();
+        }
+        notifyAll();
+        return state;
+    }
+
+    private synchronized boolean await(final Waiter waiter) {
+        try {
+            while (!waiter.mDone) {
+                wait();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        return waiter.mSuccess;
+    }
+
+    private void loop() {
+        while (true) {
+            List<String> paths;
+            synchronized (this) {
+                while (mDirty.isEmpty()) {
+                    try {
+                        wait();
+                    } catch (InterruptedException ignored) {
+                    }
+                }
+            }
+            if (mDelayMillis > 0) {
+                try {
+                    Thread.sleep(mDelayMillis);
+                } catch (InterruptedException ignored) {
+                }
+            }
+            synchronized (this) {
+                paths = new ArrayList<>(mDirty);
+                mDirty.clear();
+            }
+            for (String path : paths) {
+                SyncState state;
+                long generation;
+                synchronized (this) {
+                    state = mStates.get(path);
+                    generation = state.mRequested;
+                }
+                // 同步开始后的写入不一定被覆盖，只能确认此前请求的部分
+                boolean success = fsync(new File(path));
+                synchronized (this) {
+                    state.mSynced = generation;
+                    state.complete(generation, success);
+                    if (state.mRequested == generation && !mDirty.contains(path)) {
+                        mStates.remove(path);
+                    }
+                    notifyAll();
+                }
+            }
+        }
+    }
+
+    private static boolean fsync(final File file) {
+        if (file.isDirectory()) {
+            return fsyncDirectory(file);
+        }
+        if (!file.isFile()) {
+            return false;
+        }
+        RandomAccessFile raf = null;
+        try {
+            // fsync 作用于整个文件，不要求是写入时使用的文件描述符
+            raf = new RandomAccessFile(file, "r");
+            raf.getFD().sync();
+            return true;
+        } catch (IOException e) {
+            e.printStackTrace();
+            return false;
+        } finally {
+            CloseUtils.closeIO(raf);
+        }
+    }
+
+    /**
+     * RandomAccessFile 无法打开目录，通过 {@link Os} 打开目录后同步
+     */
+    private static boolean fsyncDirectory(final File dir) {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.LOLLIPOP) {
+            return true;
+        }
+        FileDescriptor fd = null;
+        try {
+            fd = Os.open(dir.getPath(), OsConstants.O_RDONLY, 0);
+            Os.fsync(fd);
+            return true;
+        } catch (ErrnoException e) {
+            e.printStackTrace();
+            return false;
+        } finally {
+            if (fd != null) {
+                try {
+                    Os.close(fd);
+                } catch (ErrnoException ignored) {
+                }
+            }
+        }
+    }
+
+    /**
+     * 单个文件的同步状态，由 FileSyncer 的锁保护
+     */
+    private static final class SyncState {
+        private long mRequested;
+        private long mSynced;
+        /**
+         * 等待同步完成的调用，按请求的先后排列
+         */
+        private final List<Waiter> mWaiters = new ArrayList<>();
+
+        /**
+         * 等待覆盖当前所有请求的同步
+         */
+        private Waiter addWaiter() {
+            Waiter waiter = new Waiter(mRequested);
+            mWaiters.add(waiter);
+            return waiter;
+        }
+
+        /**
+         * 一次同步完成，以该次同步的结果通知其覆盖的等待者，之后的同步不会改变其结果
+         */
+        private void complete(final long generation, final boolean success) {
+            Iterator<Waiter> iterator = mWaiters.iterator();
+            while (iterator.hasNext()) {
+                Waiter waiter = iterator.next();
+                if (waiter.mGeneration <= generation) {
+                    waiter.mDone = true;
+                    waiter.mSuccess = success;
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    private static final class Waiter {
+        private final long mGeneration;
+        private boolean mDone;
+        private boolean mSuccess;
+
+        private Waiter(final long generation) {
+            mGeneration = generation;
+        }
+    }
+}
@@ -0,0 +1,405 @@
+/*
+ * Copyright (C) 2018 xuexiangjys(xuexiangjys@163.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.xuexiang.xutil.file;
+
+import com.xuexiang.xutil.system.ParallelUtils;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * <pre>
+ *     desc   : 目录树批量操作工具类【复制、移动、删除】
+ *     author : agent
+ *     time   : 2026/10/18 上午11:53
+ * </pre>
+ * <p>先遍历一次目录树，再在共享的IO线程池中并发处理其中的文件，处理失败的文件不会中断其余文件的处理</p>
+ */
+public final class FileTreeUtils {
+
+    private FileTreeUtils() {
+        throw new UnsupportedOperationException("u can't instantiate me...");
+    }
+
+    /**
+     * 文件数不少于该值时才使用线程池并发处理，文件较少时线程切换的开销大于收益
+     */
+    private static final int PARALLEL_THRESHOLD = 32;
+
+    //=======================复制、移动目录=======================//
+
+    /**
+     * 复制目录
+     *
+     * @param srcDir   源目录
+     * @param destDir  目标目录
+     * @param listener 是否覆盖监听器
+     * @param progress 进度监听器，可为空
+     * @return 操作结果
+     */
+    public static Result copyDir(final File srcDir,
+                                 final File destDir,
+                                 final FileUtils.OnReplaceListener listener,
+                                 final OnProgressListener progress) {
+        return copyOrMoveDir(srcDir, destDir, listener, progress, false);
+    }
+
+    /**
+     * 移动目录
+     * <p>同一文件系统下直接重命名整个目录，此时不遍历目录，也不回调进度</p>
+     *
+     * @param srcDir   源目录
+     * @param destDir  目标目录
+     * @param listener 是否覆盖监听器
+     * @param progress 进度监听器，可为空
+     * @return 操作结果
+     */
+    public static Result moveDir(final File srcDir,
+                                 final File destDir,
+                                 final FileUtils.OnReplaceListener listener,
+                                 final OnProgressListener progress) {
+        return copyOrMoveDir(srcDir, destDir, listener, progress, true);
+    }
+
+    private static Result copyOrMoveDir(final File srcDir,
+                                        final File destDir,
+                                        final FileUtils.OnReplaceListener listener,
+                                        final OnProgressListener progress,
+                                        final boolean isMove) {
+        if (srcDir == null || destDir == null) {
+            return Result.failure(srcDir);
+        }
+        // 目标目录在源目录中时无法结束，分别加上路径分隔符避免误判 res 与 res1
+        final String srcPath = srcDir.getPath() + File.separator;
+        final String destPath = destDir.getPath() + File.separator;
+        if (destPath.contains(srcPath)) {
+            return Result.failure(srcDir);
+        }
+        if (!srcDir.exists() || !srcDir.isDirectory()) {
+            return Result.failure(srcDir);
+        }
+        if (destDir.exists()) {
+            if (listener != null && !listener.onReplace()) {
+                // 不需要覆盖直接返回成功
+                return Result.success();
+            }
+            Result result = deleteAllInDir(destDir, null);
+            if (!result.isSuccess()) {
+                return result;
+            }
+        }
+        // 同一文件系统下移动直接重命名整个目录
+        if (isMove && createOrExistsDir(destDir.getParentFile()) && srcDir.renameTo(destDir)) {
+            return Result.success();
+        }
+        if (!createOrExistsDir(destDir)) {
+            return Result.failure(destDir);
+        }
+        // 复制时复制符号链接指向的内容；移动时只移动链接本身，避免移走目录树以外的文件
+        final Tree tree = walk(srcDir, !isMove);
+        final Collector collector = new Collector(tree, progress);
+        for (File dir : tree.cyclicDirs) {
+            collector.addFailure(dir);
+        }
+        // 先按先序创建目录，保证文件写入时父目录已存在
+        for (int i = 1; i < tree.dirs.size(); i++) {
+            File dir = tree.dirs.get(i);
+            if (!createOrExistsDir(new File(destPath + relativePath(srcPath, dir)))) {
+                collector.addFailure(dir);
+            }
+        }
+        ParallelUtils.forEach(tree.files.size(), PARALLEL_THRESHOLD, new ParallelUtils.IndexTask() {
+            @Override
+            public void run(int index) {
+                File file = tree.files.get(index);
+                File destFile = new File(destPath + relativePath(srcPath, file));
+                boolean success;
+                if (isMove) {
+                    success = file.renameTo(destFile)
+                            || FileIOUtils.copyFileByChannel(file, destFile) && file.delete();
+                } else {
+                    success = FileIOUtils.copyFileByChannel(file, destFile);
+                }
+                collector.finish(index, success);
+            }
+        });
+        if (isMove) {
+            deleteDirs(tree, true, collector);
+        }
+        return collector.toResult();
+    }
+
+    //=======================删除目录=======================//
+
+    /**
+     * 删除目录
+     *
+     * @param dir      目录
+     * @param progress 进度监听器，可为空
+     * @return 操作结果，目录不存在时视为成功
+     */
+    public static Result deleteDir(final File dir, final OnProgressListener progress) {
+        return deleteDir(dir, progress, true);
+    }
+
+    /**
+     * 删除目录下所有东西，目录本身保留
+     *
+     * @param dir      目录
+     * @param progress 进度监听器，可为空
+     * @return 操作结果，目录不存在时视为成功
+     */
+    public static Result deleteAllInDir(final File dir, final OnProgressListener progress) {
+        return deleteDir(dir, progress, false);
+    }
+
+    private static Result deleteDir(final File dir, final OnProgressListener progress, final boolean includeRoot) {
+        if (dir == null) {
+            return Result.failure(null);
+        }
+        if (!dir.exists()) {
+            return Result.success();
+        }
+        if (!dir.isDirectory()) {
+            return Result.failure(dir);
+        }
+        // 不进入符号链接指向的目录，只删除链接本身，避免误删目录树以外的文件
+        final Tree tree = walk(dir, false);
+        final Collector collector = new Collector(tree, progress);
+        ParallelUtils.forEach(tree.files.size(), PARALLEL_THRESHOLD, new ParallelUtils.IndexTask() {
+            @Override
+            public void run(int index) {
+                File file = tree.files.get(index);
+                collector.finish(index, file.delete() || !file.exists());
+            }
+        });
+        deleteDirs(tree, includeRoot, collector);
+        return collector.toResult();
+    }
+
+    /**
+     * 按后序删除目录，目录中有处理失败的文件时其删除失败不再重复记录
+     */
+    private static void deleteDirs(final Tree tree, final boolean includeRoot, final Collector collector) {
+        for (int i = tree.dirs.size() - 1; i >= (includeRoot ? 0 : 1); i--) {
+            File dir = tree.dirs.get(i);
+            if (!dir.delete() && dir.exists()) {
+                String[] names = dir.list();
+                if (names == null || names.length == 0) {
+                    collector.addFailure(dir);
+                }
+            }
+        }
+    }
+
+    //=======================遍历=======================//
+
+    /**
+     * 遍历得到的目录树
+     */
+    private static final class Tree {
+        /**
+         * 所有目录（包括根目录），按先序排列，父目录总在子目录之前
+         */
+        private final List<File> dirs = new ArrayList<>();
+        private final List<File> files = new ArrayList<>();
+        private final List<Long> lengths = new ArrayList<>();
+        /**
+         * 进入符号链接时因形成循环而未进入的目录
+         */
+        private final List<File> cyclicDirs = new ArrayList<>();
+        private long totalBytes;
+    }
+
+    /**
+     * 遍历目录树，不会因目录过深而栈溢出
+     *
+     * @param root        根目录
+     * @param followLinks 是否进入符号链接指向的目录，进入时不会重复进入上层目录
+     * @return 目录树
+     */
+    private static Tree walk(final File root, final boolean followLinks) {
+        final Tree tree = new Tree();
+        tree.dirs.add(root);
+        new FileWalker(root)
+                .setFollowLinks(followLinks)
+                .walk(new FileWalker.Visitor() {
+                    @Override
+                    public FileWalker.Action onVisit(File file, int depth, boolean isEnteringDir) {
+                        if (isEnteringDir) {
+                            tree.dirs.add(file);
+                        } else if (followLinks && file.isDirectory()) {
+                            // 指向上层目录的符号链接，进入会形成循环
+                            tree.cyclicDirs.add(file);
+                        } else {
+                            long length = file.length();
+                            tree.files.add(file);
+                            tree.lengths.add(length);
+                            tree.totalBytes += length;
+                        }
+                        return FileWalker.Action.CONTINUE;
+                    }
+                });
+        return tree;
+    }
+
+    private static String relativePath(final String rootPath, final File file) {
+        return file.getPath().substring(rootPath.length());
+    }
+
+    private static boolean createOrExistsDir(final File file) {
+        return file != null && (file.exists() ? file.isDirectory() : file.mkdirs());
+    }
+
+    /**
+     * 汇总各线程的处理结果并回调进度
+     */
+    private static final class Collector {
+        private final Tree tree;
+        private final OnProgressListener progress;
+        private final List<File> failedFiles = new ArrayList<>();
+        private int finishedCount;
+        private int successCount;
+        private long finishedBytes;
+
+        private Collector(final Tree tree, final OnProgressListener progress) {
+            this.tree = tree;
+            this.progress = progress;
+        }
+
+        private synchronized void finish(final int index, final boolean success) {
+            finishedCount++;
+            finishedBytes += tree.lengths.get(index);
+            if (success) {
+                successCount++;
+            } else {
+                failedFiles.add(tree.files.get(index));
+            }
+            if (progress != null) {
+                progress.onProgress(finishedCount, tree.files.size(), finishedBytes, tree.totalBytes);
+            }
+        }
+
+        private synchronized void addFailure(final File file) {
+            failedFiles.add(file);
+        }
+
+        private synchronized Result toResult() {
+            return new Result(tree.files.size(), successCount, tree.totalBytes, failedFiles, false);
+        }
+    }
+
+    /**
+     * 操作结果
+     */
+    public static final class Result {
+        private final int totalCount;
+        private final int successCount;
+        private final long totalBytes;
+        private final List<File> failedFiles;
+        /**
+         * 参数不合法等原因未能开始处理
+         */
+        private final boolean aborted;
+
+        private Result(final int totalCount,
+                       final int successCount,
+                       final long totalBytes,
+                       final List<File> failedFiles,
+                       final boolean aborted) {
+            this.totalCount = totalCount;
+            this.successCount = successCount;
+            this.totalBytes = totalBytes;
+            this.failedFiles = Collections.unmodifiableList(new ArrayList<>(failedFiles));
+            this.aborted = aborted;
+        }
+
+        private static Result success() {
+            return new Result(0, 0, 0, Collections.<File>emptyList(), false);
+        }
+
+        private static Result failure(final File file) {
+            List<File> failedFiles = new ArrayList<>();
+            if (file != null) {
+                failedFiles.add(file);
+            }
+            return new Result(0, 0, 0, failedFiles, true);
+        }
+
+        /**
+         * @return {@code true}: 全部成功<br>{@code false}: 有文件或目录处理失败
+         */
+        public boolean isSuccess() {
+            return !aborted && failedFiles.isEmpty();
+        }
+
+        /**
+         * @return 需要处理的文件个数（不包括目录）
+         */
+        public int getTotalCount() {
+            return totalCount;
+        }
+
+        /**
+         * @return 处理成功的文件个数
+         */
+        public int getSuccessCount() {
+            return successCount;
+        }
+
+        /**
+         * @return 需要处理的文件总大小，单位：字节
+         */
+        public long getTotalBytes() {
+            return totalBytes;
+        }
+
+        /**
+         * @return 处理失败的文件或目录
+         */
+        public List<File> getFailedFiles() {
+            return failedFiles;
+        }
+
+        @Override
+        public String toString() {
+            return "Result{" +
+                    "success=" + isSuccess() +
+                    ", totalCount=" + totalCount +
+                    ", successCount=" + successCount +
+                    ", totalBytes=" + totalBytes +
+                    ", failedFiles=" + failedFiles +
+                    '}';
+        }
+    }
+
+    /**
+     * 进度监听器
+     * <p>每处理完一个文件回调一次，回调在处理文件的线程中串行执行</p>
+     */
+    public interface OnProgressListener {
+        /**
+         * @param finishedCount 已处理的文件个数
+         * @param totalCount    需要处理的文件个数
+         * @param finishedBytes 已处理的文件大小，单位：字节
+         * @param totalBytes    需要处理的文件总大小，单位：字节
+         */
+        void onProgress(int finishedCount, int totalCount, long finishedBytes, long totalBytes);
+    }
+}
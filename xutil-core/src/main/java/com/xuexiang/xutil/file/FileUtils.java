@@ -41,8 +41,6 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.net.HttpURLConnection;
 import java.net.URL;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -59,8 +57,6 @@ public final class FileUtils {
         throw new UnsupportedOperationException("u can't instantiate me...");
     }
 
-    private static final String LINE_SEP = System.getProperty("line.separator");
-
     //================文件路径获取===================//
 
     /**
@@ -500,51 +496,11 @@ public final class FileUtils {
                                          final File destDir,
                                          final OnReplaceListener listener,
                                          final boolean isMove) {
-        if (srcDir == null || destDir == null) {
-            return false;
-        }
-        // 如果目标目录在源目录中则返回 false，看不懂的话好好想想递归怎么结束
-        // srcPath : F:\\MyGithub\\AndroidUtilCode\\utilcode\\src\\test\\res
-        // destPath: F:\\MyGithub\\AndroidUtilCode\\utilcode\\src\\test\\res1
-        // 为防止以上这种情况出现出现误判，须分别在后面加个路径分隔符
-        String srcPath = srcDir.getPath() + File.separator;
-        String destPath = destDir.getPath() + File.separator;
-        if (destPath.contains(srcPath)) {
-            return false;
-        }
-        // 源文件不存在或者不是目录则返回 false
-        if (!srcDir.exists() || !srcDir.isDirectory()) {
-            return false;
-        }
-        if (destDir.exists()) {
-            if (listener == null || listener.onReplace()) {// 需要覆盖则删除旧目录
-                if (!deleteAllInDir(destDir)) {// 删除文件失败的话返回 false
-                    return false;
-                }
-            } else {// 不需要覆盖直接返回即可 true
-                return true;
-            }
-        }
-        // 目标目录不存在返回 false
-        if (!createOrExistsDir(destDir)) {
-            return false;
-        }
-        File[] files = srcDir.listFiles();
-        for (File file : files) {
-            File oneDestFile = new File(destPath + file.getName());
-            if (file.isFile()) {
-                // 如果操作失败返回 false
-                if (!copyOrMoveFile(file, oneDestFile, listener, isMove)) {
-                    return false;
-                }
-            } else if (file.isDirectory()) {
-                // 如果操作失败返回 false
-                if (!copyOrMoveDir(file, oneDestFile, listener, isMove)) {
-                    return false;
-                }
-            }
-        }
-        return !isMove || deleteDir(srcDir);
+        // 遍历一次目录树后并发复制或移动，需要进度或失败文件时直接使用 FileTreeUtils
+        FileTreeUtils.Result result = isMove
+                ? FileTreeUtils.moveDir(srcDir, destDir, listener, null)
+                : FileTreeUtils.copyDir(srcDir, destDir, listener, null);
+        return result.isSuccess();
     }
 
     /**
@@ -584,7 +540,7 @@ public final class FileUtils {
             return false;
         }
         // 如果源文件和目标文件相同则返回 false
-        if (srcFile.equals(destFile)) {
+        if (FileIOUtils.isSameFile(srcFile, destFile)) {
             return false;
         }
         // 源文件不存在或者不是文件则返回 false
@@ -604,13 +560,12 @@ public final class FileUtils {
         if (!createOrExistsDir(destFile.getParentFile())) {
             return false;
         }
-        try {
-            return FileIOUtils.writeFileFromIS(destFile, new FileInputStream(srcFile), false)
-                    && !(isMove && !deleteFile(srcFile));
-        } catch (FileNotFoundException e) {
-            e.printStackTrace();
-            return false;
+        // 同一文件系统下移动直接重命名，不同文件系统时重命名失败再复制
+        if (isMove && srcFile.renameTo(destFile)) {
+            return true;
         }
+        return FileIOUtils.copyFileByChannel(srcFile, destFile)
+                && !(isMove && !deleteFile(srcFile));
     }
 
     //=======================文件复制=======================//
@@ -774,33 +729,7 @@ public final class FileUtils {
      * @return {@code true}: 删除成功<br>{@code false}: 删除失败
      */
     public static boolean deleteDir(final File dir) {
-        if (dir == null) {
-            return false;
-        }
-        // 目录不存在返回 true
-        if (!dir.exists()) {
-            return true;
-        }
-        // 不是目录返回 false
-        if (!dir.isDirectory()) {
-            return false;
-        }
-        // 现在文件存在且是文件夹
-        File[] files = dir.listFiles();
-        if (files != null && files.length != 0) {
-            for (File file : files) {
-                if (file.isFile()) {
-                    if (!file.delete()) {
-                        return false;
-                    }
-                } else if (file.isDirectory()) {
-                    if (!deleteDir(file)) {
-                        return false;
-                    }
-                }
-            }
-        }
-        return dir.delete();
+        return FileTreeUtils.deleteDir(dir, null).isSuccess();
     }
 
     /**
@@ -856,12 +785,7 @@ public final class FileUtils {
      * @return {@code true}: 删除成功<br>{@code false}: 删除失败
      */
     public static boolean deleteAllInDir(final File dir) {
-        return deleteFilesInDirWithFilter(dir, new FileFilter() {
-            @Override
-            public boolean accept(File pathname) {
-                return true;
-            }
-        });
+        return FileTreeUtils.deleteAllInDir(dir, null).isSuccess();
     }
 
     /**
@@ -1033,6 +957,7 @@ public final class FileUtils {
 
     /**
      * 获取目录下所有过滤的文件
+     * <p>需要边遍历边处理、限制深度或中途终止时请直接使用 {@link FileWalker}</p>
      *
      * @param dir         目录
      * @param filter      过滤器
@@ -1046,17 +971,12 @@ public final class FileUtils {
             return null;
         }
         List<File> list = new ArrayList<>();
-        File[] files = dir.listFiles();
-        if (files != null && files.length != 0) {
-            for (File file : files) {
-                if (filter.accept(file)) {
-                    list.add(file);
-                }
-                if (isRecursive && file.isDirectory()) {
-                    //noinspection ConstantConditions
-                    list.addAll(listFilesInDirWithFilter(file, filter, true));
-                }
-            }
+        FileWalker walker = new FileWalker(dir).setFilter(filter);
+        if (!isRecursive) {
+            walker.setMaxDepth(1);
+        }
+        for (File file : walker) {
+            list.add(file);
         }
         return list;
     }
@@ -1138,41 +1058,13 @@ public final class FileUtils {
 
     /**
      * 获取文件行数
-     * <p>比 readLine 要快很多</p>
+     * <p>比 readLine 要快很多，\n、\r\n、\r 均视为换行，详见 {@link LineIndex#countLines(File)}</p>
      *
      * @param file 文件
      * @return 文件行数
      */
     public static int getFileLines(final File file) {
-        int count = 1;
-        InputStream is = null;
-        try {
-            is = new BufferedInputStream(new FileInputStream(file));
-            byte[] buffer = new byte[1024];
-            int readChars;
-            if (LINE_SEP.endsWith("\n")) {
-                while ((readChars = is.read(buffer, 0, 1024)) != -1) {
-                    for (int i = 0; i < readChars; ++i) {
-                        if (buffer[i] == '\n') {
-                            ++count;
-                        }
-                    }
-                }
-            } else {
-                while ((readChars = is.read(buffer, 0, 1024)) != -1) {
-                    for (int i = 0; i < readChars; ++i) {
-                        if (buffer[i] == '\r') {
-                            ++count;
-                        }
-                    }
-                }
-            }
-        } catch (IOException e) {
-            e.printStackTrace();
-        } finally {
-            CloseUtils.closeIO(is);
-        }
-        return count;
+        return LineIndex.countLines(file);
     }
 
     /**
@@ -1230,6 +1122,7 @@ public final class FileUtils {
 
     /**
      * 获取目录长度
+     * <p>每次都读取所有文件的大小，频繁获取写入方式可控的大目录时可使用 {@link DirLengthCache}</p>
      *
      * @param dir 目录
      * @return 目录长度
@@ -1239,14 +1132,9 @@ public final class FileUtils {
             return -1;
         }
         long len = 0;
-        File[] files = dir.listFiles();
-        if (files != null && files.length != 0) {
-            for (File file : files) {
-                if (file.isDirectory()) {
-                    len += getDirLength(file);
-                } else {
-                    len += file.length();
-                }
+        for (File file : new FileWalker(dir)) {
+            if (!file.isDirectory()) {
+                len += file.length();
             }
         }
         return len;
@@ -1322,30 +1210,13 @@ public final class FileUtils {
 
     /**
      * 获取文件的 MD5 校验码
+     * <p>需要同时计算多种摘要、获取进度或取消时请使用 {@link FileDigestUtils}</p>
      *
      * @param file 文件
      * @return 文件的 MD5 校验码
      */
     public static byte[] getFileMD5(final File file) {
-        if (file == null) {
-            return null;
-        }
-        InputStream fis = null;
-        try {
-            fis = getFileInputStream(file);
-            MessageDigest digest = MessageDigest.getInstance("MD5");
-            byte[] buffer = new byte[8192];
-            int len;
-            while ((len = fis.read(buffer)) != -1) {
-                digest.update(buffer, 0, len);
-            }
-            return digest.digest();
-        } catch (NoSuchAlgorithmException | IOException e) {
-            e.printStackTrace();
-        } finally {
-            CloseUtils.closeIO(fis);
-        }
-        return null;
+        return FileDigestUtils.digestSingle(file, FileDigestUtils.MD5);
     }
 
     /**
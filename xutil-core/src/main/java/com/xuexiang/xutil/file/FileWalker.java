@@ -0,0 +1,341 @@
+/*
+ * Copyright (C) 2018 xuexiangjys(xuexiangjys@163.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.xuexiang.xutil.file;
+
+import java.io.File;
+import java.io.FileFilter;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * <pre>
+ *     desc   : 目录遍历器
+ *     author : agent
+ *     time   : 2026/10/18 上午11:58
+ * </pre>
+ * <p>以迭代代替递归按先序（与 {@link File#listFiles()} 顺序一致）遍历目录，
+ * 只保存当前路径上各层目录的子文件列表，边遍历边返回结果，可限制深度、中途终止或在其他线程中取消</p>
+ * <pre>
+ *     for (File file : new FileWalker(dir).setMaxDepth(2).setFilter(filter)) {
+ *         ...
+ *     }
+ * </pre>
+ */
+public final class FileWalker implements Iterable<File> {
+
+    /**
+     * 不限制遍历深度
+     */
+    public static final int UNLIMITED_DEPTH = Integer.MAX_VALUE;
+
+    private final File mRoot;
+    private int mMaxDepth = UNLIMITED_DEPTH;
+    private FileFilter mFilter;
+    private FileFilter mDirFilter;
+    private boolean mFollowLinks = true;
+    private volatile boolean mCancelled;
+
+    /**
+     * @param root 需要遍历的根目录，根目录本身不在结果中
+     */
+    public FileWalker(final File root) {
+        mRoot = root;
+    }
+
+    /**
+     * 设置最大遍历深度，根目录的直接子文件深度为1
+     *
+     * @param maxDepth 最大深度，1 表示不递归进子目录
+     * @return FileWalker
+     */
+    public FileWalker setMaxDepth(final int maxDepth) {
+        if (maxDepth < 1) {
+            throw new IllegalArgumentException("maxDepth must be greater than 0");
+        }
+        mMaxDepth = maxDepth;
+        return this;
+    }
+
+    /**
+     * 设置结果过滤器，只决定文件是否出现在结果中，不影响是否进入子目录
+     *
+     * @param filter 过滤器，为空则返回所有文件和目录
+     * @return FileWalker
+     */
+    public FileWalker setFilter(final FileFilter filter) {
+        mFilter = filter;
+        return this;
+    }
+
+    /**
+     * 设置目录过滤器，不接受的目录不会进入，用于在遍历时剪掉整棵子树
+     *
+     * @param dirFilter 目录过滤器，为空则进入所有目录
+     * @return FileWalker
+     */
+    public FileWalker setDirFilter(final FileFilter dirFilter) {
+        mDirFilter = dirFilter;
+        return this;
+    }
+
+    /**
+     * 设置是否进入符号链接指向的目录，默认进入
+     * <p>进入时不会进入当前路径上的上层目录，避免指向上层的链接造成死循环</p>
+     *
+     * @param followLinks 是否进入
+     * @return FileWalker
+     */
+    public FileWalker setFollowLinks(final boolean followLinks) {
+        mFollowLinks = followLinks;
+        return this;
+    }
+
+    /**
+     * 取消遍历，可在其他线程中调用，正在进行的遍历会尽快结束
+     */
+    public void cancel() {
+        mCancelled = true;
+    }
+
+    /**
+     * @return 是否已取消
+     */
+    public boolean isCancelled() {
+        return mCancelled;
+    }
+
+    /**
+     * 以访问者的方式遍历
+     *
+     * @param visitor 访问者
+     * @return {@code true}: 遍历完成<br>{@code false}: 根目录不是目录、被访问者终止或被取消
+     */
+    public boolean walk(final Visitor visitor) {
+        if (mRoot == null || !mRoot.isDirectory()) {
+            return false;
+        }
+        Walk walk = new Walk();
+        File file;
+        while ((file = walk.advance()) != null) {
+            if (mFilter != null && !mFilter.accept(file)) {
+                continue;
+            }
+            Action action = visitor.onVisit(file, walk.mDepth, walk.mPendingDir == file);
+            if (action == Action.TERMINATE) {
+                return false;
+            }
+            if (action == Action.SKIP_SUBTREE) {
+                walk.skipSubtree();
+            }
+        }
+        return !mCancelled;
+    }
+
+    /**
+     * 以迭代器的方式遍历，每次只读取需要的目录，可随时停止
+     *
+     * @return 迭代器，根目录不是目录时为空
+     */
+    @Override
+    public Iterator<File> iterator() {
+        final Walk walk = new Walk();
+        return new Iterator<File>() {
+            private File mNext;
+
+            @Override
+            public boolean hasNext() {
+                while (mNext == null) {
+                    File file = walk.advance();
+                    if (file == null) {
+                        return false;
+                    }
+                    if (mFilter == null || mFilter.accept(file)) {
+                        mNext = file;
+                    }
+                }
+                return true;
+            }
+
+            @Override
+            public File next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                File next = mNext;
+                mNext = null;
+                return next;
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    /**
+     * 一次遍历的状态，栈中每层保存一个目录的子文件列表及读取位置
+     */
+    private final class Walk {
+        private final ArrayDeque<Level> mLevels = new ArrayDeque<>();
+        /**
+         * 最近一次返回的文件的深度
+         */
+        private int mDepth;
+        /**
+         * 最近一次返回的、将要进入的目录及其规范路径
+         */
+        private File mPendingDir;
+        private String mPendingPath;
+
+        private Walk() {
+            if (mRoot != null && mRoot.isDirectory()) {
+                push(mRoot, getCanonicalPath(mRoot));
+            }
+        }
+
+        /**
+         * @return 下一个文件，遍历结束或已取消时返回 {@code null}
+         */
+        private File advance() {
+            if (mPendingDir != null) {
+                push(mPendingDir, mPendingPath);
+                skipSubtree();
+            }
+            while (!mCancelled && !mLevels.isEmpty()) {
+                Level level = mLevels.peek();
+                if (level.mIndex >= level.mFiles.length) {
+                    mLevels.pop();
+                    continue;
+                }
+                File file = level.mFiles[level.mIndex++];
+                mDepth = mLevels.size();
+                if (mDepth < mMaxDepth && file.isDirectory()) {
+                    final String canonicalPath = getCanonicalPath(file);
+                    if ((mFollowLinks ? !isAncestor(canonicalPath) : !isSymlink(level, file, canonicalPath))
+                            && (mDirFilter == null || mDirFilter.accept(file))) {
+                        // 延迟到取下一个文件时再读取子目录，以便访问者跳过
+                        mPendingDir = file;
+                        mPendingPath = canonicalPath;
+                    }
+                }
+                return file;
+            }
+            return null;
+        }
+
+        private void skipSubtree() {
+            mPendingDir = null;
+            mPendingPath = null;
+        }
+
+        private void push(final File dir, final String canonicalPath) {
+            File[] files = dir.listFiles();
+            if (files == null || files.length == 0) {
+                return;
+            }
+            mLevels.push(new Level(files, canonicalPath));
+        }
+
+        /**
+         * 规范路径与所在目录的规范路径加上文件名不一致时为符号链接
+         */
+        private boolean isSymlink(final Level level, final File dir, final String canonicalPath) {
+            return level.mCanonicalPath != null && canonicalPath != null
+                    && !canonicalPath.equals(childPath(level.mCanonicalPath, dir.getName()));
+        }
+
+        /**
+         * 是否为当前路径上的目录，进入会形成循环
+         */
+        private boolean isAncestor(final String canonicalPath) {
+            if (canonicalPath == null) {
+                return false;
+            }
+            for (Level level : mLevels) {
+                if (canonicalPath.equals(level.mCanonicalPath)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static final class Level {
+        private final File[] mFiles;
+        /**
+         * 所在目录的规范路径，获取失败时为空
+         */
+        private final String mCanonicalPath;
+        private int mIndex;
+
+        private Level(final File[] files, final String canonicalPath) {
+            mFiles = files;
+            mCanonicalPath = canonicalPath;
+        }
+    }
+
+    private static String childPath(final String parentPath, final String name) {
+        if (parentPath == null) {
+            return null;
+        }
+        return parentPath.endsWith(File.separator) ? parentPath + name : parentPath + File.separator + name;
+    }
+
+    private static String getCanonicalPath(final File file) {
+        try {
+            return file.getCanonicalPath();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 访问后的操作
+     */
+    public enum Action {
+        /**
+         * 继续遍历
+         */
+        CONTINUE,
+        /**
+         * 不进入当前目录，对文件无效
+         */
+        SKIP_SUBTREE,
+        /**
+         * 终止遍历
+         */
+        TERMINATE
+    }
+
+    /**
+     * 访问者
+     */
+    public interface Visitor {
+        /**
+         * 访问文件或目录，目录在其子文件之前访问
+         *
+         * @param file          文件或目录
+         * @param depth         深度，根目录的直接子文件为1
+         * @param isEnteringDir 是否为将要进入的目录，超过最大深度、被目录过滤器排除或不进入的符号链接目录为{@code false}
+         * @return 访问后的操作
+         */
+        Action onVisit(File file, int depth, boolean isEnteringDir);
+    }
+}
@@ -0,0 +1,309 @@
+/*
+ * Copyright (C) 2018 xuexiangjys(xuexiangjys@163.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.xuexiang.xutil.file;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * <pre>
+ *     desc   : 文件行索引
+ *     author : agent
+ *     time   : 2026/10/18 下午12:03
+ * </pre>
+ * <p>按字节扫描文件，\n、\r\n、\r 均视为换行，每隔固定行数记录一次行首的偏移量，
+ * 读取指定行时可直接定位到附近的行首，不必从文件头开始读取。</p>
+ * <p>按字节识别换行，只适用于换行符为单字节的编码（UTF-8、GBK、ISO-8859-1 等），不适用于 UTF-16</p>
+ */
+public final class LineIndex {
+
+    /**
+     * 默认每隔 1024 行记录一次行首偏移量
+     */
+    public static final int DEFAULT_INTERVAL = 1024;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    /**
+     * 最近构建的索引个数上限
+     */
+    private static final int MAX_CACHED = 4;
+    /**
+     * 最近构建的索引，供 {@link FileIOUtils#readFile2List(File, int, int, String)} 定位使用
+     */
+    private static final Map<String, LineIndex> CACHE = new LinkedHashMap<String, LineIndex>(MAX_CACHED, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, LineIndex> eldest) {
+            return size() > MAX_CACHED;
+        }
+    };
+
+    private final String mPath;
+    private final long mLength;
+    private final long mLastModified;
+    private final int mInterval;
+    private final int mLineCount;
+    /**
+     * 第 i 个元素为第 i * interval + 1 行的行首偏移量
+     */
+    private final long[] mOffsets;
+
+    private LineIndex(final String path,
+                      final long length,
+                      final long lastModified,
+                      final int interval,
+                      final int lineCount,
+                      final long[] offsets) {
+        mPath = path;
+        mLength = length;
+        mLastModified = lastModified;
+        mInterval = interval;
+        mLineCount = lineCount;
+        mOffsets = offsets;
+    }
+
+    /**
+     * 获取文件行数
+     * <p>行数为换行符个数加 1，文件以换行符结尾时最后一个空行也计算在内</p>
+     *
+     * @param file 文件
+     * @return 文件行数
+     */
+    public static int countLines(final File file) {
+        return scan(file, 0).mLineCount;
+    }
+
+    /**
+     * 构建文件的行索引，构建后 {@link FileIOUtils#readFile2List(File, int, int, String)} 在文件未修改前会使用该索引定位
+     *
+     * @param file 文件
+     * @return 行索引，读取失败返回 {@code null}
+     */
+    public static LineIndex build(final File file) {
+        return build(file, DEFAULT_INTERVAL);
+    }
+
+    /**
+     * 构建文件的行索引，构建后 {@link FileIOUtils#readFile2List(File, int, int, String)} 在文件未修改前会使用该索引定位
+     *
+     * @param file     文件
+     * @param interval 每隔多少行记录一次行首偏移量，越小定位越快，占用内存越多
+     * @return 行索引，读取失败返回 {@code null}
+     */
+    public static LineIndex build(final File file, final int interval) {
+        if (interval < 1) {
+            throw new IllegalArgumentException("interval must be greater than 0");
+        }
+        if (file == null || !file.isFile()) {
+            return null;
+        }
+        Scanner scanner = scan(file, interval);
+        if (scanner.mFailed) {
+            return null;
+        }
+        String path = file.getAbsolutePath();
+        LineIndex index = new LineIndex(path, scanner.mLength, scanner.mLastModified, interval,
+                scanner.mLineCount, Arrays.copyOf(scanner.mOffsets, scanner.mOffsetCount));
+        synchronized (CACHE) {
+            CACHE.put(path, index);
+        }
+        return index;
+    }
+
+    /**
+     * 获取最近构建且仍然有效的行索引
+     *
+     * @param file 文件
+     * @return 行索引，没有时返回 {@code null}
+     */
+    public static LineIndex getCached(final File file) {
+        if (file == null) {
+            return null;
+        }
+        String path = file.getAbsolutePath();
+        LineIndex index;
+        synchronized (CACHE) {
+            index = CACHE.get(path);
+        }
+        if (index == null) {
+            return null;
+        }
+        if (!index.isValid(file)) {
+            synchronized (CACHE) {
+                CACHE.remove(path);
+            }
+            return null;
+        }
+        return index;
+    }
+
+    /**
+     * 编码的换行符是否为单字节，只有这样的编码才能使用按字节构建的索引
+     *
+     * @param charset 编码
+     * @return {@code true}: 是<br>{@code false}: 否
+     */
+    public static boolean isSupported(final Charset charset) {
+        try {
+            ByteBuffer encoded = charset.newEncoder().encode(CharBuffer.wrap("\r\n"));
+            return encoded.remaining() == 2 && encoded.get(0) == '\r' && encoded.get(1) == '\n';
+        } catch (CharacterCodingException | UnsupportedOperationException e) {
+            // 只能解码不能编码的字符集
+            return false;
+        }
+    }
+
+    /**
+     * 索引是否仍然有效，文件长度或修改时间变化后失效
+     *
+     * @param file 文件
+     * @return {@code true}: 有效<br>{@code false}: 失效
+     */
+    public boolean isValid(final File file) {
+        return file != null && mPath.equals(file.getAbsolutePath())
+                && file.length() == mLength && file.lastModified() == mLastModified;
+    }
+
+    /**
+     * @return 文件行数，与 {@link #countLines(File)} 一致
+     */
+    public int getLineCount() {
+        return mLineCount;
+    }
+
+    /**
+     * 获取不晚于指定行的最近的已索引行
+     *
+     * @param line 行号，从 1 开始
+     * @return 已索引的行号
+     */
+    public int getIndexedLine(final int line) {
+        if (line <= 1) {
+            return 1;
+        }
+        int slot = Math.min((line - 1) / mInterval, mOffsets.length - 1);
+        return slot * mInterval + 1;
+    }
+
+    /**
+     * 获取 {@link #getIndexedLine(int)} 所返回行的行首偏移量
+     *
+     * @param line 行号，从 1 开始
+     * @return 字节偏移量
+     */
+    public long getIndexedOffset(final int line) {
+        if (line <= 1) {
+            return 0;
+        }
+        return mOffsets[Math.min((line - 1) / mInterval, mOffsets.length - 1)];
+    }
+
+    /**
+     * 扫描文件
+     *
+     * @param file     文件
+     * @param interval 记录行首偏移量的间隔，为 0 时只计算行数
+     * @return 扫描结果
+     */
+    private static Scanner scan(final File file, final int interval) {
+        Scanner scanner = new Scanner(interval);
+        FileChannel fc = null;
+        byte[] bytes = BufferPool.getDefault().acquireBytes(BUFFER_SIZE);
+        try {
+            scanner.mLastModified = file.lastModified();
+            fc = new FileInputStream(file).getChannel();
+            ByteBuffer buffer = ByteBuffer.wrap(bytes, 0, BUFFER_SIZE);
+            long base = 0;
+            int len;
+            while ((len = fc.read(buffer)) != -1) {
+                scanner.scan(bytes, len, base);
+                base += len;
+                buffer.clear().limit(BUFFER_SIZE);
+            }
+            scanner.mLength = base;
+        } catch (IOException e) {
+            e.printStackTrace();
+            scanner.mFailed = true;
+        } finally {
+            CloseUtils.closeIO(fc);
+            BufferPool.getDefault().release(bytes);
+        }
+        return scanner;
+    }
+
+    /**
+     * 逐字节识别换行，\r\n 可能跨越两次读取
+     */
+    private static final class Scanner {
+        private final int mInterval;
+        private int mLineCount = 1;
+        private long[] mOffsets;
+        private int mOffsetCount;
+        private boolean mPrevCR;
+        private long mLength;
+        private long mLastModified;
+        private boolean mFailed;
+
+        private Scanner(final int interval) {
+            mInterval = interval;
+            if (interval > 0) {
+                mOffsets = new long[16];
+                mOffsets[mOffsetCount++] = 0;
+            }
+        }
+
+        private void scan(final byte[] bytes, final int len, final long base) {
+            for (int i = 0; i < len; i++) {
+                byte b = bytes[i];
+                if (b == '\n') {
+                    if (mPrevCR) {
+                        // \r\n 在 \r 处已计数，只需修正新行的行首
+                        mPrevCR = false;
+                        if (mInterval > 0 && (mLineCount - 1) % mInterval == 0) {
+                            mOffsets[mOffsetCount - 1] = base + i + 1;
+                        }
+                    } else {
+                        newLine(base + i + 1);
+                    }
+                } else if (b == '\r') {
+                    newLine(base + i + 1);
+                    mPrevCR = true;
+                } else {
+                    mPrevCR = false;
+                }
+            }
+        }
+
+        private void newLine(final long start) {
+            mLineCount++;
+            if (mInterval > 0 && (mLineCount - 1) % mInterval == 0) {
+                if (mOffsetCount == mOffsets.length) {
+                    mOffsets = Arrays.copyOf(mOffsets, mOffsetCount << 1);
+                }
+                mOffsets[mOffsetCount++] = start;
+            }
+        }
+    }
+}
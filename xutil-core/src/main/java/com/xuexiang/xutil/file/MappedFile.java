@@ -0,0 +1,217 @@
+/*
+ * Copyright (C) 2018 xuexiangjys(xuexiangjys@163.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.xuexiang.xutil.file;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * <pre>
+ *     desc   : 只读的内存映射文件
+ *     author : agent
+ *     time   : 2026/10/18 下午12:08
+ * </pre>
+ * <p>按窗口映射文件，读取时不将文件复制到堆内存中，支持超过 2GB 的文件。
+ * 每个窗口额外多映射 {@link #WINDOW_OVERLAP} 字节，不超过该长度的读取不会跨越两个窗口。
+ * 只保留最近使用的几个窗口，避免在 32 位设备上占用过多的地址空间。</p>
+ * <p>Java 没有显式解除映射的接口，{@link #close()} 后映射在窗口被回收时才会解除</p>
+ */
+public final class MappedFile implements Closeable {
+
+    /**
+     * 默认窗口大小
+     */
+    public static final int DEFAULT_WINDOW_SIZE = 64 * 1024 * 1024;
+    /**
+     * 相邻窗口重叠的长度
+     */
+    public static final int WINDOW_OVERLAP = 64 * 1024;
+    /**
+     * 最多保留的窗口个数
+     */
+    private static final int MAX_WINDOWS = 4;
+
+    /**
+     * 打开文件
+     *
+     * @param file 文件
+     * @return 映射文件，失败返回 {@code null}
+     */
+    public static MappedFile open(final File file) {
+        return open(file, DEFAULT_WINDOW_SIZE);
+    }
+
+    /**
+     * 打开文件
+     *
+     * @param file       文件
+     * @param windowSize 窗口大小，文件不超过该大小时整个映射
+     * @return 映射文件，失败返回 {@code null}
+     */
+    public static MappedFile open(final File file, final int windowSize) {
+        if (windowSize <= 0 || windowSize > Integer.MAX_VALUE - WINDOW_OVERLAP) {
+            throw new IllegalArgumentException("illegal windowSize: " + windowSize);
+        }
+        if (file == null || !file.isFile()) {
+            return null;
+        }
+        RandomAccessFile raf = null;
+        try {
+            raf = new RandomAccessFile(file, "r");
+            return new MappedFile(raf.getChannel(), windowSize);
+        } catch (IOException e) {
+            e.printStackTrace();
+            CloseUtils.closeIO(raf);
+            return null;
+        }
+    }
+
+    private final FileChannel mChannel;
+    private final long mLength;
+    private final int mWindowSize;
+    /**
+     * 最近使用的窗口，由 this 保护
+     */
+    private final Map<Long, ByteBuffer> mWindows = new LinkedHashMap<Long, ByteBuffer>(MAX_WINDOWS, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, ByteBuffer> eldest) {
+            return size() > MAX_WINDOWS;
+        }
+    };
+    private boolean mClosed;
+
+    private MappedFile(final FileChannel channel, final int windowSize) throws IOException {
+        mChannel = channel;
+        mLength = channel.size();
+        mWindowSize = windowSize;
+    }
+
+    /**
+     * @return 文件长度（打开时）
+     */
+    public long length() {
+        return mLength;
+    }
+
+    /**
+     * 读取一个字节
+     *
+     * @param position 文件中的位置
+     * @return 字节
+     */
+    public byte get(final long position) {
+        checkPosition(position, 1);
+        long index = position / mWindowSize;
+        return window(index).get((int) (position - index * mWindowSize));
+    }
+
+    /**
+     * 读取数据到字节数组中
+     *
+     * @param position 文件中的位置
+     * @param dst      目标数组
+     * @param offset   目标数组中的偏移量
+     * @param length   最多读取的长度
+     * @return 读取的长度，已到文件末尾时返回 -1
+     */
+    public int read(final long position, final byte[] dst, final int offset, final int length) {
+        if (position < 0 || offset < 0 || length < 0 || offset + length > dst.length) {
+            throw new IndexOutOfBoundsException();
+        }
+        if (position >= mLength) {
+            return -1;
+        }
+        int total = (int) Math.min(length, mLength - position);
+        int read = 0;
+        while (read < total) {
+            long current = position + read;
+            long index = current / mWindowSize;
+            ByteBuffer window = window(index).duplicate();
+            window.position((int) (current - index * mWindowSize));
+            int count = Math.min(total - read, window.remaining());
+            window.get(dst, offset + read, count);
+            read += count;
+        }
+        return read;
+    }
+
+    /**
+     * 获取文件中一段数据的只读视图，不复制数据
+     *
+     * @param position 文件中的位置
+     * @param size     长度
+     * @return 只读缓冲区，position 为 0，limit 为 size
+     */
+    public ByteBuffer slice(final long position, final int size) {
+        checkPosition(position, size);
+        long index = position / mWindowSize;
+        int start = (int) (position - index * mWindowSize);
+        ByteBuffer window = window(index);
+        if (start + size <= window.capacity()) {
+            ByteBuffer view = window.duplicate();
+            view.limit(start + size).position(start);
+            return view.slice();
+        }
+        // 跨越窗口时单独映射，不放入窗口缓存
+        return map(position, size);
+    }
+
+    /**
+     * 关闭文件，之后不能再读取
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            mClosed = true;
+            mWindows.clear();
+        }
+        CloseUtils.closeIO(mChannel);
+    }
+
+    private void checkPosition(final long position, final int size) {
+        if (position < 0 || size < 0 || position + size > mLength) {
+            throw new IndexOutOfBoundsException("position: " + position + ", size: " + size + ", length: " + mLength);
+        }
+    }
+
+    private synchronized ByteBuffer window(final long index) {
+        if (mClosed) {
+            throw new IllegalStateException("MappedFile is closed");
+        }
+        ByteBuffer window = mWindows.get(index);
+        if (window == null) {
+            long start = index * mWindowSize;
+            window = map(start, (int) Math.min(mLength - start, (long) mWindowSize + WINDOW_OVERLAP));
+            mWindows.put(index, window);
+        }
+        return window;
+    }
+
+    private ByteBuffer map(final long position, final int size) {
+        try {
+            return mChannel.map(FileChannel.MapMode.READ_ONLY, position, size);
+        } catch (IOException e) {
+            throw new IllegalStateException("map failed at " + position, e);
+        }
+    }
+}
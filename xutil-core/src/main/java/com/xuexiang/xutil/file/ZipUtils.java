@@ -245,12 +245,12 @@ public final class ZipUtils {
             }
         } else {
             InputStream is = null;
+            byte[] buffer = BufferPool.getDefault().acquireBytes(BUFFER_LEN);
             try {
                 is = new BufferedInputStream(new FileInputStream(resFile));
                 ZipEntry entry = new ZipEntry(rootPath);
                 entry.setComment(comment);
                 zos.putNextEntry(entry);
-                byte[] buffer = new byte[BUFFER_LEN];
                 int len;
                 while ((len = is.read(buffer, 0, BUFFER_LEN)) != -1) {
                     zos.write(buffer, 0, len);
@@ -258,6 +258,7 @@ public final class ZipUtils {
                 zos.closeEntry();
             } finally {
                 CloseUtils.closeIO(is);
+                BufferPool.getDefault().release(buffer);
             }
         }
         return true;
@@ -364,16 +365,17 @@ public final class ZipUtils {
             }
             InputStream in = null;
             OutputStream out = null;
+            byte[] buffer = BufferPool.getDefault().acquireBytes(BUFFER_LEN);
             try {
                 in = new BufferedInputStream(zf.getInputStream(entry));
                 out = new BufferedOutputStream(new FileOutputStream(file));
-                byte[] buffer = new byte[BUFFER_LEN];
                 int len;
-                while ((len = in.read(buffer)) != -1) {
+                while ((len = in.read(buffer, 0, BUFFER_LEN)) != -1) {
                     out.write(buffer, 0, len);
                 }
             } finally {
                 CloseUtils.closeIO(in, out);
+                BufferPool.getDefault().release(buffer);
             }
         }
         return true;
@@ -18,12 +18,9 @@ package com.xuexiang.xutil.security;
 
 import android.util.Base64;
 
-import com.xuexiang.xutil.file.CloseUtils;
+import com.xuexiang.xutil.file.FileDigestUtils;
 
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.IOException;
-import java.security.DigestInputStream;
 import java.security.InvalidKeyException;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
@@ -178,29 +175,7 @@ public final class EncryptUtils {
      * @return 文件的 MD5 校验码
      */
     public static byte[] encryptMD5File(final File file) {
-        if (file == null) {
-            return null;
-        }
-        FileInputStream fis = null;
-        DigestInputStream digestInputStream;
-        try {
-            fis = new FileInputStream(file);
-            MessageDigest md = MessageDigest.getInstance("MD5");
-            digestInputStream = new DigestInputStream(fis, md);
-            byte[] buffer = new byte[256 * 1024];
-            while (true) {
-                if (!(digestInputStream.read(buffer) > 0)) {
-                    break;
-                }
-            }
-            md = digestInputStream.getMessageDigest();
-            return md.digest();
-        } catch (NoSuchAlgorithmException | IOException e) {
-            e.printStackTrace();
-            return null;
-        } finally {
-            CloseUtils.closeIO(fis);
-        }
+        return FileDigestUtils.digestSingle(file, FileDigestUtils.MD5);
     }
 
     /**
@@ -0,0 +1,127 @@
+/*
+ * Copyright (C) 2018 xuexiangjys(xuexiangjys@163.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.xuexiang.xutil.system;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * <pre>
+ *     desc   : 并行执行相关工具类
+ *     author : agent
+ *     time   : 2026/10/18 下午12:42
+ * </pre>
+ * <p>缓存的批量读写、目录树的复制删除等IO操作统一使用{@link AppExecutors#poolIO()}，不再单独创建线程池</p>
+ */
+public final class ParallelUtils {
+
+    private ParallelUtils() {
+        throw new UnsupportedOperationException("u can't instantiate me...");
+    }
+
+    /**
+     * @return 共享的IO线程池，即{@link AppExecutors#poolIO()}
+     */
+    public static ExecutorService getIOExecutor() {
+        return AppExecutors.get().poolIO();
+    }
+
+    /**
+     * 按序号执行的任务
+     */
+    public interface IndexTask {
+        /**
+         * @param index 序号，从0开始
+         */
+        void run(int index);
+    }
+
+    /**
+     * 在IO线程池中并行执行
+     *
+     * @param count 任务个数
+     * @param task  任务
+     */
+    public static void forEach(final int count, final IndexTask task) {
+        forEach(count, 1, task);
+    }
+
+    /**
+     * 在IO线程池中并行执行，调用线程也参与执行，在线程池中嵌套调用或线程池繁忙时不会死锁
+     * <p>总是等待所有任务执行完毕后才返回，等待期间被中断时继续等待，返回前恢复中断状态；
+     * 任务抛出的运行时异常不影响其他任务，所有任务结束后将第一个异常抛给调用方</p>
+     *
+     * @param count        任务个数
+     * @param minPerThread 每个线程至少分到的任务个数，任务较少时不使用线程池
+     * @param task         任务
+     */
+    public static void forEach(final int count, final int minPerThread, final IndexTask task) {
+        if (count <= 0) {
+            return;
+        }
+        final AtomicInteger next = new AtomicInteger();
+        final CountDownLatch done = new CountDownLatch(count);
+        final AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        final Runnable worker = new Runnable() {
+            @Override
+            public void run() {
+                int index;
+                while ((index = next.getAndIncrement()) < count) {
+                    try {
+                        task.run(index);
+                    } catch (RuntimeException e) {
+                        failure.compareAndSet(null, e);
+                    } finally {
+                        done.countDown();
+                    }
+                }
+            }
+        };
+        final int helpers = Math.min(Runtime.getRuntime().availableProcessors(), (count - 1) / Math.max(1, minPerThread));
+        if (helpers > 0) {
+            ExecutorService executor = getIOExecutor();
+            try {
+                for (int i = 0; i < helpers; i++) {
+                    executor.execute(worker);
+                }
+            } catch (RejectedExecutionException e) {
+                // 线程池已关闭，剩余的任务由调用线程执行
+                e.printStackTrace();
+            }
+        }
+        worker.run();
+        boolean interrupted = false;
+        while (true) {
+            try {
+                done.await();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        RuntimeException e = failure.get();
+        if (e != null) {
+            throw e;
+        }
+    }
+}
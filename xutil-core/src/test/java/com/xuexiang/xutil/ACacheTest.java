@@ -0,0 +1,925 @@
+/*
+ * Copyright (C) 2018 xuexiangjys(xuexiangjys@163.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.xuexiang.xutil;
+
+import androidx.annotation.NonNull;
+
+import com.xuexiang.xutil.data.cache.ACache;
+import com.xuexiang.xutil.data.cache.CacheStats;
+import com.xuexiang.xutil.data.cache.CodecStats;
+import com.xuexiang.xutil.data.cache.Codecs;
+import com.xuexiang.xutil.data.cache.Editor;
+import com.xuexiang.xutil.data.cache.OnRemovalListener;
+import com.xuexiang.xutil.data.cache.RemovalCause;
+import com.xuexiang.xutil.data.cache.Snapshot;
+import com.xuexiang.xutil.data.cache.ValueCodec;
+import com.xuexiang.xutil.file.FileIOUtils;
+import com.xuexiang.xutil.file.FileUtils;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * <pre>
+ *     desc   : 磁盘缓存的测试
+ *     author : agent
+ *     time   : 2026/10/18 下午1:52
+ * </pre>
+ * <p>淘汰、过期清理等在后台线程中进行，测试中轮询等待其完成</p>
+ */
+public class ACacheTest {
+
+    /**
+     * 后台任务的最长等待时间
+     */
+    private static final long TIMEOUT = 10 * 1000;
+
+    private static final AtomicInteger REOPEN_COUNT = new AtomicInteger();
+
+    @Test
+    public void lruTest() throws Exception {
+        File dir = createTempDir();
+        File sizeDir = createTempDir();
+        try {
+            ACache cache = awaitLoaded(ACache.get(dir, Long.MAX_VALUE, 50));
+            for (int i = 0; i < 50; i++) {
+                cache.put("k" + i, new byte[100]);
+            }
+            assertEquals(50, cache.getCacheCount());
+            // 访问后 k0 成为最近使用的缓存
+            assertNotNull(cache.getBytes("k0"));
+            for (int i = 50; i < 60; i++) {
+                cache.put("k" + i, new byte[100]);
+            }
+            long deadline = System.currentTimeMillis() + TIMEOUT;
+            while (cache.getCacheCount() > 50 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertTrue("count " + cache.getCacheCount(), cache.getCacheCount() <= 50);
+            assertNotNull(cache.getBytes("k0"));
+            assertNotNull(cache.getBytes("k59"));
+            assertNull(cache.getBytes("k1"));
+
+            // 按尺寸淘汰
+            ACache sized = awaitLoaded(ACache.get(sizeDir, 10 * 1024, Integer.MAX_VALUE));
+            for (int i = 0; i < 30; i++) {
+                sized.put("k" + i, new byte[1024]);
+            }
+            deadline = System.currentTimeMillis() + TIMEOUT;
+            while (sized.getCacheSize() > 10 * 1024 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertTrue("size " + sized.getCacheSize(), sized.getCacheSize() <= 10 * 1024);
+            assertNotNull(sized.getBytes("k29"));
+            assertNull(sized.getBytes("k0"));
+        } finally {
+            FileUtils.deleteDir(dir);
+            FileUtils.deleteDir(sizeDir);
+        }
+    }
+
+    @Test
+    public void warmUpTest() throws Exception {
+        File dir = createTempDir();
+        try {
+            ACache cache = awaitLoaded(ACache.get(dir));
+            for (int i = 0; i < 20; i++) {
+                cache.put("k" + i, "value" + i);
+            }
+            assertTrue(cache.remove("k3"));
+            int count = cache.getCacheCount();
+            long size = cache.getCacheSize();
+            assertEquals(19, count);
+
+            // 预热在后台进行，预热期间不阻塞读写，异步获取的尺寸和个数等待预热完成
+            ACache reopened = reopen(dir, Long.MAX_VALUE, Integer.MAX_VALUE, 1, false);
+            assertEquals("value5", reopened.getString("k5"));
+            assertEquals(count, (int) reopened.getCacheCountAsync().get());
+            assertEquals(size, (long) reopened.getCacheSizeAsync().get());
+            assertTrue(reopened.isLoaded());
+            assertEquals(count, reopened.getCacheCount());
+            assertNull(reopened.getString("k3"));
+        } finally {
+            FileUtils.deleteDir(dir);
+        }
+    }
+
+    @Test
+    public void journalTest() throws Exception {
+        File dir = createTempDir();
+        try {
+            ACache cache = awaitLoaded(ACache.get(dir, Long.MAX_VALUE, 10));
+            for (int i = 0; i < 10; i++) {
+                cache.put("k" + i, "value" + i);
+            }
+            // 读取记录不单独刷新，随之后的移除记录一起写入
+            assertEquals("value0", cache.getString("k0"));
+            assertTrue(cache.remove("k3"));
+            File journal = new File(dir, "journal");
+            assertEquals("xutil.ACache.journal", FileIOUtils.readFile2List(journal).get(0));
+
+            // 进程终止时最后一行未写完整，回放已完整的记录
+            assertTrue(FileIOUtils.writeFileFromString(journal, "CLEAN 0123", true));
+            ACache reopened = awaitLoaded(reopen(dir, Long.MAX_VALUE, 10, 1, false));
+            assertEquals(9, reopened.getCacheCount());
+            assertNull(reopened.getString("k3"));
+            assertEquals("value9", reopened.getString("k9"));
+            assertFalse(FileIOUtils.readFile2String(journal).endsWith("CLEAN 0123"));
+
+            // 回放读取记录恢复LRU顺序，k0 在 k1 之后淘汰
+            reopened.put("k10", "value10");
+            reopened.put("k11", "value11");
+            long deadline = System.currentTimeMillis() + TIMEOUT;
+            while (reopened.getCacheCount() > 10 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals("value0", reopened.getString("k0"));
+            assertNull(reopened.getString("k1"));
+
+            // 冗余记录过多时压缩日志
+            for (int i = 0; i < 3000; i++) {
+                reopened.put("k0", "value" + i);
+            }
+            deadline = System.currentTimeMillis() + TIMEOUT;
+            while (FileIOUtils.readFile2List(journal).size() > 2100 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertTrue(FileIOUtils.readFile2List(journal).size() <= 2100);
+            assertEquals("value2999", awaitLoaded(reopen(dir, Long.MAX_VALUE, 10, 1, false)).getString("k0"));
+        } finally {
+            FileUtils.deleteDir(dir);
+        }
+    }
+
+    @Test
+    public void keyMappingTest() throws Exception {
+        File dir = createTempDir();
+        try {
+            // 旧版本以 hashCode 命名的缓存，过期时间前缀为 _$秒数(10位)$_
+            assertTrue(FileIOUtils.writeFileFromString(new File(dir, String.valueOf("old".hashCode())), "hello"));
+            String dueSeconds = String.format(Locale.US, "%010d", System.currentTimeMillis() / 1000 + 3600);
+            assertTrue(FileIOUtils.writeFileFromString(new File(dir, String.valueOf("live".hashCode())), "_$" + dueSeconds + "$_alive"));
+            assertTrue(FileIOUtils.writeFileFromString(new File(dir, String.valueOf("expired".hashCode())), "_$0000000001$_gone"));
+            ACache cache = awaitLoaded(ACache.get(dir));
+            assertEquals("hello", cache.getString("old"));
+            assertEquals("alive", cache.getString("live"));
+            assertNull(cache.getString("expired"));
+            // 读取时迁移为以 SHA-1 值命名的文件
+            assertFalse(new File(dir, String.valueOf("old".hashCode())).exists());
+            assertTrue(new File(dir, sha1("old")).isFile());
+            assertEquals("hello", awaitLoaded(reopen(dir, Long.MAX_VALUE, Integer.MAX_VALUE, 1, false)).getString("old"));
+
+            // hashCode 相同的键互不覆盖
+            assertEquals("Aa".hashCode(), "BB".hashCode());
+            cache.put("Aa", "1");
+            cache.put("BB", "2");
+            assertEquals("1", cache.getString("Aa"));
+            assertEquals("2", cache.getString("BB"));
+
+            // 读取时校验文件头中的键，文件内容属于其他键时视为不存在
+            assertTrue(FileUtils.copyFile(new File(dir, sha1("Aa")), new File(dir, sha1("BB")), null));
+            assertNull(cache.getString("BB"));
+            assertEquals("1", cache.getString("Aa"));
+        } finally {
+            FileUtils.deleteDir(dir);
+        }
+    }
+
+    @Test
+    public void memoryTierTest() throws Exception {
+        File dir = createTempDir();
+        try {
+            ACache cache = awaitLoaded(ACache.get(dir)).setMemoryCacheSize(1000);
+            cache.put("s", "hello");
+            cache.put("b", new byte[]{1, 2, 3});
+            for (int i = 0; i < 3; i++) {
+                assertEquals("hello", cache.getString("s"));
+                assertArrayEquals(new byte[]{1, 2, 3}, cache.getBytes("b"));
+            }
+            assertEquals(6, cache.getMemoryHitCount());
+            assertEquals(0, cache.getDiskHitCount());
+            assertNull(cache.getString("none"));
+            assertEquals(1, cache.getMemoryMissCount());
+            assertEquals(1, cache.getDiskMissCount());
+
+            // 超过内存缓存大小的值只保存在磁盘中
+            cache.put("large", new byte[2000]);
+            assertEquals(2000, cache.getBytes("large").length);
+            assertEquals(1, cache.getDiskHitCount());
+
+            // 写入同时写入磁盘，移除同时移除内存中的缓存
+            assertEquals("hello", awaitLoaded(reopen(dir, Long.MAX_VALUE, Integer.MAX_VALUE, 1, false)).getString("s"));
+            assertTrue(cache.remove("s"));
+            assertNull(cache.getString("s"));
+            cache.put("b", new byte[]{4});
+            assertArrayEquals(new byte[]{4}, cache.getBytes("b"));
+
+            // 关闭内存缓存后从磁盘读取
+            long diskHits = cache.getDiskHitCount();
+            cache.setMemoryCacheSize(0);
+            assertArrayEquals(new byte[]{4}, cache.getBytes("b"));
+            assertEquals(diskHits + 1, cache.getDiskHitCount());
+        } finally {
+            FileUtils.deleteDir(dir);
+        }
+    }
+
+    @Test
+    public void asyncTest() throws Exception {
+        File dir = createTempDir();
+        try {
+            ACache cache = awaitLoaded(ACache.get(dir));
+            // 未写入磁盘的值也能读到，同一键的多次写入合并，全部完成后为最后的值
+            List<Future<Boolean>> futures = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                futures.add(cache.putAsync("k", "v" + i));
+                assertEquals("v" + i, cache.getString("k"));
+            }
+            for (Future<Boolean> future : futures) {
+                assertTrue(future.get(TIMEOUT, TimeUnit.MILLISECONDS));
+            }
+            assertEquals("v199", cache.getStringAsync("k").get(TIMEOUT, TimeUnit.MILLISECONDS));
+            assertEquals("v199", awaitLoaded(reopen(dir, Long.MAX_VALUE, Integer.MAX_VALUE, 1, false)).getString("k"));
+
+            // 写入完成前被移除，不会在移除后写入
+            Future<Boolean> removed = cache.putAsync("r", "x");
+            cache.remove("r");
+            removed.get(TIMEOUT, TimeUnit.MILLISECONDS);
+            assertNull(cache.getString("r"));
+
+            // 之后的同步写入覆盖未完成的异步写入
+            Future<Boolean> overridden = cache.putAsync("s", "async");
+            cache.put("s", "sync");
+            overridden.get(TIMEOUT, TimeUnit.MILLISECONDS);
+            assertEquals("sync", cache.getString("s"));
+            ACache reopened = awaitLoaded(reopen(dir, Long.MAX_VALUE, Integer.MAX_VALUE, 1, false));
+            assertEquals("sync", reopened.getString("s"));
+            assertNull(reopened.getString("r"));
+        } finally {
+            FileUtils.deleteDir(dir);
+        }
+    }
+
+    @Test
+    public void expiryTest() throws Exception {
+        File dir = createTempDir();
+        File budgetDir = createTempDir();
+        try {
+            // 过期的缓存即使不再读取也会被后台清理
+            ACache cache = awaitLoaded(ACache.get(dir));
+            for (int i = 0; i < 200; i++) {
+                cache.put("t" + i, "value" + i, 1);
+            }
+            cache.put("live", "value");
+            assertEquals(201, cache.getCacheCount());
+            awaitCount(cache, 1);
+            assertEquals("value", cache.getString("live"));
+            awaitDeleted(new File(dir, sha1("t0")));
+            awaitDeleted(new File(dir, sha1("t199")));
+
+            // 重新打开后，预热时仍未过期的缓存过期后同样被清理
+            for (int i = 0; i < 50; i++) {
+                cache.put("r" + i, "value" + i, 1);
+            }
+            ACache reopened = awaitLoaded(reopen(dir, Long.MAX_VALUE, Integer.MAX_VALUE, 1, false));
+            awaitCount(reopened, 1);
+
+            // 已过期的缓存不占用个数限制，不会挤掉未过期的缓存
+            ACache budget = awaitLoaded(ACache.get(budgetDir, Long.MAX_VALUE, 10));
+            for (int i = 0; i < 5; i++) {
+                budget.put("old" + i, "value" + i);
+            }
+            for (int i = 0; i < 5; i++) {
+                budget.put("expired" + i, "value" + i, 0);
+            }
+            Thread.sleep(10);
+            for (int i = 0; i < 2; i++) {
+                budget.put("new" + i, "value" + i);
+            }
+            awaitCount(budget, 7);
+            for (int i = 0; i < 5; i++) {
+                assertEquals("value" + i, budget.getString("old" + i));
+                assertNull(budget.getString("expired" + i));
+            }
+        } finally {
+            FileUtils.deleteDir(dir);
+            FileUtils.deleteDir(budgetDir);
+        }
+    }
+
+    @Test
+    public void streamTest() throws Exception {
+        File dir = createTempDir();
+        try {
+            ACache cache = awaitLoaded(ACache.get(dir));
+            // 分块写入较大的值，计入缓存大小并带有过期时间
+            Editor editor = cache.edit("big", 100);
+            OutputStream out = editor.newOutputStream();
+            byte[] chunk = new byte[64 * 1024];
+            for (int i = 0; i < chunk.length; i++) {
+                chunk[i] = (byte) i;
+            }
+            for (int i = 0; i < 64; i++) {
+                out.write(chunk);
+            }
+            assertTrue(editor.commit());
+            long length = 64L * chunk.length;
+            assertTrue(cache.getCacheSize() >= length);
+            assertSnapshot(cache, "big", length);
+
+            // 放弃写入保留原来的值
+            editor = cache.edit("big");
+            editor.newOutputStream().write(1);
+            editor.abort();
+            assertSnapshot(cache, "big", length);
+
+            // 同一个键同时只能有一个写入，写入期间的同步及异步写入失败，移除不等待写入
+            cache.put("k", "old");
+            editor = cache.edit("k");
+            assertNull(cache.edit("k"));
+            editor.newOutputStream().write("new".getBytes("UTF-8"));
+            assertEquals("old", cache.getString("k"));
+            cache.put("k", "sync");
+            assertFalse(cache.putAsync("k", "async").get(TIMEOUT, TimeUnit.MILLISECONDS));
+            assertEquals("old", cache.getString("k"));
+            assertTrue(cache.remove("k"));
+            assertNull(cache.getString("k"));
+            assertTrue(editor.commit());
+            assertEquals("new", cache.getString("k"));
+            assertNotNull(cache.edit("k"));
+
+            // 与普通写入的值互通，尚未写入磁盘的值先写入再读取
+            cache.putAsync("pending", "pending");
+            Snapshot snapshot = cache.getSnapshot("pending");
+            assertEquals(7, snapshot.getLength());
+            snapshot.close();
+            editor = cache.edit("expired", 0);
+            editor.newOutputStream().write(1);
+            assertTrue(editor.commit());
+            Thread.sleep(10);
+            assertNull(cache.getSnapshot("expired"));
+        } finally {
+            FileUtils.deleteDir(dir);
+        }
+    }
+
+    @Test
+    public void codecTest() throws Exception {
+        File dir = createTempDir();
+        try {
+            ACache cache = awaitLoaded(ACache.get(dir));
+            assertTrue(cache.put("i", 42, Codecs.INTEGER));
+            assertTrue(cache.put("l", Long.MIN_VALUE, Codecs.LONG));
+            assertTrue(cache.put("f", 0.5f, Codecs.FLOAT));
+            assertTrue(cache.put("d", 1.5, Codecs.DOUBLE));
+            assertTrue(cache.put("b", true, Codecs.BOOLEAN));
+            assertTrue(cache.put("s", "中文", Codecs.STRING, 100));
+            assertTrue(cache.putAsync("a", 9L, Codecs.LONG).get(TIMEOUT, TimeUnit.MILLISECONDS));
+
+            // 从磁盘读取，不经过内存缓存
+            ACache reopened = awaitLoaded(reopen(dir, Long.MAX_VALUE, Integer.MAX_VALUE, 1, false));
+            assertEquals(Integer.valueOf(42), reopened.getValue("i", Codecs.INTEGER));
+            assertEquals(Long.valueOf(Long.MIN_VALUE), reopened.getValue("l", Codecs.LONG));
+            assertEquals(Float.valueOf(0.5f), reopened.getValue("f", Codecs.FLOAT));
+            assertEquals(Double.valueOf(1.5), reopened.getValue("d", Codecs.DOUBLE));
+            assertEquals(Boolean.TRUE, reopened.getValue("b", Codecs.BOOLEAN));
+            assertEquals("中文", reopened.getValue("s", Codecs.STRING));
+            assertEquals(Long.valueOf(9), reopened.getValueAsync("a", Codecs.LONG).get(TIMEOUT, TimeUnit.MILLISECONDS));
+            assertNull(reopened.getValue("none", Codecs.INTEGER));
+
+            // 编码器与写入时不一致，解码失败返回默认值
+            long failures = reopened.getCodecStats(Codecs.LONG).getDecodeFailureCount();
+            assertEquals(Long.valueOf(7), reopened.getValue("i", Codecs.LONG, 7L));
+            assertEquals(failures + 1, reopened.getCodecStats(Codecs.LONG).getDecodeFailureCount());
+
+            // 自定义编码器，编码失败时不写入
+            ValueCodec<int[]> codec = new ValueCodec<int[]>() {
+                @Override
+                public byte[] encode(@NonNull int[] value) {
+                    if (value.length == 0) {
+                        return null;
+                    }
+                    ByteBuffer buffer = ByteBuffer.allocate(value.length * 4);
+                    buffer.asIntBuffer().put(value);
+                    return buffer.array();
+                }
+
+                @Override
+                public int[] decode(@NonNull byte[] data) {
+                    int[] value = new int[data.length / 4];
+                    ByteBuffer.wrap(data).asIntBuffer().get(value);
+                    return value;
+                }
+            };
+            assertTrue(cache.put("array", new int[]{1, 2, 3}, codec));
+            assertFalse(cache.put("empty", new int[0], codec));
+            assertArrayEquals(new int[]{1, 2, 3}, cache.getValue("array", codec));
+            assertNull(cache.getValue("empty", codec));
+            CodecStats stats = cache.getCodecStats(codec);
+            assertEquals(2, stats.getEncodeCount());
+            assertEquals(1, stats.getEncodeFailureCount());
+            assertEquals(1, stats.getDecodeCount());
+        } finally {
+            FileUtils.deleteDir(dir);
+        }
+    }
+
+    @Test
+    public void compressionTest() throws Exception {
+        File dir = createTempDir();
+        try {
+            ACache cache = awaitLoaded(ACache.get(dir)).setCompression(6);
+            StringBuilder builder = new StringBuilder();
+            for (int i = 0; i < 5000; i++) {
+                builder.append("{\"id\":").append(i).append(",\"name\":\"item\"},");
+            }
+            String json = builder.toString();
+            assertEquals(1f, cache.getCompressionRatio(), 0);
+            cache.put("json", json);
+            cache.put("raw", json, -1, false);
+            assertTrue(cache.getCompressionRatio() < 0.5f);
+            assertTrue(new File(dir, sha1("json")).length() * 2 < new File(dir, sha1("raw")).length());
+
+            // 小于阈值的数据不压缩
+            long input = cache.getCompressInputBytes();
+            cache.put("small", "abc");
+            assertEquals(input, cache.getCompressInputBytes());
+            assertTrue(cache.putAsync("async", json).get(TIMEOUT, TimeUnit.MILLISECONDS));
+            assertEquals(input * 2, cache.getCompressInputBytes());
+
+            // 读取时自动解压，与是否开启压缩无关
+            ACache reopened = awaitLoaded(reopen(dir, Long.MAX_VALUE, Integer.MAX_VALUE, 1, false));
+            assertEquals(json, reopened.getString("json"));
+            assertEquals(json, reopened.getString("raw"));
+            assertEquals(json, reopened.getString("async"));
+            assertEquals("abc", reopened.getString("small"));
+            Snapshot snapshot = reopened.getSnapshot("json");
+            try {
+                byte[] expected = json.getBytes("UTF-8");
+                assertEquals(expected.length, snapshot.getLength());
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                byte[] buffer = new byte[4096];
+                int read;
+                while ((read = snapshot.getInputStream().read(buffer)) != -1) {
+                    out.write(buffer, 0, read);
+                }
+                assertArrayEquals(expected, out.toByteArray());
+            } finally {
+                snapshot.close();
+            }
+        } finally {
+            FileUtils.deleteDir(dir);
+        }
+    }
+
+    @Test
+    public void shardTest() throws Exception {
+        File dir = createTempDir();
+        File conflictDir = createTempDir();
+        try {
+            // 目录中用户自己的文件不受影响
+            assertTrue(FileIOUtils.writeFileFromString(new File(dir, "user.txt"), "user"));
+            final ACache cache = awaitLoaded(ACache.get(dir, Long.MAX_VALUE, 1000, 8));
+            final AtomicInteger misses = new AtomicInteger();
+            ExecutorService executor = Executors.newFixedThreadPool(8);
+            for (int t = 0; t < 8; t++) {
+                final int thread = t;
+                executor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        for (int i = 0; i < 100; i++) {
+                            String key = "k" + (thread * 100 + i);
+                            cache.put(key, "v" + i);
+                            if (!("v" + i).equals(cache.getString(key))) {
+                                misses.incrementAndGet();
+                            }
+                        }
+                    }
+                });
+            }
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(TIMEOUT, TimeUnit.MILLISECONDS));
+            assertEquals(0, misses.get());
+            assertEquals(800, cache.getCacheCount());
+            assertEquals(800, (int) cache.getCacheCountAsync().get(TIMEOUT, TimeUnit.MILLISECONDS));
+
+            // 修改分片数及是否使用小文件存储后重新打开，原有的缓存都保留
+            ACache slab = awaitLoaded(reopen(dir, Long.MAX_VALUE, 1000, 2, true));
+            assertEquals(800, slab.getCacheCount());
+            assertShardValues(slab);
+            ACache flat = awaitLoaded(reopen(dir, Long.MAX_VALUE, 1000, 1, false));
+            assertEquals(800, flat.getCacheCount());
+            assertShardValues(flat);
+            assertEquals("user", FileIOUtils.readFile2String(new File(dir, "user.txt")));
+            assertTrue(flat.clear());
+            assertEquals(0, flat.getCacheCount());
+            assertTrue(new File(dir, "user.txt").exists());
+
+            // 同一目录已按其他分片方式打开时不能再以不同的分片数打开
+            awaitLoaded(ACache.get(conflictDir, Long.MAX_VALUE, 100, 1));
+            assertNotNull(ACache.get(conflictDir, Long.MAX_VALUE, 100, 1));
+            try {
+                ACache.get(conflictDir, Long.MAX_VALUE, 100, 4);
+                fail("layout conflict should be rejected");
+            } catch (IllegalArgumentException expected) {
+                // 预期的异常
+            }
+        } finally {
+            FileUtils.deleteDir(dir);
+            FileUtils.deleteDir(conflictDir);
+        }
+    }
+
+    @Test
+    public void batchTest() throws Exception {
+        File dir = createTempDir();
+        try {
+            ACache cache = awaitLoaded(ACache.get(dir, Long.MAX_VALUE, Integer.MAX_VALUE, 4));
+            Map<String, Object> values = new LinkedHashMap<>();
+            for (int i = 0; i < 200; i++) {
+                values.put("k" + i, i % 2 == 0 ? "s" + i : new byte[]{(byte) i});
+            }
+            assertTrue(cache.putAll(values));
+            List<String> keys = new ArrayList<>();
+            for (int i = 209; i >= 0; i--) {
+                keys.add("k" + i);
+            }
+            // 结果的顺序与键一致，不存在的键不在结果中
+            Map<String, byte[]> all = cache.getAll(keys);
+            assertEquals(200, all.size());
+            assertEquals("k199", all.keySet().iterator().next());
+            assertArrayEquals(new byte[]{(byte) 199}, all.get("k199"));
+            Map<String, String> strings = cache.getAllStrings(Arrays.asList("k2", "k0", "none"));
+            assertEquals(Arrays.asList("k2", "k0"), new ArrayList<>(strings.keySet()));
+            assertEquals("s0", strings.get("k0"));
+
+            Map<String, Integer> numbers = new LinkedHashMap<>();
+            numbers.put("i1", 1);
+            numbers.put("i2", 2);
+            assertTrue(cache.putAll(numbers, Codecs.INTEGER));
+            assertEquals(numbers, cache.getAll(Arrays.asList("i1", "i2", "none"), Codecs.INTEGER));
+
+            // 有不支持的值类型时不写入任何键值对
+            Map<String, Object> unsupported = new LinkedHashMap<>();
+            unsupported.put("a", "1");
+            unsupported.put("b", new Object());
+            try {
+                cache.putAll(unsupported);
+                fail("unsupported value should be rejected");
+            } catch (IllegalArgumentException expected) {
+                assertNull(cache.getString("a"));
+            }
+
+            // 替换全部缓存，尚未写入磁盘的异步写入同样被替换
+            Map<String, Object> replacement = new HashMap<>();
+            replacement.put("n1", "new1");
+            replacement.put("n2", new byte[]{2});
+            try {
+                cache.replaceAll(unsupported);
+                fail("unsupported value should be rejected");
+            } catch (IllegalArgumentException expected) {
+                assertEquals("s0", cache.getString("k0"));
+            }
+            cache.putAsync("pending", "pending");
+            assertTrue(cache.replaceAll(replacement));
+            assertEquals(2, cache.getCacheCount());
+            assertNull(cache.getString("k0"));
+            assertNull(cache.getString("pending"));
+            assertEquals("new1", cache.getString("n1"));
+
+            // 有未完成的流式写入时替换失败，原有的缓存不变
+            Editor editor = cache.edit("editing");
+            assertFalse(cache.replaceAll(values));
+            assertEquals("new1", cache.getString("n1"));
+            editor.abort();
+
+            ACache reopened = awaitLoaded(reopen(dir, Long.MAX_VALUE, Integer.MAX_VALUE, 4, false));
+            assertEquals(2, reopened.getCacheCount());
+            assertArrayEquals(new byte[]{2}, reopened.getBytes("n2"));
+            assertNull(reopened.getString("k0"));
+        } finally {
+            FileUtils.deleteDir(dir);
+        }
+    }
+
+    @Test
+    public void statsTest() throws Exception {
+        File dir = createTempDir();
+        try {
+            ACache cache = awaitLoaded(ACache.get(dir, Long.MAX_VALUE, 10));
+            // 淘汰、过期清理在后台线程中回调
+            final Map<RemovalCause, List<String>> removals = new HashMap<>();
+            cache.setOnRemovalListener(new OnRemovalListener() {
+                @Override
+                public void onRemoval(String key, long size, RemovalCause cause) {
+                    assertTrue(size > 0);
+                    synchronized (removals) {
+                        List<String> keys = removals.get(cause);
+                        if (keys == null) {
+                            keys = new ArrayList<>();
+                            removals.put(cause, keys);
+                        }
+                        keys.add(key);
+                    }
+                }
+            });
+            cache.put("a", "1");
+            cache.put("a", "2");
+            assertTrue(cache.remove("a"));
+            assertEquals(Arrays.asList("a"), removals.get(RemovalCause.REPLACED));
+            assertEquals(Arrays.asList("a"), removals.get(RemovalCause.EXPLICIT));
+
+            cache.put("e", "x", 0);
+            Thread.sleep(10);
+            assertNull(cache.getString("e"));
+            assertEquals(Arrays.asList("e"), removals.get(RemovalCause.EXPIRED));
+            assertEquals(1, cache.getStats().getExpirationCount());
+
+            for (int i = 0; i < 15; i++) {
+                cache.put("k" + i, "value" + i);
+            }
+            // 先移出索引，再在锁外删除文件并回调
+            long deadline = System.currentTimeMillis() + TIMEOUT;
+            while ((cache.getCacheCount() > 10 || evictedCount(removals) < 15 - cache.getCacheCount())
+                    && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            CacheStats stats = cache.getStats();
+            int evicted = evictedCount(removals);
+            assertEquals(15 - cache.getCacheCount(), evicted);
+            assertEquals(evicted, stats.getEvictionCount());
+            synchronized (removals) {
+                assertTrue(removals.get(RemovalCause.EVICTED).contains("k0"));
+            }
+            assertEquals(18, stats.getWriteCount());
+            assertTrue(stats.getBytesWritten() > 0);
+            assertEquals(cache.getCacheCount(), stats.getCacheCount());
+
+            // 命中率按磁盘及内存的命中计算
+            assertEquals("value14", cache.getString("k14"));
+            assertNull(cache.getString("none"));
+            stats = cache.getStats();
+            assertEquals(1, stats.getDiskHitCount());
+            assertEquals(2, stats.getDiskMissCount());
+            assertEquals(1 / 3.0, stats.getHitRate(), 0.001);
+
+            int count = cache.getCacheCount();
+            assertTrue(cache.clear());
+            assertEquals(1 + count, removals.get(RemovalCause.EXPLICIT).size());
+        } finally {
+            FileUtils.deleteDir(dir);
+        }
+    }
+
+    @Test
+    public void slabTest() throws Exception {
+        File dir = createTempDir();
+        File evictDir = createTempDir();
+        try {
+            // 较小的值写入共享的存储文件，不再每个键一个文件
+            ACache cache = awaitLoaded(ACache.get(dir, Long.MAX_VALUE, Integer.MAX_VALUE, 1, true));
+            for (int i = 0; i < 1000; i++) {
+                cache.put("k" + i, "value" + i);
+            }
+            assertEquals(1000, cache.getCacheCount());
+            assertEquals("value5", cache.getString("k5"));
+            assertTrue(dir.list().length < 10);
+            assertFalse(new File(dir, sha1("k5")).exists());
+
+            // 较大的值仍单独存为文件，变小后移回共享存储
+            String large = repeat('a', 6000);
+            cache.put("k1", large);
+            assertEquals(large, cache.getString("k1"));
+            assertTrue(new File(dir, sha1("k1")).isFile());
+            assertEquals(1000, cache.getCacheCount());
+            cache.put("k1", "small");
+            assertEquals("small", cache.getString("k1"));
+            awaitDeleted(new File(dir, sha1("k1")));
+            cache.put("k2", large);
+            assertTrue(cache.remove("k3"));
+            assertNull(cache.getString("k3"));
+            cache.put("expired", "x", 0);
+            Thread.sleep(10);
+            assertNull(cache.getString("expired"));
+
+            // 流式读写与共享存储中的值互通
+            Snapshot snapshot = cache.getSnapshot("k4");
+            try {
+                byte[] data = new byte[(int) snapshot.getLength()];
+                new DataInputStream(snapshot.getInputStream()).readFully(data);
+                assertEquals("value4", new String(data, "UTF-8"));
+            } finally {
+                snapshot.close();
+            }
+            Editor editor = cache.edit("k6");
+            editor.newOutputStream().write("streamed".getBytes("UTF-8"));
+            assertTrue(editor.commit());
+            assertTrue(cache.putAsync("k7", "async").get(TIMEOUT, TimeUnit.MILLISECONDS));
+
+            ACache reopened = awaitLoaded(reopen(dir, Long.MAX_VALUE, Integer.MAX_VALUE, 1, true));
+            assertEquals(cache.getCacheCount(), reopened.getCacheCount());
+            assertEquals(cache.getCacheSize(), reopened.getCacheSize());
+            assertEquals("small", reopened.getString("k1"));
+            assertEquals(large, reopened.getString("k2"));
+            assertNull(reopened.getString("k3"));
+            assertEquals("streamed", reopened.getString("k6"));
+            assertEquals("async", reopened.getString("k7"));
+            assertEquals("value999", reopened.getString("k999"));
+
+            // 反复覆盖后压缩共享存储，占用的磁盘空间远小于写入的总量
+            String value = repeat('z', 3000);
+            long written = 0;
+            for (int round = 0; round < 6; round++) {
+                for (int i = 0; i < 1000; i++) {
+                    reopened.put("k" + i, round + value);
+                    written += value.length();
+                }
+            }
+            long deadline = System.currentTimeMillis() + TIMEOUT;
+            while (FileUtils.getDirLength(dir) > written / 2 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertTrue(FileUtils.getDirLength(dir) <= written / 2);
+            assertEquals(5 + value, reopened.getString("k500"));
+            ACache compacted = awaitLoaded(reopen(dir, Long.MAX_VALUE, Integer.MAX_VALUE, 1, true));
+            assertEquals(reopened.getCacheCount(), compacted.getCacheCount());
+            assertEquals(5 + value, compacted.getString("k999"));
+
+            // 单独的文件与共享存储中的值按同一个LRU顺序淘汰
+            ACache evict = awaitLoaded(ACache.get(evictDir, Long.MAX_VALUE, 100, 1, true));
+            evict.put("large", large);
+            for (int i = 0; i < 150; i++) {
+                evict.put("s" + i, "v" + i);
+                if (i % 10 == 0) {
+                    assertEquals(large, evict.getString("large"));
+                }
+            }
+            deadline = System.currentTimeMillis() + TIMEOUT;
+            while (evict.getCacheCount() > 100 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertTrue(evict.getCacheCount() <= 100);
+            assertEquals(large, evict.getString("large"));
+            assertNull(evict.getString("s0"));
+            assertEquals("v149", evict.getString("s149"));
+
+            // 关闭共享存储后重新打开，其中的值迁移为单独的文件
+            ACache disabled = awaitLoaded(reopen(evictDir, Long.MAX_VALUE, 100, 1, false));
+            assertEquals(evict.getCacheCount(), disabled.getCacheCount());
+            assertEquals("v149", disabled.getString("s149"));
+            assertTrue(new File(evictDir, sha1("s149")).isFile());
+        } finally {
+            FileUtils.deleteDir(dir);
+            FileUtils.deleteDir(evictDir);
+        }
+    }
+
+    private static File createTempDir() throws Exception {
+        File dir = File.createTempFile("acache", "");
+        assertTrue(dir.delete());
+        assertTrue(dir.mkdirs());
+        return dir;
+    }
+
+    private static String repeat(final char c, final int count) {
+        char[] chars = new char[count];
+        Arrays.fill(chars, c);
+        return new String(chars);
+    }
+
+    private static String sha1(final String key) throws Exception {
+        byte[] digest = MessageDigest.getInstance("SHA-1").digest(key.getBytes("UTF-8"));
+        StringBuilder builder = new StringBuilder();
+        for (byte b : digest) {
+            builder.append(String.format(Locale.US, "%02x", b & 0xff));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * 同一目录只会创建一个实例，通过不同的路径写法创建新的实例，模拟进程重启后重新打开
+     */
+    private static ACache reopen(final File dir, final long maxSize, final int maxCount,
+                                 final int shardCount, final boolean slabEnabled) {
+        File path = dir;
+        for (int i = REOPEN_COUNT.incrementAndGet(); i > 0; i--) {
+            path = new File(path, ".");
+        }
+        return ACache.get(path, maxSize, maxCount, shardCount, slabEnabled);
+    }
+
+    private static void assertShardValues(final ACache cache) {
+        for (int t = 0; t < 8; t++) {
+            for (int i = 0; i < 100; i++) {
+                assertEquals("v" + i, cache.getString("k" + (t * 100 + i)));
+            }
+        }
+    }
+
+    private static int evictedCount(final Map<RemovalCause, List<String>> removals) {
+        synchronized (removals) {
+            List<String> keys = removals.get(RemovalCause.EVICTED);
+            return keys != null ? keys.size() : 0;
+        }
+    }
+
+    /**
+     * 以流的方式读取，校验长度及内容，内容为按位置循环的字节
+     */
+    private static void assertSnapshot(final ACache cache, final String key, final long length) throws Exception {
+        Snapshot snapshot = cache.getSnapshot(key);
+        assertNotNull(snapshot);
+        try {
+            assertEquals(length, snapshot.getLength());
+            assertTrue(snapshot.getDueTime() > System.currentTimeMillis());
+            InputStream in = snapshot.getInputStream();
+            byte[] buffer = new byte[8192];
+            long position = 0;
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                for (int i = 0; i < read; i++) {
+                    assertEquals((byte) (position + i), buffer[i]);
+                }
+                position += read;
+            }
+            assertEquals(length, position);
+        } finally {
+            snapshot.close();
+        }
+    }
+
+    /**
+     * 等待后台的淘汰或过期清理完成，缓存个数降到指定值
+     */
+    private static void awaitCount(final ACache cache, final int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT;
+        while (cache.getCacheCount() != count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(count, cache.getCacheCount());
+    }
+
+    /**
+     * 等待文件被删除，清理时先移出索引，再在锁外删除文件
+     */
+    private static void awaitDeleted(final File file) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT;
+        while (file.exists() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertFalse(file.exists());
+    }
+
+    /**
+     * 等待预热完成，预热在维护线程中按提交顺序执行，完成时此前提交的后台任务也已执行完
+     */
+    private static ACache awaitLoaded(final ACache cache) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT;
+        while (!cache.isLoaded() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertTrue(cache.isLoaded());
+        return cache;
+    }
+}
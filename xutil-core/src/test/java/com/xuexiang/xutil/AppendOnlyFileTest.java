@@ -0,0 +1,208 @@
+/*
+ * Copyright (C) 2018 xuexiangjys(xuexiangjys@163.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.xuexiang.xutil;
+
+import com.xuexiang.xutil.file.AppendOnlyFile;
+import com.xuexiang.xutil.file.FileIOUtils;
+
+import org.junit.Test;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * <pre>
+ *     desc   : 只追加写入文件的测试
+ *     author : agent
+ *     time   : 2026/10/18 下午12:58
+ * </pre>
+ */
+public class AppendOnlyFileTest {
+
+    private static final int CHUNK_SIZE = 4096;
+
+    @Test
+    public void appendTest() throws Exception {
+        File file = File.createTempFile("append", ".log");
+        try {
+            // 跨越多个块写入，关闭后截断到已写入的长度
+            AppendOnlyFile appendOnlyFile = AppendOnlyFile.open(file, CHUNK_SIZE);
+            assertNotNull(appendOnlyFile);
+            StringBuilder expected = new StringBuilder();
+            for (int i = 0; i < 1000; i++) {
+                String line = "line " + i + "\n";
+                assertTrue(appendOnlyFile.append(line.getBytes("UTF-8")));
+                expected.append(line);
+            }
+            byte[] large = new byte[CHUNK_SIZE * 2 + 1];
+            Arrays.fill(large, (byte) 'x');
+            assertTrue(appendOnlyFile.append(large, 1, CHUNK_SIZE * 2));
+            expected.append(new String(large, 1, CHUNK_SIZE * 2, "UTF-8"));
+            assertEquals(expected.length(), appendOnlyFile.length());
+            appendOnlyFile.close();
+            assertEquals(expected.length(), file.length());
+            assertArrayEquals(expected.toString().getBytes("UTF-8"), FileIOUtils.readFile2BytesByStream(file));
+            assertFalse(appendOnlyFile.append(new byte[]{'a'}));
+
+            // 再次打开后继续追加
+            appendOnlyFile = AppendOnlyFile.open(file, CHUNK_SIZE);
+            assertNotNull(appendOnlyFile);
+            assertEquals(expected.length(), appendOnlyFile.length());
+            assertTrue(appendOnlyFile.append("end".getBytes("UTF-8")));
+            appendOnlyFile.close();
+            assertEquals(expected.toString() + "end", FileIOUtils.readFile2String(file, "UTF-8"));
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void zeroTailTest() throws Exception {
+        File file = File.createTempFile("append", ".log");
+        try {
+            // 恰好写满一块且以 0 结尾的记录，关闭及再次打开后长度不变
+            byte[] record = new byte[CHUNK_SIZE];
+            Arrays.fill(record, (byte) 'z');
+            record[CHUNK_SIZE - 2] = 0;
+            record[CHUNK_SIZE - 1] = 0;
+            AppendOnlyFile appendOnlyFile = AppendOnlyFile.open(file, CHUNK_SIZE);
+            assertNotNull(appendOnlyFile);
+            assertTrue(appendOnlyFile.append(record));
+            appendOnlyFile.close();
+            assertEquals(CHUNK_SIZE, file.length());
+
+            appendOnlyFile = AppendOnlyFile.open(file, CHUNK_SIZE);
+            assertNotNull(appendOnlyFile);
+            assertEquals(CHUNK_SIZE, appendOnlyFile.length());
+            appendOnlyFile.close();
+            assertEquals(CHUNK_SIZE, file.length());
+            assertArrayEquals(record, FileIOUtils.readFile2BytesByStream(file));
+            assertFalse(lengthFile(file).exists());
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void recoverTest() throws Exception {
+        File file = File.createTempFile("append", ".log");
+        AppendOnlyFile crashed = AppendOnlyFile.open(file, CHUNK_SIZE);
+        try {
+            // 同步的数据以 0 结尾，同步后又写入了未同步的数据，未关闭，模拟进程异常退出
+            assertNotNull(crashed);
+            byte[] committed = new byte[CHUNK_SIZE + 100];
+            Arrays.fill(committed, 0, CHUNK_SIZE, (byte) 'c');
+            assertTrue(crashed.append(committed));
+            assertTrue(crashed.flush());
+            assertTrue(crashed.append("uncommitted".getBytes("UTF-8")));
+            assertEquals(0, file.length() % CHUNK_SIZE);
+
+            // 恢复到最后一次同步的长度
+            AppendOnlyFile reopened = AppendOnlyFile.open(file, CHUNK_SIZE);
+            assertNotNull(reopened);
+            assertEquals(committed.length, reopened.length());
+            reopened.close();
+            assertArrayEquals(committed, FileIOUtils.readFile2BytesByStream(file));
+        } finally {
+            if (crashed != null) {
+                crashed.close();
+            }
+            file.delete();
+        }
+    }
+
+    @Test
+    public void lengthFileTest() throws Exception {
+        File file = File.createTempFile("append", ".log");
+        try {
+            // 没有记录时为正常关闭的文件，保留整个文件
+            byte[] data = Arrays.copyOf(new byte[]{'a'}, CHUNK_SIZE * 2);
+            assertTrue(FileIOUtils.writeFileFromBytesByStream(file, data));
+            assertReopened(file, data.length);
+
+            // 记录不完整时保留整个文件
+            assertTrue(FileIOUtils.writeFileFromBytesByStream(lengthFile(file), new byte[3]));
+            assertReopened(file, data.length);
+
+            // 记录的长度超过文件长度时，文件在外部被截断
+            DataOutputStream dos = new DataOutputStream(new FileOutputStream(lengthFile(file)));
+            try {
+                dos.writeLong(data.length + 1);
+                dos.writeLong(~(data.length + 1L));
+            } finally {
+                dos.close();
+            }
+            assertReopened(file, data.length);
+        } finally {
+            lengthFile(file).delete();
+            file.delete();
+        }
+    }
+
+    @Test
+    public void unclosedTest() throws Exception {
+        File file = File.createTempFile("append", ".log");
+        AppendOnlyFile crashed = AppendOnlyFile.open(file, CHUNK_SIZE);
+        try {
+            // 写入并同步后未关闭，模拟进程异常退出
+            assertNotNull(crashed);
+            byte[] line = "crash recovery\n".getBytes("UTF-8");
+            for (int i = 0; i < 300; i++) {
+                assertTrue(crashed.append(line));
+            }
+            crashed.flush();
+            long length = crashed.length();
+            assertEquals(0, file.length() % CHUNK_SIZE);
+            assertTrue(file.length() > length);
+
+            AppendOnlyFile reopened = AppendOnlyFile.open(file, CHUNK_SIZE);
+            assertNotNull(reopened);
+            assertEquals(length, reopened.length());
+            reopened.close();
+            assertEquals(length, file.length());
+        } finally {
+            if (crashed != null) {
+                crashed.close();
+            }
+            file.delete();
+        }
+    }
+
+    /**
+     * 再次打开后应恢复出指定的长度，关闭后删除长度记录
+     */
+    private static void assertReopened(final File file, final long length) {
+        AppendOnlyFile appendOnlyFile = AppendOnlyFile.open(file, CHUNK_SIZE);
+        assertNotNull(appendOnlyFile);
+        assertEquals(length, appendOnlyFile.length());
+        appendOnlyFile.close();
+        assertEquals(length, file.length());
+        assertFalse(lengthFile(file).exists());
+    }
+
+    private static File lengthFile(final File file) {
+        return new File(file.getPath() + ".len");
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright (C) 2018 xuexiangjys(xuexiangjys@163.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.xuexiang.xutil;
+
+import com.xuexiang.xutil.file.BufferPool;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * <pre>
+ *     desc   : 缓冲区池的测试
+ *     author : agent
+ *     time   : 2026/10/18 下午12:56
+ * </pre>
+ */
+public class BufferPoolTest {
+
+    @Test
+    public void bucketTest() throws Exception {
+        BufferPool pool = new BufferPool(4 * 1024 * 1024, 1024 * 1024);
+        // 按 2 的幂分级向上取整
+        assertEquals(BufferPool.MIN_POOLED_SIZE, pool.acquireBytes(1).length);
+        assertEquals(4096, pool.acquireBytes(4096).length);
+        assertEquals(8192, pool.acquireBytes(4097).length);
+        assertEquals(BufferPool.MAX_POOLED_SIZE, pool.acquireBytes(BufferPool.MAX_POOLED_SIZE).length);
+        // 超过最大分级时按请求大小分配，归还时丢弃
+        byte[] large = pool.acquireBytes(BufferPool.MAX_POOLED_SIZE + 1);
+        assertEquals(BufferPool.MAX_POOLED_SIZE + 1, large.length);
+        assertEquals(5, pool.getStats().getMissCount());
+        pool.release(large);
+        assertEquals(1, pool.getStats().getDiscardCount());
+        assertEquals(0, pool.getStats().getPooledBytes());
+
+        // 同一分级内复用
+        byte[] bytes = pool.acquireBytes(5000);
+        pool.release(bytes);
+        assertEquals(8192, pool.getStats().getPooledBytes());
+        assertSame(bytes, pool.acquireBytes(6000));
+        assertEquals(1, pool.getStats().getHitCount());
+        assertEquals(0, pool.getStats().getPooledBytes());
+        // 其他分级不受影响
+        pool.release(bytes);
+        assertNotSame(bytes, pool.acquireBytes(4096));
+        assertNotSame(bytes, pool.acquireBytes(9000));
+        assertEquals(8192, pool.getStats().getPooledBytes());
+
+        // 大小不是分级大小的数组不进入池中
+        pool.release(new byte[5000]);
+        pool.release(new byte[1024]);
+        assertEquals(3, pool.getStats().getDiscardCount());
+        assertEquals(8192, pool.getStats().getPooledBytes());
+        pool.release((byte[]) null);
+        assertEquals(3, pool.getStats().getDiscardCount());
+    }
+
+    @Test
+    public void budgetTest() throws Exception {
+        BufferPool pool = new BufferPool(3 * 4096, 8192);
+        byte[] a = pool.acquireBytes(4096);
+        byte[] b = pool.acquireBytes(4096);
+        byte[] c = pool.acquireBytes(8192);
+        pool.release(a);
+        pool.release(b);
+        assertEquals(8192, pool.getStats().getPooledBytes());
+        // 超过上限时丢弃
+        pool.release(c);
+        assertEquals(1, pool.getStats().getDiscardCount());
+        assertEquals(8192, pool.getStats().getPooledBytes());
+        // 取出后释放额度
+        assertSame(b, pool.acquireBytes(100));
+        assertEquals(4096, pool.getStats().getPooledBytes());
+        pool.release(c);
+        assertEquals(3 * 4096, pool.getStats().getPooledBytes());
+        assertEquals(1, pool.getStats().getDiscardCount());
+
+        pool.clear();
+        assertEquals(0, pool.getStats().getPooledBytes());
+        assertNotSame(a, pool.acquireBytes(4096));
+    }
+
+    @Test
+    public void directTest() throws Exception {
+        BufferPool pool = new BufferPool(0, 8192);
+        ByteBuffer buffer = pool.acquireDirect(100);
+        assertTrue(buffer.isDirect());
+        assertEquals(4096, buffer.capacity());
+        buffer.putInt(1).flip();
+        pool.release(buffer);
+        assertEquals(4096, pool.getStats().getPooledDirectBytes());
+        // 取出时已清空
+        ByteBuffer reused = pool.acquireDirect(4096);
+        assertSame(buffer, reused);
+        assertEquals(0, reused.position());
+        assertEquals(reused.capacity(), reused.limit());
+        assertEquals(0, pool.getStats().getPooledDirectBytes());
+
+        // 非直接缓冲区及超过上限的直接缓冲区被丢弃
+        pool.release(ByteBuffer.allocate(4096));
+        pool.release(pool.acquireDirect(16384));
+        assertEquals(2, pool.getStats().getDiscardCount());
+        assertEquals(0, pool.getStats().getPooledDirectBytes());
+
+        // 字节数组上限为 0 时不缓存
+        pool.release(pool.acquireBytes(4096));
+        assertEquals(3, pool.getStats().getDiscardCount());
+        assertEquals(0, pool.getStats().getPooledBytes());
+
+        pool.release(reused);
+        pool.clear();
+        assertEquals(0, pool.getStats().getPooledDirectBytes());
+    }
+}
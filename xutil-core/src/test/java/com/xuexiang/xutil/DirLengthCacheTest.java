@@ -0,0 +1,175 @@
+/*
+ * Copyright (C) 2018 xuexiangjys(xuexiangjys@163.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.xuexiang.xutil;
+
+import com.xuexiang.xutil.file.DirLengthCache;
+import com.xuexiang.xutil.file.FileIOUtils;
+import com.xuexiang.xutil.file.FileUtils;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * <pre>
+ *     desc   : 目录大小缓存的测试
+ *     author : agent
+ *     time   : 2026/10/18 下午1:31
+ * </pre>
+ */
+public class DirLengthCacheTest {
+
+    @Test
+    public void lengthTest() throws Exception {
+        File dir = createTempDir();
+        try {
+            for (int i = 0; i < 20; i++) {
+                assertTrue(FileIOUtils.writeFileFromString(new File(dir, "d" + (i % 3) + "/s" + (i % 2) + "/f" + i), "file " + i));
+            }
+            assertTrue(FileIOUtils.writeFileFromString(new File(dir, "root"), "root"));
+            assertEquals(FileUtils.getDirLength(dir), DirLengthCache.getDirLength(dir));
+            assertEquals(FileUtils.getDirLength(dir), DirLengthCache.getDirLength(dir.getPath()));
+            assertEquals(-1, DirLengthCache.getDirLength(new File(dir, "root")));
+            assertEquals(-1, DirLengthCache.getDirLength(new File(dir, "missing")));
+        } finally {
+            FileUtils.deleteDir(dir);
+            DirLengthCache.clear();
+        }
+    }
+
+    @Test
+    public void mtimeTest() throws Exception {
+        File dir = createTempDir();
+        try {
+            File sub = new File(dir, "sub");
+            File file = new File(sub, "a.txt");
+            assertTrue(FileIOUtils.writeFileFromString(file, "12345"));
+            setOld(dir, sub);
+            assertEquals(5, DirLengthCache.getDirLength(dir));
+
+            // 新增文件改变目录的修改时间，重新读取该目录
+            assertTrue(new File(sub, "b.txt").createNewFile());
+            appendInPlace(new File(sub, "b.txt"), 3);
+            assertEquals(8, DirLengthCache.getDirLength(dir));
+
+            // 删除子目录，已不存在的子目录不再计入
+            setOld(dir, sub);
+            assertEquals(8, DirLengthCache.getDirLength(dir));
+            assertTrue(FileUtils.deleteDir(sub));
+            assertEquals(0, DirLengthCache.getDirLength(dir));
+        } finally {
+            FileUtils.deleteDir(dir);
+            DirLengthCache.clear();
+        }
+    }
+
+    @Test
+    public void notifyChangedTest() throws Exception {
+        File dir = createTempDir();
+        try {
+            File sub = new File(dir, "sub");
+            File file = new File(sub, "a.txt");
+            assertTrue(FileIOUtils.writeFileFromString(file, "12345"));
+            setOld(dir, sub);
+            assertEquals(5, DirLengthCache.getDirLength(dir));
+
+            // 原地修改文件不改变目录的修改时间，未通知时仍为缓存的结果
+            appendInPlace(file, 10);
+            assertEquals(5, DirLengthCache.getDirLength(dir));
+            DirLengthCache.notifyChanged(file);
+            assertEquals(15, DirLengthCache.getDirLength(dir));
+
+            // 通过 FileIOUtils 写入时自动通知
+            setOld(dir, sub);
+            assertEquals(15, DirLengthCache.getDirLength(dir));
+            assertTrue(FileIOUtils.writeFileFromString(file, "1", true));
+            assertEquals(16, DirLengthCache.getDirLength(dir));
+
+            // 移除缓存
+            appendInPlace(file, 4);
+            DirLengthCache.invalidate(sub);
+            assertEquals(20, DirLengthCache.getDirLength(dir));
+            appendInPlace(file, 1);
+            DirLengthCache.clear();
+            assertEquals(21, DirLengthCache.getDirLength(dir));
+        } finally {
+            FileUtils.deleteDir(dir);
+            DirLengthCache.clear();
+        }
+    }
+
+    @Test
+    public void symlinkTest() throws Exception {
+        File dir = createTempDir();
+        File outside = createTempDir();
+        try {
+            assertTrue(FileIOUtils.writeFileFromString(new File(dir, "a.txt"), "0123456789"));
+            assertTrue(FileIOUtils.writeFileFromString(new File(outside, "b.txt"), "outside"));
+            // 指向自身的链接形成循环，指向其他目录的链接会重复统计，都不进入
+            Files.createSymbolicLink(new File(dir, "loop").toPath(), dir.toPath());
+            Files.createSymbolicLink(new File(dir, "link").toPath(), outside.toPath());
+            assertEquals(10, DirLengthCache.getDirLength(dir));
+            // 通过链接访问的目录本身正常统计
+            File linkToDir = new File(outside, "linkToDir");
+            Files.createSymbolicLink(linkToDir.toPath(), dir.toPath());
+            assertEquals(10, DirLengthCache.getDirLength(linkToDir));
+        } finally {
+            FileUtils.deleteDir(new File(outside, "linkToDir"));
+            new File(outside, "linkToDir").delete();
+            new File(dir, "loop").delete();
+            new File(dir, "link").delete();
+            FileUtils.deleteDir(dir);
+            FileUtils.deleteDir(outside);
+            DirLengthCache.clear();
+        }
+    }
+
+    private static File createTempDir() throws Exception {
+        File dir = File.createTempFile("length", "");
+        assertTrue(dir.delete());
+        assertTrue(dir.mkdirs());
+        return dir;
+    }
+
+    /**
+     * 将目录的修改时间设为较早的时间，超过文件系统修改时间的精度后目录的缓存才有效
+     */
+    private static void setOld(final File... dirs) {
+        long old = System.currentTimeMillis() - 60 * 1000;
+        for (File dir : dirs) {
+            assertTrue(dir.setLastModified(old));
+        }
+    }
+
+    /**
+     * 不经过 FileIOUtils 原地追加写入，不改变所在目录的修改时间
+     */
+    private static void appendInPlace(final File file, final int count) throws Exception {
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        try {
+            raf.seek(raf.length());
+            raf.write(new byte[count]);
+        } finally {
+            raf.close();
+        }
+    }
+}
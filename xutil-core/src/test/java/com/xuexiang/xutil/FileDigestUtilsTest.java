@@ -0,0 +1,169 @@
+/*
+ * Copyright (C) 2018 xuexiangjys(xuexiangjys@163.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.xuexiang.xutil;
+
+import com.xuexiang.xutil.file.FileDigestUtils;
+import com.xuexiang.xutil.file.FileIOUtils;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+import java.util.zip.CRC32;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * <pre>
+ *     desc   : 文件摘要的测试
+ *     author : agent
+ *     time   : 2026/10/18 下午12:56
+ * </pre>
+ */
+public class FileDigestUtilsTest {
+
+    @Test
+    public void knownDigestTest() throws Exception {
+        File file = File.createTempFile("digest", ".txt");
+        try {
+            assertTrue(FileIOUtils.writeFileFromBytesByStream(file, "abc".getBytes("UTF-8")));
+            Map<String, String> digests = FileDigestUtils.digest2HexString(file,
+                    FileDigestUtils.SHA256, FileDigestUtils.MD5, FileDigestUtils.CRC32, FileDigestUtils.SHA1);
+            // 与传入的算法顺序一致
+            assertEquals(Arrays.asList(FileDigestUtils.SHA256, FileDigestUtils.MD5, FileDigestUtils.CRC32, FileDigestUtils.SHA1),
+                    new ArrayList<>(digests.keySet()));
+            assertEquals("900150983CD24FB0D6963F7D28E17F72", digests.get(FileDigestUtils.MD5));
+            assertEquals("A9993E364706816ABA3E25717850C26C9CD0D89D", digests.get(FileDigestUtils.SHA1));
+            assertEquals("BA7816BF8F01CFEA414140DE5DAE2223B00361A396177A9CB410FF61F20015AD", digests.get(FileDigestUtils.SHA256));
+            assertEquals("352441C2", digests.get(FileDigestUtils.CRC32));
+
+            // 空文件
+            assertTrue(FileIOUtils.writeFileFromBytesByStream(file, new byte[0]));
+            digests = FileDigestUtils.digest2HexString(file, FileDigestUtils.MD5, FileDigestUtils.SHA256);
+            assertEquals("D41D8CD98F00B204E9800998ECF8427E", digests.get(FileDigestUtils.MD5));
+            assertEquals("E3B0C44298FC1C149AFBF4C8996FB92427AE41E4649B934CA495991B7852B855", digests.get(FileDigestUtils.SHA256));
+            assertArrayEquals(new byte[4], FileDigestUtils.digestSingle(file, FileDigestUtils.CRC32));
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void largeFileTest() throws Exception {
+        File file = File.createTempFile("digest", ".bin");
+        try {
+            // 大于读取缓冲区，需要分多次读取
+            byte[] data = new byte[600 * 1024 + 7];
+            new Random(42).nextBytes(data);
+            assertTrue(FileIOUtils.writeFileFromBytesByStream(file, data));
+
+            Map<String, byte[]> digests = FileDigestUtils.digest(file, FileDigestUtils.MD5, FileDigestUtils.SHA256, FileDigestUtils.CRC32);
+            assertArrayEquals(MessageDigest.getInstance("MD5").digest(data), digests.get(FileDigestUtils.MD5));
+            assertArrayEquals(MessageDigest.getInstance("SHA-256").digest(data), digests.get(FileDigestUtils.SHA256));
+            CRC32 crc32 = new CRC32();
+            crc32.update(data);
+            long value = crc32.getValue();
+            assertArrayEquals(new byte[]{(byte) (value >>> 24), (byte) (value >>> 16), (byte) (value >>> 8), (byte) value},
+                    digests.get(FileDigestUtils.CRC32));
+            assertArrayEquals(digests.get(FileDigestUtils.MD5), FileDigestUtils.digestSingle(file, FileDigestUtils.MD5));
+
+            // 进度回调及取消
+            final long[] progress = new long[2];
+            assertNotNull(FileDigestUtils.digest(file, new String[]{FileDigestUtils.MD5}, new FileDigestUtils.OnDigestListener() {
+                @Override
+                public boolean onProgress(long hashedBytes, long totalBytes) {
+                    assertTrue(hashedBytes > progress[0]);
+                    progress[0] = hashedBytes;
+                    progress[1] = totalBytes;
+                    return true;
+                }
+            }));
+            assertEquals(data.length, progress[0]);
+            assertEquals(data.length, progress[1]);
+            assertNull(FileDigestUtils.digest(file, new String[]{FileDigestUtils.MD5}, new FileDigestUtils.OnDigestListener() {
+                @Override
+                public boolean onProgress(long hashedBytes, long totalBytes) {
+                    return false;
+                }
+            }));
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void mappedTest() throws Exception {
+        File file = File.createTempFile("digest", ".bin");
+        try {
+            // 超过映射阈值，且跨越多个映射窗口，最后一段不足一个缓冲区
+            byte[] data = new byte[17 * 1024 * 1024 + 13];
+            new Random(7).nextBytes(data);
+            assertTrue(FileIOUtils.writeFileFromBytesByStream(file, data));
+            assertTrue(file.length() >= FileDigestUtils.MAP_THRESHOLD);
+
+            final long[] progress = new long[1];
+            Map<String, byte[]> digests = FileDigestUtils.digest(file,
+                    new String[]{FileDigestUtils.MD5, FileDigestUtils.SHA1, FileDigestUtils.CRC32},
+                    new FileDigestUtils.OnDigestListener() {
+                        @Override
+                        public boolean onProgress(long hashedBytes, long totalBytes) {
+                            assertTrue(hashedBytes > progress[0]);
+                            progress[0] = hashedBytes;
+                            return true;
+                        }
+                    });
+            assertEquals(data.length, progress[0]);
+            assertArrayEquals(MessageDigest.getInstance("MD5").digest(data), digests.get(FileDigestUtils.MD5));
+            assertArrayEquals(MessageDigest.getInstance("SHA-1").digest(data), digests.get(FileDigestUtils.SHA1));
+            CRC32 crc32 = new CRC32();
+            crc32.update(data);
+            long value = crc32.getValue();
+            assertArrayEquals(new byte[]{(byte) (value >>> 24), (byte) (value >>> 16), (byte) (value >>> 8), (byte) value},
+                    digests.get(FileDigestUtils.CRC32));
+
+            // 取消
+            assertNull(FileDigestUtils.digest(file, new String[]{FileDigestUtils.SHA256}, new FileDigestUtils.OnDigestListener() {
+                @Override
+                public boolean onProgress(long hashedBytes, long totalBytes) {
+                    return hashedBytes < totalBytes / 2;
+                }
+            }));
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void invalidTest() throws Exception {
+        File file = File.createTempFile("digest", ".txt");
+        try {
+            assertNull(FileDigestUtils.digest(file, "NO-SUCH-ALGORITHM"));
+            assertNull(FileDigestUtils.digest(file));
+            assertNull(FileDigestUtils.digest(new File(file.getPath() + ".missing"), FileDigestUtils.MD5));
+        } finally {
+            file.delete();
+        }
+    }
+}
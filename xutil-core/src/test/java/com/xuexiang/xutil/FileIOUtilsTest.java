@@ -0,0 +1,203 @@
+/*
+ * Copyright (C) 2018 xuexiangjys(xuexiangjys@163.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.xuexiang.xutil;
+
+import com.xuexiang.xutil.file.FileIOUtils;
+import com.xuexiang.xutil.file.FileUtils;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * <pre>
+ *     desc   : 文件读写的测试
+ *     author : agent
+ *     time   : 2026/10/18 下午12:54
+ * </pre>
+ */
+public class FileIOUtilsTest {
+
+    /**
+     * 缓冲区大小是全局设置，每个测试后恢复默认值，避免影响其他测试
+     */
+    @After
+    public void restoreBufferSize() {
+        FileIOUtils.setBufferSize(8192);
+    }
+
+    @Test
+    public void forEachLineTest() throws Exception {
+        File file = File.createTempFile("lines", ".txt");
+        try {
+            // 第一个 \r\n 位于第 4、5 个字符，缓冲区为 4 时被拆分到两次读取中
+            String content = "abc\r\nde\rfg\n\r\nhij\r";
+            List<String> expected = Arrays.asList("abc", "de", "fg", "", "hij");
+            assertTrue(FileIOUtils.writeFileFromString(file, content));
+            for (int bufferSize = 1; bufferSize <= 8; bufferSize++) {
+                FileIOUtils.setBufferSize(bufferSize);
+                assertEquals("bufferSize " + bufferSize, expected, readLines(file));
+            }
+
+            // 最后一行没有换行符
+            assertTrue(FileIOUtils.writeFileFromString(file, "abc\r\nd"));
+            FileIOUtils.setBufferSize(4);
+            assertEquals(Arrays.asList("abc", "d"), readLines(file));
+
+            // 访问者中止读取
+            final List<String> lines = new ArrayList<>();
+            assertFalse(FileIOUtils.forEachLine(file, "UTF-8", new FileIOUtils.LineVisitor() {
+                @Override
+                public boolean onLine(CharSequence line, int lineNumber) {
+                    lines.add(line.toString());
+                    return false;
+                }
+            }));
+            assertEquals(Arrays.asList("abc"), lines);
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void writeFileAtomicallyTest() throws Exception {
+        File dir = File.createTempFile("atomic", "");
+        assertTrue(dir.delete());
+        File file = new File(new File(dir, "sub"), "data.txt");
+        try {
+            // 父目录不存在时创建
+            assertTrue(FileIOUtils.writeFileAtomically(file, "first"));
+            assertEquals("first", FileIOUtils.readFile2String(file));
+            // 覆盖原有内容
+            assertTrue(FileIOUtils.writeFileAtomically(file.getPath(), "second".getBytes()));
+            assertEquals("second", FileIOUtils.readFile2String(file));
+            assertEquals(Arrays.asList("data.txt"), Arrays.asList(file.getParentFile().list()));
+            // 字符串固定使用 UTF-8 编码
+            assertTrue(FileIOUtils.writeFileAtomically(file, "中文"));
+            assertArrayEquals("中文".getBytes("UTF-8"), FileIOUtils.readFile2BytesByStream(file));
+            assertTrue(FileIOUtils.writeFileAtomically(file, "second"));
+
+            // 目标为非空目录时重命名失败，临时文件被删除
+            File target = new File(dir, "target");
+            assertTrue(new File(target, "child").mkdirs());
+            assertFalse(FileIOUtils.writeFileAtomically(target, "third"));
+            assertTrue(target.isDirectory());
+            assertEquals(2, dir.list().length);
+
+            assertFalse(FileIOUtils.writeFileAtomically(file, (byte[]) null));
+            assertEquals("second", FileIOUtils.readFile2String(file));
+        } finally {
+            FileUtils.deleteDir(dir);
+        }
+    }
+
+    @Test
+    public void copyFileByChannelTest() throws Exception {
+        File dir = File.createTempFile("copy", "");
+        assertTrue(dir.delete());
+        File src = new File(dir, "src.bin");
+        try {
+            // 大于单次传输及缓冲区的长度
+            byte[] data = new byte[300 * 1024 + 3];
+            new Random(3).nextBytes(data);
+            assertTrue(FileIOUtils.writeFileFromBytesByStream(src, data));
+            File dest = new File(new File(dir, "sub"), "dest.bin");
+            assertTrue(FileIOUtils.copyFileByChannel(src, dest));
+            assertArrayEquals(data, FileIOUtils.readFile2BytesByStream(dest));
+            // 覆盖已有的较长文件时截断
+            byte[] shorter = Arrays.copyOf(data, 10);
+            assertTrue(FileIOUtils.writeFileFromBytesByStream(src, shorter));
+            assertTrue(FileIOUtils.copyFileByChannel(src, dest));
+            assertArrayEquals(shorter, FileIOUtils.readFile2BytesByStream(dest));
+
+            // 同一文件，包括路径写法不同及经过符号链接时，不复制也不截断
+            assertFalse(FileIOUtils.copyFileByChannel(src, src));
+            assertFalse(FileIOUtils.copyFileByChannel(src, new File(dir, "sub/../src.bin")));
+            File link = new File(dir, "link.bin");
+            Files.createSymbolicLink(link.toPath(), src.toPath());
+            assertFalse(FileIOUtils.copyFileByChannel(src, link));
+            assertFalse(FileUtils.copyFile(src, link, null));
+            assertFalse(FileUtils.moveFile(link, src, null));
+            assertArrayEquals(shorter, FileIOUtils.readFile2BytesByStream(src));
+
+            assertFalse(FileIOUtils.copyFileByChannel(new File(dir, "missing"), dest));
+            assertFalse(FileIOUtils.copyFileByChannel(src, null));
+        } finally {
+            FileUtils.deleteDir(dir);
+        }
+    }
+
+    @Test
+    public void moveFileTest() throws Exception {
+        File dir = File.createTempFile("move", "");
+        assertTrue(dir.delete());
+        File src = new File(dir, "src.txt");
+        try {
+            assertTrue(FileIOUtils.writeFileFromString(src, "move"));
+            // 同一文件系统下直接重命名
+            File dest = new File(new File(dir, "sub"), "dest.txt");
+            assertTrue(FileUtils.moveFile(src, dest, null));
+            assertFalse(src.exists());
+            assertEquals("move", FileIOUtils.readFile2String(dest));
+
+            // 目标已存在时按监听器决定是否覆盖
+            assertTrue(FileIOUtils.writeFileFromString(src, "again"));
+            assertTrue(FileUtils.moveFile(src, dest, new FileUtils.OnReplaceListener() {
+                @Override
+                public boolean onReplace() {
+                    return false;
+                }
+            }));
+            assertTrue(src.exists());
+            assertEquals("move", FileIOUtils.readFile2String(dest));
+            assertTrue(FileUtils.moveFile(src, dest, null));
+            assertFalse(src.exists());
+            assertEquals("again", FileIOUtils.readFile2String(dest));
+
+            // 复制保留源文件
+            assertTrue(FileUtils.copyFile(dest, src, null));
+            assertEquals("again", FileIOUtils.readFile2String(src));
+            assertEquals("again", FileIOUtils.readFile2String(dest));
+        } finally {
+            FileUtils.deleteDir(dir);
+        }
+    }
+
+    private static List<String> readLines(final File file) {
+        final List<String> lines = new ArrayList<>();
+        assertTrue(FileIOUtils.forEachLine(file, "UTF-8", new FileIOUtils.LineVisitor() {
+            @Override
+            public boolean onLine(CharSequence line, int lineNumber) {
+                assertEquals(lines.size() + 1, lineNumber);
+                lines.add(line.toString());
+                return true;
+            }
+        }));
+        return lines;
+    }
+}
@@ -0,0 +1,246 @@
+/*
+ * Copyright (C) 2018 xuexiangjys(xuexiangjys@163.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.xuexiang.xutil;
+
+import com.xuexiang.xutil.file.FileIOUtils;
+import com.xuexiang.xutil.file.FileTreeUtils;
+import com.xuexiang.xutil.file.FileUtils;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * <pre>
+ *     desc   : 目录树批量操作的测试
+ *     author : agent
+ *     time   : 2026/10/18 下午1:12
+ * </pre>
+ */
+public class FileTreeUtilsTest {
+
+    /**
+     * 超过并发处理的阈值，会用到共享的IO线程池
+     */
+    private static final int FILE_COUNT = 40;
+
+    @Test
+    public void copyTest() throws Exception {
+        File root = createTempDir();
+        try {
+            File src = new File(root, "res");
+            long totalBytes = createTree(src);
+            File dest = new File(root, "copy");
+            final int[] finished = new int[1];
+            FileTreeUtils.Result result = FileTreeUtils.copyDir(src, dest, null, new FileTreeUtils.OnProgressListener() {
+                @Override
+                public void onProgress(int finishedCount, int totalCount, long finishedBytes, long totalBytes) {
+                    finished[0] = finishedCount;
+                }
+            });
+            assertTrue(result.toString(), result.isSuccess());
+            assertEquals(FILE_COUNT + 1, result.getTotalCount());
+            assertEquals(FILE_COUNT + 1, result.getSuccessCount());
+            assertEquals(totalBytes, result.getTotalBytes());
+            assertEquals(FILE_COUNT + 1, finished[0]);
+            assertSameTree(src, dest);
+            assertTrue(new File(dest, "empty").isDirectory());
+
+            // 目标已存在时不覆盖
+            FileTreeUtils.Result skipped = FileTreeUtils.copyDir(src, dest, new FileUtils.OnReplaceListener() {
+                @Override
+                public boolean onReplace() {
+                    return false;
+                }
+            }, null);
+            assertTrue(skipped.isSuccess());
+            assertEquals(0, skipped.getTotalCount());
+        } finally {
+            FileUtils.deleteDir(root);
+        }
+    }
+
+    @Test
+    public void moveTest() throws Exception {
+        File root = createTempDir();
+        try {
+            File src = new File(root, "res");
+            createTree(src);
+            File expected = new File(root, "expected");
+            assertTrue(FileTreeUtils.copyDir(src, expected, null, null).isSuccess());
+
+            // 同一文件系统下直接重命名整个目录
+            File dest = new File(new File(root, "parent"), "moved");
+            FileTreeUtils.Result result = FileTreeUtils.moveDir(src, dest, null, null);
+            assertTrue(result.isSuccess());
+            assertFalse(src.exists());
+            assertSameTree(expected, dest);
+        } finally {
+            FileUtils.deleteDir(root);
+        }
+    }
+
+    @Test
+    public void deleteTest() throws Exception {
+        File root = createTempDir();
+        try {
+            File dir = new File(root, "res");
+            long totalBytes = createTree(dir);
+            FileTreeUtils.Result result = FileTreeUtils.deleteAllInDir(dir, null);
+            assertTrue(result.isSuccess());
+            assertEquals(FILE_COUNT + 1, result.getTotalCount());
+            assertEquals(totalBytes, result.getTotalBytes());
+            assertTrue(dir.isDirectory());
+            assertEquals(0, dir.list().length);
+
+            createTree(dir);
+            assertTrue(FileTreeUtils.deleteDir(dir, null).isSuccess());
+            assertFalse(dir.exists());
+            // 目录不存在时视为成功，不是目录时失败
+            assertTrue(FileTreeUtils.deleteDir(dir, null).isSuccess());
+            File file = new File(root, "file");
+            assertTrue(FileIOUtils.writeFileFromString(file, "file"));
+            assertFalse(FileTreeUtils.deleteDir(file, null).isSuccess());
+            assertFalse(FileTreeUtils.deleteDir(null, null).isSuccess());
+        } finally {
+            FileUtils.deleteDir(root);
+        }
+    }
+
+    @Test
+    public void prefixTest() throws Exception {
+        File root = createTempDir();
+        try {
+            File src = new File(root, "res");
+            createTree(src);
+            // res1 与 res 有相同的前缀，但不在 res 中
+            File sibling = new File(root, "res1");
+            assertTrue(FileTreeUtils.copyDir(src, sibling, null, null).isSuccess());
+            assertSameTree(src, sibling);
+
+            // 目标目录在源目录中
+            File nested = new File(src, "sub");
+            FileTreeUtils.Result result = FileTreeUtils.copyDir(src, nested, null, null);
+            assertFalse(result.isSuccess());
+            assertEquals(0, result.getTotalCount());
+            assertEquals(Collections.singletonList(src), result.getFailedFiles());
+            assertFalse(nested.exists());
+            assertFalse(FileTreeUtils.moveDir(src, nested, null, null).isSuccess());
+            assertTrue(src.isDirectory());
+        } finally {
+            FileUtils.deleteDir(root);
+        }
+    }
+
+    @Test
+    public void symlinkTest() throws Exception {
+        File root = createTempDir();
+        try {
+            File outside = new File(root, "outside");
+            assertTrue(FileIOUtils.writeFileFromString(new File(outside, "keep.txt"), "keep"));
+            File src = new File(root, "res");
+            assertTrue(FileIOUtils.writeFileFromString(new File(src, "a.txt"), "a"));
+            Files.createSymbolicLink(new File(src, "link").toPath(), outside.toPath());
+            Files.createSymbolicLink(new File(src, "loop").toPath(), src.toPath());
+
+            // 复制时复制链接指向的内容，指向上层目录的链接不进入并记为失败
+            File dest = new File(root, "copy");
+            FileTreeUtils.Result result = FileTreeUtils.copyDir(src, dest, null, null);
+            assertFalse(result.isSuccess());
+            assertEquals(Collections.singletonList(new File(src, "loop")), result.getFailedFiles());
+            assertEquals(2, result.getSuccessCount());
+            assertEquals("keep", FileIOUtils.readFile2String(new File(dest, "link/keep.txt")));
+            assertEquals("a", FileIOUtils.readFile2String(new File(dest, "a.txt")));
+
+            // 删除时只删除链接本身，不影响链接指向的目录
+            assertTrue(FileTreeUtils.deleteDir(src, null).isSuccess());
+            assertFalse(src.exists());
+            assertEquals("keep", FileIOUtils.readFile2String(new File(outside, "keep.txt")));
+        } finally {
+            FileUtils.deleteDir(root);
+        }
+    }
+
+    @Test
+    public void partialFailureTest() throws Exception {
+        File root = createTempDir();
+        try {
+            File src = new File(root, "res");
+            createTree(src);
+            // 指向不存在文件的链接无法复制，其余文件照常复制
+            File dangling = new File(src, "dangling");
+            Files.createSymbolicLink(dangling.toPath(), new File(root, "missing").toPath());
+            File dest = new File(root, "copy");
+            FileTreeUtils.Result result = FileTreeUtils.copyDir(src, dest, null, null);
+            assertFalse(result.isSuccess());
+            assertEquals(FILE_COUNT + 2, result.getTotalCount());
+            assertEquals(FILE_COUNT + 1, result.getSuccessCount());
+            assertEquals(Collections.singletonList(dangling), result.getFailedFiles());
+            assertTrue(dangling.delete());
+            assertSameTree(src, dest);
+        } finally {
+            FileUtils.deleteDir(root);
+        }
+    }
+
+    private static File createTempDir() throws Exception {
+        File dir = File.createTempFile("tree", "");
+        assertTrue(dir.delete());
+        assertTrue(dir.mkdirs());
+        return dir;
+    }
+
+    /**
+     * 创建包含多级子目录和空目录的目录树
+     *
+     * @return 文件总大小
+     */
+    private static long createTree(final File dir) {
+        long totalBytes = 0;
+        for (int i = 0; i < FILE_COUNT; i++) {
+            String content = "file " + i;
+            assertTrue(FileIOUtils.writeFileFromString(new File(dir, "d" + (i % 4) + "/s" + (i % 3) + "/f" + i + ".txt"), content));
+            totalBytes += content.length();
+        }
+        assertTrue(FileIOUtils.writeFileFromString(new File(dir, "root.txt"), "root"));
+        assertTrue(new File(dir, "empty").mkdirs());
+        return totalBytes + 4;
+    }
+
+    private static void assertSameTree(final File expected, final File actual) {
+        assertEquals(expected.isDirectory(), actual.isDirectory());
+        if (!expected.isDirectory()) {
+            assertEquals(FileIOUtils.readFile2String(expected), FileIOUtils.readFile2String(actual));
+            return;
+        }
+        String[] expectedNames = expected.list();
+        String[] actualNames = actual.list();
+        Arrays.sort(expectedNames);
+        Arrays.sort(actualNames);
+        assertEquals(Arrays.asList(expectedNames), Arrays.asList(actualNames));
+        for (String name : expectedNames) {
+            assertSameTree(new File(expected, name), new File(actual, name));
+        }
+    }
+}
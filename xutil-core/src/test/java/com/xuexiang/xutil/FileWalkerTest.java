@@ -0,0 +1,237 @@
+/*
+ * Copyright (C) 2018 xuexiangjys(xuexiangjys@163.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.xuexiang.xutil;
+
+import com.xuexiang.xutil.file.FileIOUtils;
+import com.xuexiang.xutil.file.FileUtils;
+import com.xuexiang.xutil.file.FileWalker;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileFilter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * <pre>
+ *     desc   : 目录遍历的测试
+ *     author : agent
+ *     time   : 2026/10/18 下午12:55
+ * </pre>
+ */
+public class FileWalkerTest {
+
+    @Test
+    public void walkTest() throws Exception {
+        File root = createTree();
+        try {
+            // 先序遍历，目录在其子文件之前
+            List<String> visited = walk(new FileWalker(root), root, null);
+            assertEquals(sorted("a.txt", "d1", "d1/b.txt", "d1/d2", "d1/d2/c.txt", "skip", "skip/e.txt"), sorted(visited));
+            for (String path : visited) {
+                int slash = path.lastIndexOf('/');
+                if (slash > 0) {
+                    assertTrue(visited.indexOf(path.substring(0, slash)) < visited.indexOf(path));
+                }
+            }
+
+            // 迭代器与访问者的结果一致
+            List<String> iterated = new ArrayList<>();
+            for (File file : new FileWalker(root)) {
+                iterated.add(relativePath(root, file));
+            }
+            assertEquals(visited, iterated);
+
+            // 根目录不是目录
+            assertFalse(new FileWalker(new File(root, "a.txt")).walk(new CollectVisitor(root, null)));
+            assertFalse(new FileWalker(new File(root, "a.txt")).iterator().hasNext());
+        } finally {
+            FileUtils.deleteDir(root);
+        }
+    }
+
+    @Test
+    public void depthTest() throws Exception {
+        File root = createTree();
+        try {
+            // 超过最大深度的目录不会进入
+            final List<String> entering = new ArrayList<>();
+            List<String> visited = walk(new FileWalker(root).setMaxDepth(1), root, new FileWalker.Visitor() {
+                @Override
+                public FileWalker.Action onVisit(File file, int depth, boolean isEnteringDir) {
+                    assertEquals(1, depth);
+                    if (isEnteringDir) {
+                        entering.add(file.getName());
+                    }
+                    return FileWalker.Action.CONTINUE;
+                }
+            });
+            assertEquals(sorted("a.txt", "d1", "skip"), sorted(visited));
+            assertTrue(entering.isEmpty());
+
+            visited = walk(new FileWalker(root).setMaxDepth(2), root, null);
+            assertEquals(sorted("a.txt", "d1", "d1/b.txt", "d1/d2", "skip", "skip/e.txt"), sorted(visited));
+
+            try {
+                new FileWalker(root).setMaxDepth(0);
+                fail("maxDepth 0 should be rejected");
+            } catch (IllegalArgumentException expected) {
+                // 最大深度至少为 1
+            }
+        } finally {
+            FileUtils.deleteDir(root);
+        }
+    }
+
+    @Test
+    public void filterTest() throws Exception {
+        File root = createTree();
+        try {
+            // 结果过滤器不影响进入子目录
+            List<String> visited = walk(new FileWalker(root).setFilter(new FileFilter() {
+                @Override
+                public boolean accept(File file) {
+                    return file.isFile();
+                }
+            }), root, null);
+            assertEquals(sorted("a.txt", "d1/b.txt", "d1/d2/c.txt", "skip/e.txt"), sorted(visited));
+
+            // 目录过滤器剪掉整棵子树，被排除的目录本身仍在结果中
+            FileFilter dirFilter = new FileFilter() {
+                @Override
+                public boolean accept(File file) {
+                    return !"skip".equals(file.getName());
+                }
+            };
+            visited = walk(new FileWalker(root).setDirFilter(dirFilter), root, null);
+            assertEquals(sorted("a.txt", "d1", "d1/b.txt", "d1/d2", "d1/d2/c.txt", "skip"), sorted(visited));
+
+            List<String> iterated = new ArrayList<>();
+            for (File file : new FileWalker(root).setDirFilter(dirFilter)) {
+                iterated.add(relativePath(root, file));
+            }
+            assertEquals(sorted(visited), sorted(iterated));
+        } finally {
+            FileUtils.deleteDir(root);
+        }
+    }
+
+    @Test
+    public void skipTest() throws Exception {
+        final File root = createTree();
+        try {
+            // 跳过 d1 的子树
+            List<String> visited = walk(new FileWalker(root), root, new FileWalker.Visitor() {
+                @Override
+                public FileWalker.Action onVisit(File file, int depth, boolean isEnteringDir) {
+                    assertEquals(relativePath(root, file).split("/").length, depth);
+                    assertEquals(file.isDirectory(), isEnteringDir);
+                    return "d1".equals(file.getName()) ? FileWalker.Action.SKIP_SUBTREE : FileWalker.Action.CONTINUE;
+                }
+            });
+            assertEquals(sorted("a.txt", "d1", "skip", "skip/e.txt"), sorted(visited));
+
+            // 终止遍历
+            final List<String> terminated = new ArrayList<>();
+            assertFalse(new FileWalker(root).walk(new FileWalker.Visitor() {
+                @Override
+                public FileWalker.Action onVisit(File file, int depth, boolean isEnteringDir) {
+                    terminated.add(file.getName());
+                    return FileWalker.Action.TERMINATE;
+                }
+            }));
+            assertEquals(1, terminated.size());
+
+            // 取消遍历
+            final FileWalker walker = new FileWalker(root);
+            final List<String> cancelled = new ArrayList<>();
+            assertFalse(walker.walk(new FileWalker.Visitor() {
+                @Override
+                public FileWalker.Action onVisit(File file, int depth, boolean isEnteringDir) {
+                    cancelled.add(file.getName());
+                    walker.cancel();
+                    return FileWalker.Action.CONTINUE;
+                }
+            }));
+            assertEquals(1, cancelled.size());
+            assertTrue(walker.isCancelled());
+        } finally {
+            FileUtils.deleteDir(root);
+        }
+    }
+
+    /**
+     * root/a.txt、root/d1/b.txt、root/d1/d2/c.txt、root/skip/e.txt
+     */
+    private static File createTree() throws Exception {
+        File root = File.createTempFile("walker", "");
+        assertTrue(root.delete());
+        assertTrue(FileIOUtils.writeFileFromString(new File(root, "a.txt"), "a"));
+        assertTrue(FileIOUtils.writeFileFromString(new File(root, "d1/b.txt"), "b"));
+        assertTrue(FileIOUtils.writeFileFromString(new File(root, "d1/d2/c.txt"), "c"));
+        assertTrue(FileIOUtils.writeFileFromString(new File(root, "skip/e.txt"), "e"));
+        return root;
+    }
+
+    /**
+     * 遍历并返回访问到的文件相对于根目录的路径
+     */
+    private static List<String> walk(final FileWalker walker, final File root, final FileWalker.Visitor visitor) {
+        CollectVisitor collector = new CollectVisitor(root, visitor);
+        assertTrue(walker.walk(collector));
+        return collector.mPaths;
+    }
+
+    private static String relativePath(final File root, final File file) {
+        return file.getPath().substring(root.getPath().length() + 1).replace(File.separatorChar, '/');
+    }
+
+    private static List<String> sorted(final String... paths) {
+        return sorted(Arrays.asList(paths));
+    }
+
+    private static List<String> sorted(final List<String> paths) {
+        List<String> list = new ArrayList<>(paths);
+        Collections.sort(list);
+        return list;
+    }
+
+    private static final class CollectVisitor implements FileWalker.Visitor {
+        private final File mRoot;
+        private final FileWalker.Visitor mDelegate;
+        private final List<String> mPaths = new ArrayList<>();
+
+        private CollectVisitor(final File root, final FileWalker.Visitor delegate) {
+            mRoot = root;
+            mDelegate = delegate;
+        }
+
+        @Override
+        public FileWalker.Action onVisit(File file, int depth, boolean isEnteringDir) {
+            mPaths.add(relativePath(mRoot, file));
+            return mDelegate != null ? mDelegate.onVisit(file, depth, isEnteringDir) : FileWalker.Action.CONTINUE;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (C) 2018 xuexiangjys(xuexiangjys@163.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.xuexiang.xutil;
+
+import com.xuexiang.xutil.file.FileIOUtils;
+import com.xuexiang.xutil.file.LineIndex;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * <pre>
+ *     desc   : 文件行索引的测试
+ *     author : agent
+ *     time   : 2026/10/18 下午12:54
+ * </pre>
+ */
+public class LineIndexTest {
+
+    @Test
+    public void countLinesTest() throws Exception {
+        File file = File.createTempFile("line", ".txt");
+        try {
+            assertEquals(1, countLines(file, ""));
+            assertEquals(1, countLines(file, "a"));
+            assertEquals(3, countLines(file, "a\nb\nc"));
+            assertEquals(3, countLines(file, "a\r\nb\r\nc"));
+            assertEquals(3, countLines(file, "a\rb\rc"));
+            // 混合换行符，\r\n 只算一次换行
+            assertEquals(4, countLines(file, "a\nb\r\nc\rd"));
+            // 以换行符结尾时最后一个空行也计算在内
+            assertEquals(2, countLines(file, "a\r\n"));
+            assertEquals(3, countLines(file, "a\r\r"));
+            assertEquals(3, countLines(file, "\n\n"));
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void indexTest() throws Exception {
+        File file = File.createTempFile("line", ".txt");
+        try {
+            StringBuilder content = new StringBuilder();
+            for (int i = 1; i <= 100; i++) {
+                content.append("line").append(i).append(i % 3 == 0 ? "\r\n" : i % 3 == 1 ? "\n" : "\r");
+            }
+            content.append("end");
+            assertTrue(FileIOUtils.writeFileFromString(file, content.toString()));
+
+            LineIndex index = LineIndex.build(file, 10);
+            assertNotNull(index);
+            assertEquals(101, index.getLineCount());
+            assertEquals(LineIndex.countLines(file), index.getLineCount());
+            assertEquals(41, index.getIndexedLine(45));
+            assertSame(index, LineIndex.getCached(file));
+
+            // 使用索引定位读取的内容与逐行读取一致
+            assertEquals(Arrays.asList("line45", "line46", "line47"), FileIOUtils.readFile2List(file, 45, 47));
+            assertEquals(Arrays.asList("line100", "end"), FileIOUtils.readFile2List(file, 100, 200));
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void staleCacheTest() throws Exception {
+        File file = File.createTempFile("line", ".txt");
+        try {
+            assertTrue(FileIOUtils.writeFileFromString(file, "a\nb\nc\n"));
+            LineIndex index = LineIndex.build(file, 1);
+            assertNotNull(index);
+            assertTrue(index.isValid(file));
+
+            // 长度变化后失效，并从缓存中移除
+            assertTrue(FileIOUtils.writeFileFromString(file, "x\ny\nz\nw\n"));
+            assertFalse(index.isValid(file));
+            assertNull(LineIndex.getCached(file));
+            assertEquals(Arrays.asList("z", "w"), FileIOUtils.readFile2List(file, 3, 4));
+
+            // 长度不变但修改时间变化后同样失效
+            index = LineIndex.build(file, 1);
+            assertNotNull(index);
+            assertTrue(FileIOUtils.writeFileFromString(file, "1\n2\n3\n4\n"));
+            assertTrue(file.setLastModified(file.lastModified() - 10000));
+            assertNull(LineIndex.getCached(file));
+            assertEquals(Arrays.asList("3", "4"), FileIOUtils.readFile2List(file, 3, 4));
+        } finally {
+            file.delete();
+        }
+    }
+
+    private static int countLines(final File file, final String content) {
+        assertTrue(FileIOUtils.writeFileFromString(file, content));
+        return LineIndex.countLines(file);
+    }
+}
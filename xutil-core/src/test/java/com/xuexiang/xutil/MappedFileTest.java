@@ -0,0 +1,150 @@
+/*
+ * Copyright (C) 2018 xuexiangjys(xuexiangjys@163.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.xuexiang.xutil;
+
+import com.xuexiang.xutil.file.FileIOUtils;
+import com.xuexiang.xutil.file.MappedFile;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * <pre>
+ *     desc   : 内存映射文件的测试
+ *     author : agent
+ *     time   : 2026/10/18 下午12:57
+ * </pre>
+ */
+public class MappedFileTest {
+
+    private static final int WINDOW_SIZE = 4096;
+
+    @Test
+    public void windowBoundaryTest() throws Exception {
+        File file = File.createTempFile("mapped", ".bin");
+        byte[] data = new byte[WINDOW_SIZE * 8 + MappedFile.WINDOW_OVERLAP * 2 + 123];
+        new Random(7).nextBytes(data);
+        assertTrue(FileIOUtils.writeFileFromBytesByStream(file, data));
+        MappedFile mappedFile = MappedFile.open(file, WINDOW_SIZE);
+        try {
+            assertNotNull(mappedFile);
+            assertEquals(data.length, mappedFile.length());
+
+            // 窗口边界两侧的字节
+            for (long position = WINDOW_SIZE - 1; position < data.length; position += WINDOW_SIZE) {
+                assertEquals(data[(int) position], mappedFile.get(position));
+                if (position + 1 < data.length) {
+                    assertEquals(data[(int) position + 1], mappedFile.get(position + 1));
+                }
+            }
+            assertEquals(data[data.length - 1], mappedFile.get(data.length - 1));
+
+            // 跨越窗口边界的读取
+            assertRead(data, mappedFile, WINDOW_SIZE - 10, 20);
+            // 超过重叠长度，需要跨越多个窗口，窗口数也超过保留的个数
+            assertRead(data, mappedFile, WINDOW_SIZE / 2, MappedFile.WINDOW_OVERLAP + WINDOW_SIZE * 3);
+            assertRead(data, mappedFile, 0, data.length);
+
+            // 读取到文件末尾时截断，已到末尾时返回 -1
+            byte[] dst = new byte[100];
+            assertEquals(50, mappedFile.read(data.length - 50, dst, 0, 100));
+            assertArrayEquals(Arrays.copyOfRange(data, data.length - 50, data.length), Arrays.copyOf(dst, 50));
+            assertEquals(-1, mappedFile.read(data.length, dst, 0, 100));
+
+            // 重叠长度内的切片在窗口中，超过时单独映射
+            assertSlice(data, mappedFile, WINDOW_SIZE - 10, 20);
+            assertSlice(data, mappedFile, WINDOW_SIZE * 2 + 1, MappedFile.WINDOW_OVERLAP);
+            assertSlice(data, mappedFile, WINDOW_SIZE - 1, MappedFile.WINDOW_OVERLAP + WINDOW_SIZE * 2);
+            assertSlice(data, mappedFile, data.length - 1, 1);
+
+            try {
+                mappedFile.get(data.length);
+                fail("read beyond the end of file");
+            } catch (IndexOutOfBoundsException expected) {
+                // 超出文件长度
+            }
+            try {
+                mappedFile.slice(data.length - 10, 11);
+                fail("slice beyond the end of file");
+            } catch (IndexOutOfBoundsException expected) {
+                // 超出文件长度
+            }
+        } finally {
+            if (mappedFile != null) {
+                mappedFile.close();
+            }
+            file.delete();
+        }
+    }
+
+    @Test
+    public void openTest() throws Exception {
+        File file = File.createTempFile("mapped", ".bin");
+        try {
+            assertTrue(FileIOUtils.writeFileFromBytesByStream(file, new byte[]{1, 2, 3}));
+            // 文件小于窗口时整个映射
+            MappedFile mappedFile = MappedFile.open(file);
+            assertNotNull(mappedFile);
+            assertEquals(3, mappedFile.slice(0, 3).remaining());
+            assertEquals(3, mappedFile.get(2));
+            mappedFile.close();
+            try {
+                mappedFile.get(0);
+                fail("read after close");
+            } catch (IllegalStateException expected) {
+                // 已关闭
+            }
+
+            assertNull(MappedFile.open(new File(file.getPath() + ".missing")));
+            assertNull(MappedFile.open(file.getParentFile()));
+            try {
+                MappedFile.open(file, 0);
+                fail("windowSize 0 should be rejected");
+            } catch (IllegalArgumentException expected) {
+                // 窗口大小必须大于 0
+            }
+        } finally {
+            file.delete();
+        }
+    }
+
+    private static void assertRead(final byte[] data, final MappedFile mappedFile, final int position, final int length) {
+        byte[] dst = new byte[length + 2];
+        assertEquals(length, mappedFile.read(position, dst, 1, length));
+        assertArrayEquals(Arrays.copyOfRange(data, position, position + length), Arrays.copyOfRange(dst, 1, length + 1));
+    }
+
+    private static void assertSlice(final byte[] data, final MappedFile mappedFile, final int position, final int size) {
+        ByteBuffer slice = mappedFile.slice(position, size);
+        assertEquals(0, slice.position());
+        assertEquals(size, slice.limit());
+        byte[] dst = new byte[size];
+        slice.get(dst);
+        assertArrayEquals(Arrays.copyOfRange(data, position, position + size), dst);
+    }
+}
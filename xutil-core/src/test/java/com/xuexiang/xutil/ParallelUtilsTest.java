@@ -0,0 +1,106 @@
+/*
+ * Copyright (C) 2018 xuexiangjys(xuexiangjys@163.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.xuexiang.xutil;
+
+import com.xuexiang.xutil.system.ParallelUtils;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * <pre>
+ *     desc   : 并行执行的测试
+ *     author : agent
+ *     time   : 2026/10/18 下午1:14
+ * </pre>
+ */
+public class ParallelUtilsTest {
+
+    private static final int COUNT = 100;
+
+    @Test
+    public void forEachTest() throws Exception {
+        final AtomicIntegerArray runs = new AtomicIntegerArray(COUNT);
+        ParallelUtils.forEach(COUNT, new ParallelUtils.IndexTask() {
+            @Override
+            public void run(int index) {
+                runs.incrementAndGet(index);
+            }
+        });
+        for (int i = 0; i < COUNT; i++) {
+            assertEquals(1, runs.get(i));
+        }
+    }
+
+    @Test
+    public void failureTest() throws Exception {
+        final AtomicInteger finished = new AtomicInteger();
+        try {
+            ParallelUtils.forEach(COUNT, new ParallelUtils.IndexTask() {
+                @Override
+                public void run(int index) {
+                    if (index == 3) {
+                        throw new IllegalStateException("task " + index);
+                    }
+                    sleep(1);
+                    finished.incrementAndGet();
+                }
+            });
+            fail("failure should be propagated");
+        } catch (IllegalStateException expected) {
+            assertEquals("task 3", expected.getMessage());
+        }
+        // 异常抛出时其余任务已全部执行完
+        assertEquals(COUNT - 1, finished.get());
+    }
+
+    @Test
+    public void interruptTest() throws Exception {
+        final AtomicInteger finished = new AtomicInteger();
+        Thread.currentThread().interrupt();
+        try {
+            ParallelUtils.forEach(8, new ParallelUtils.IndexTask() {
+                @Override
+                public void run(int index) {
+                    sleep(50);
+                    finished.incrementAndGet();
+                }
+            });
+            // 被中断时仍等待所有任务执行完，并保留中断状态
+            assertEquals(8, finished.get());
+            assertTrue(Thread.interrupted());
+        } finally {
+            Thread.interrupted();
+        }
+    }
+
+    /**
+     * 不响应中断的休眠，调用线程带着中断状态参与执行
+     */
+    private static void sleep(final long millis) {
+        long deadline = System.currentTimeMillis() + millis;
+        while (System.currentTimeMillis() < deadline) {
+            Thread.yield();
+        }
+    }
+}